@@ -0,0 +1,314 @@
+package com.jw.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code BulkInsertEntity} 를 상속한 {@code @Entity} 마다 {@code <엔티티>_BulkRowBinder} 를 생성한다.
+ * <p>
+ * 컬럼 순서와 이름은 {@code BulkInsertMapping} 과 같은 규칙으로 정하고, 값은 getter(Lombok {@code @Getter})로 읽어
+ * 타입별 setter({@code setLong}, {@code setBigDecimal} ...)로 바인딩한다.
+ * {@code @Convert} 등 지원하지 않는 매핑이 있으면 생성하지 않고 리플렉션 바인딩에 맡긴다.
+ */
+@SupportedAnnotationTypes(BulkRowBinderProcessor.ENTITY)
+public class BulkRowBinderProcessor extends AbstractProcessor {
+
+    static final String ENTITY = "javax.persistence.Entity";
+    static final String BINDER_SUFFIX = "_BulkRowBinder";
+
+    private static final String BULK_INSERT_ENTITY = "com.jw.common.entity.BulkInsertEntity";
+    private static final String BASE_ENUM = "com.jw.common.enums.BaseEnum";
+    private static final String JPA = "javax.persistence.";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS && isBulkInsertEntity((TypeElement) element)) {
+                    generate((TypeElement) element);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement entity) {
+        List<String> columnNames = new ArrayList<>();
+        List<String> bindStatements = new ArrayList<>();
+        for (VariableElement field : persistentFields(entity)) {
+            String statement = bindStatement(field);
+            if (statement == null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "Unsupported mapping, falls back to reflective binding: " + field, entity);
+                return;
+            }
+            int position = annotation(field, JPA + "Id") != null ? 0 : columnNames.size();
+            columnNames.add(position, columnName(field));
+            bindStatements.add(position, statement);
+        }
+        write(entity, columnNames, bindStatements);
+    }
+
+    // BulkInsertMapping.persistentFields 와 같은 규칙: 상위 클래스부터, 연관 컬렉션/transient 제외
+    private List<VariableElement> persistentFields(TypeElement entity) {
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement type = entity; type != null; type = superclass(type)) {
+            if (annotation(type, ENTITY) != null || annotation(type, JPA + "MappedSuperclass") != null) {
+                hierarchy.add(0, type);
+            }
+        }
+        List<VariableElement> fields = new ArrayList<>();
+        for (TypeElement type : hierarchy) {
+            for (Element member : type.getEnclosedElements()) {
+                if (member.getKind() != ElementKind.FIELD) {
+                    continue;
+                }
+                Set<Modifier> modifiers = member.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)
+                        || annotation(member, JPA + "Transient") != null
+                        || annotation(member, JPA + "OneToMany") != null
+                        || annotation(member, JPA + "ManyToMany") != null
+                        || annotation(member, JPA + "OneToOne") != null && annotation(member, JPA + "JoinColumn") == null) {
+                    continue;
+                }
+                fields.add((VariableElement) member);
+            }
+        }
+        return fields;
+    }
+
+    private String bindStatement(VariableElement field) {
+        if (annotation(field, JPA + "Convert") != null) {
+            return null;
+        }
+        String getter = "row." + getterName(field) + "()";
+        if (annotation(field, JPA + "ManyToOne") != null) {
+            return bindForeignKey(field, getter);
+        }
+        TypeMirror type = field.asType();
+        switch (type.getKind()) {
+            case LONG:
+                return "statement.setLong(index++, " + getter + ");";
+            case INT:
+            case SHORT:
+                return "statement.setInt(index++, " + getter + ");";
+            case DOUBLE:
+                return "statement.setDouble(index++, " + getter + ");";
+            case BOOLEAN:
+                return "statement.setBoolean(index++, " + getter + ");";
+            case DECLARED:
+                return bindObject(field, (TypeElement) ((DeclaredType) type).asElement(), getter);
+            default:
+                return null;
+        }
+    }
+
+    private String bindObject(VariableElement field, TypeElement type, String getter) {
+        String name = type.getQualifiedName().toString();
+        String value = "value" + capitalize(field.getSimpleName().toString());
+        String declaration = name + " " + value + " = " + getter + ";\n        ";
+        switch (name) {
+            case "java.lang.Long":
+                return declaration + nullable(value, "BIGINT", "statement.setLong(index, " + value + ");");
+            case "java.lang.Integer":
+            case "java.lang.Short":
+                return declaration + nullable(value, "INTEGER", "statement.setInt(index, " + value + ");");
+            case "java.lang.Double":
+                return declaration + nullable(value, "NUMERIC", "statement.setDouble(index, " + value + ");");
+            case "java.lang.Boolean":
+                return declaration + nullable(value, "BOOLEAN", "statement.setBoolean(index, " + value + ");");
+            case "java.math.BigDecimal":
+                return declaration + nullable(value, "NUMERIC", "statement.setBigDecimal(index, " + value + ");");
+            case "java.math.BigInteger":
+                return declaration + nullable(value, "NUMERIC",
+                        "statement.setBigDecimal(index, new java.math.BigDecimal(" + value + "));");
+            case "java.lang.String":
+                return declaration + nullable(value, "VARCHAR", "statement.setString(index, " + value + ");");
+            case "java.time.LocalDate":
+                return declaration + nullable(value, "DATE", "statement.setDate(index, java.sql.Date.valueOf(" + value + "));");
+            case "java.time.LocalDateTime":
+                return declaration + nullable(value, "TIMESTAMP",
+                        "statement.setTimestamp(index, java.sql.Timestamp.valueOf(" + value + "));");
+            default:
+                return type.getKind() == ElementKind.ENUM ? bindEnum(field, type, declaration, value) : null;
+        }
+    }
+
+    // BulkInsertMapping.enumColumn 과 같은 규칙: @Enumerated 가 없는 BaseEnum 은 code, STRING 은 name, 그 외 ordinal
+    private String bindEnum(VariableElement field, TypeElement type, String declaration, String value) {
+        AnnotationMirror enumerated = annotation(field, JPA + "Enumerated");
+        if (enumerated == null && implementsInterface(type, BASE_ENUM)) {
+            return declaration + nullable(value, "VARCHAR", "statement.setString(index, " + value + ".getCode());");
+        }
+        if (enumerated != null && String.valueOf(annotationValue(enumerated, "value")).endsWith("STRING")) {
+            return declaration + nullable(value, "VARCHAR", "statement.setString(index, " + value + ".name());");
+        }
+        return declaration + nullable(value, "INTEGER", "statement.setInt(index, " + value + ".ordinal());");
+    }
+
+    // FK 는 연관 엔티티의 ID. 지연 로딩 프록시를 초기화하지 않도록 ID getter 만 호출한다
+    private String bindForeignKey(VariableElement field, String getter) {
+        TypeElement target = (TypeElement) ((DeclaredType) field.asType()).asElement();
+        VariableElement targetId = idField(target);
+        if (targetId == null) {
+            return null;
+        }
+        String reference = "ref" + capitalize(field.getSimpleName().toString());
+        String value = reference + "Id";
+        String idType = targetId.asType().getKind() == TypeKind.LONG ? "Long" : targetId.asType().toString();
+        String setter = "java.lang.Long".equals(idType) || "Long".equals(idType)
+                ? "statement.setLong(index, " + value + ");"
+                : "statement.setObject(index, " + value + ", java.sql.Types.BIGINT);";
+        return target.getQualifiedName() + " " + reference + " = " + getter + ";\n        "
+                + idType + " " + value + " = " + reference + " != null ? " + reference + "." + getterName(targetId) + "() : null;\n        "
+                + nullable(value, "BIGINT", setter);
+    }
+
+    private static String nullable(String value, String sqlType, String setter) {
+        return "if (" + value + " == null) {\n"
+                + "            statement.setNull(index, java.sql.Types." + sqlType + ");\n"
+                + "        } else {\n"
+                + "            " + setter + "\n"
+                + "        }\n"
+                + "        index++;";
+    }
+
+    private void write(TypeElement entity, List<String> columnNames, List<String> bindStatements) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+        String entityName = entity.getSimpleName().toString();
+        String binderName = entityName + BINDER_SUFFIX;
+        StringBuilder source = new StringBuilder()
+                .append("package ").append(packageName).append(";\n\n")
+                .append("// Generated by ").append(getClass().getName()).append(". Do not edit.\n")
+                .append("public final class ").append(binderName)
+                .append(" implements com.jw.common.jdbc.BulkRowBinder<").append(entityName).append("> {\n\n")
+                .append("    private static final java.util.List<String> COLUMN_NAMES = java.util.Collections.unmodifiableList(\n")
+                .append("            java.util.Arrays.asList(");
+        for (int i = 0; i < columnNames.size(); i++) {
+            source.append(i > 0 ? ", " : "").append('"').append(columnNames.get(i)).append('"');
+        }
+        source.append("));\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<String> getColumnNames() {\n")
+                .append("        return COLUMN_NAMES;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public int bind(java.sql.PreparedStatement statement, int index, ").append(entityName)
+                .append(" row) throws java.sql.SQLException {\n");
+        for (String statement : bindStatements) {
+            source.append("        ").append(statement).append('\n');
+        }
+        source.append("        return index;\n")
+                .append("    }\n")
+                .append("}\n");
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName + "." + binderName, entity);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write " + binderName + ": " + e.getMessage(), entity);
+        }
+    }
+
+    private VariableElement idField(TypeElement type) {
+        for (TypeElement current = type; current != null; current = superclass(current)) {
+            for (Element member : current.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.FIELD && annotation(member, JPA + "Id") != null) {
+                    return (VariableElement) member;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String columnName(VariableElement field) {
+        boolean joinColumn = annotation(field, JPA + "ManyToOne") != null;
+        AnnotationMirror column = annotation(field, JPA + (joinColumn ? "JoinColumn" : "Column"));
+        Object name = column != null ? annotationValue(column, "name") : null;
+        if (name != null && !name.toString().isEmpty()) {
+            return name.toString();
+        }
+        String snakeCase = toSnakeCase(field.getSimpleName().toString());
+        return joinColumn ? snakeCase + "_id" : snakeCase;
+    }
+
+    private boolean isBulkInsertEntity(TypeElement type) {
+        for (TypeElement current = superclass(type); current != null; current = superclass(current)) {
+            if (current.getQualifiedName().contentEquals(BULK_INSERT_ENTITY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean implementsInterface(TypeElement type, String interfaceName) {
+        for (TypeMirror candidate : type.getInterfaces()) {
+            TypeElement element = (TypeElement) ((DeclaredType) candidate).asElement();
+            if (element.getQualifiedName().contentEquals(interfaceName) || implementsInterface(element, interfaceName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static Object annotationValue(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String getterName(VariableElement field) {
+        String prefix = field.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get";
+        return prefix + capitalize(field.getSimpleName().toString());
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String toSnakeCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+}
@@ -0,0 +1,116 @@
+package com.jw.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkRowBinderProcessorTest {
+
+    // 메인 프로젝트의 BulkInsertEntity, BulkRowBinder 와 같은 이름의 최소 정의
+    private static final JavaFileObject BULK_INSERT_ENTITY = JavaFileObjects.forSourceLines(
+            "com.jw.common.entity.BulkInsertEntity",
+            "package com.jw.common.entity;",
+            "@javax.persistence.MappedSuperclass",
+            "public abstract class BulkInsertEntity<T> {",
+            "}");
+    private static final JavaFileObject BULK_ROW_BINDER = JavaFileObjects.forSourceLines(
+            "com.jw.common.jdbc.BulkRowBinder",
+            "package com.jw.common.jdbc;",
+            "public interface BulkRowBinder<T> {",
+            "    java.util.List<String> getColumnNames();",
+            "    int bind(java.sql.PreparedStatement statement, int index, T row) throws java.sql.SQLException;",
+            "}");
+    private static final JavaFileObject PARENT = JavaFileObjects.forSourceLines(
+            "test.Parent",
+            "package test;",
+            "import javax.persistence.*;",
+            "@Entity",
+            "public class Parent extends com.jw.common.entity.BulkInsertEntity<Long> {",
+            "    @Id private Long id;",
+            "    public Long getId() { return id; }",
+            "}");
+
+    @Test
+    void generatesCompilableBinderInMappingOrder() {
+        JavaFileObject child = JavaFileObjects.forSourceLines(
+                "test.Child",
+                "package test;",
+                "import javax.persistence.*;",
+                "import java.math.BigDecimal;",
+                "@Entity",
+                "@Table(name = \"CHILD\")",
+                "public class Child extends com.jw.common.entity.BulkInsertEntity<Long> {",
+                "    public enum Status { ACTIVE, CLOSED }",
+                "    @ManyToOne @JoinColumn(name = \"PARENT_ID\") private Parent parent;",
+                "    @Column(name = \"INSTALLMENT_NO\") private int installmentNo;",
+                "    @Id @Column(name = \"ID\") private Long id;",
+                "    @Enumerated(EnumType.STRING) private Status status;",
+                "    private BigDecimal paymentAmount;",
+                "    @Transient private String note;",
+                "    public Parent getParent() { return parent; }",
+                "    public int getInstallmentNo() { return installmentNo; }",
+                "    public Long getId() { return id; }",
+                "    public Status getStatus() { return status; }",
+                "    public BigDecimal getPaymentAmount() { return paymentAmount; }",
+                "}");
+
+        Compilation compilation = javac().withProcessors(new BulkRowBinderProcessor())
+                .compile(BULK_INSERT_ENTITY, BULK_ROW_BINDER, PARENT, child);
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("test.Child_BulkRowBinder").contentsAsUtf8String()
+                .contains("java.util.Arrays.asList(\"ID\", \"PARENT_ID\", \"INSTALLMENT_NO\", \"status\", \"payment_amount\")");
+        assertThat(compilation).generatedSourceFile("test.Child_BulkRowBinder").contentsAsUtf8String()
+                .contains("statement.setInt(index++, row.getInstallmentNo());");
+        assertThat(compilation).generatedSourceFile("test.Child_BulkRowBinder").contentsAsUtf8String()
+                .contains("statement.setString(index, valueStatus.name());");
+        assertThat(compilation).generatedSourceFile("test.Child_BulkRowBinder").contentsAsUtf8String()
+                .contains("Long refParentId = refParent != null ? refParent.getId() : null;");
+    }
+
+    @Test
+    void fallsBackToReflectionForUnsupportedMapping() {
+        JavaFileObject converted = JavaFileObjects.forSourceLines(
+                "test.Converted",
+                "package test;",
+                "import javax.persistence.*;",
+                "@Entity",
+                "public class Converted extends com.jw.common.entity.BulkInsertEntity<Long> {",
+                "    @Id private Long id;",
+                "    @Convert(converter = AttributeConverter.class) private String secret;",
+                "    public Long getId() { return id; }",
+                "    public String getSecret() { return secret; }",
+                "}");
+
+        Compilation compilation = javac().withProcessors(new BulkRowBinderProcessor())
+                .compile(BULK_INSERT_ENTITY, BULK_ROW_BINDER, converted);
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContaining("falls back to reflective binding");
+        assertTrue(compilation.generatedSourceFile("test.Converted_BulkRowBinder").isEmpty());
+    }
+
+    @Test
+    void ignoresEntityOutsideBulkInsertHierarchy() {
+        JavaFileObject plain = JavaFileObjects.forSourceLines(
+                "test.Plain",
+                "package test;",
+                "import javax.persistence.*;",
+                "@Entity",
+                "public class Plain {",
+                "    @Id private Long id;",
+                "}");
+
+        Compilation compilation = javac().withProcessors(new BulkRowBinderProcessor())
+                .compile(BULK_INSERT_ENTITY, BULK_ROW_BINDER, plain);
+
+        assertThat(compilation).succeeded();
+        assertTrue(compilation.generatedSourceFiles().isEmpty());
+    }
+}
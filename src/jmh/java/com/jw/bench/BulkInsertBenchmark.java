@@ -0,0 +1,115 @@
+package com.jw.bench;
+
+import com.jw.common.id.SequenceHolder;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 대출 1건의 상환 일정(durationMonths 건)을 ID 생성 전략 / batch size 별로 저장하는 처리량 비교.
+ * <p>
+ * DB 없이 실행되도록 내장 H2 를 MySQL, Oracle 호환 모드로 띄우고 Hibernate 를 직접 bootstrap 한다.
+ * H2 에서 측정한 값이므로 전략 간 상대 비교(특히 statement 수)로만 해석해야 한다.
+ * <pre>
+ * gradle jmh
+ * gradle jmh -Pjmh.includes=BulkInsertBenchmark -Pjmh.params=strategy=CUSTOM_ID
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkInsertBenchmark {
+
+    private static final String DATA_SOURCE_NAME = "BENCH";
+    private static final BigDecimal PAYMENT_AMOUNT = BigDecimal.valueOf(850_000);
+
+    @Param({"MySQL", "Oracle"})
+    public String compatibilityMode;
+
+    @Param({"IDENTITY", "SEQUENCE", "TABLE", "ASSIGNED", "CUSTOM_ID"})
+    public IdStrategy strategy;
+
+    // hibernate.jdbc.batch_size. 1 이면 batch insert 를 하지 않는 것과 같다
+    @Param({"1", "100", "1000"})
+    public int batchSize;
+
+    @Param({"12", "360", "10000"})
+    public int durationMonths;
+
+    private final AtomicLong loanIds = new AtomicLong();
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SequenceHolder.initialize(0);
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DATASOURCE, dataSource())
+                .applySetting(AvailableSettings.DIALECT, "org.hibernate.dialect.H2Dialect")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(strategy.getEntityType())
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    // 측정 중 테이블이 계속 커지지 않도록 iteration 마다 비운다
+    @Setup(Level.Iteration)
+    public void truncate() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createQuery("delete from " + strategy.getEntityType().getSimpleName()).executeUpdate();
+            transaction.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    // BulkInsertRepositoryImpl.persistAllInChunks 와 같이 batchSize 마다 flush/clear
+    @Benchmark
+    public void saveRepaymentSchedule(StatementCounters counters) {
+        QueryCountHolder.clear();
+        Long loanId = loanIds.incrementAndGet();
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            for (int installmentNo = 1; installmentNo <= durationMonths; installmentNo++) {
+                strategy.save(session, loanId, installmentNo, PAYMENT_AMOUNT);
+                if (installmentNo % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.flush();
+            transaction.commit();
+        }
+        counters.add(QueryCountHolder.get(DATA_SOURCE_NAME), durationMonths);
+    }
+
+    private DataSource dataSource() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:bench_" + compatibilityMode + ";MODE=" + compatibilityMode + ";DB_CLOSE_DELAY=-1");
+        h2.setUser("sa");
+        return ProxyDataSourceBuilder.create(h2)
+                .name(DATA_SOURCE_NAME)
+                .countQuery()
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.jw.bench;
+
+import com.jw.bench.entity.*;
+import com.jw.common.id.SequenceHolder;
+import org.hibernate.Session;
+
+import java.math.BigDecimal;
+
+/**
+ * README 에서 비교한 ID 생성 전략.
+ * <p>
+ * 저장은 SimpleJpaRepository.save() 와 같이 새 엔티티면 persist, 아니면 merge 로 처리한다.
+ */
+public enum IdStrategy {
+
+    IDENTITY(IdentitySchedule.class) {
+        @Override
+        void save(Session session, Long loanId, int installmentNo, BigDecimal paymentAmount) {
+            session.persist(new IdentitySchedule(loanId, installmentNo, paymentAmount));
+        }
+    },
+    SEQUENCE(SequenceSchedule.class) {
+        @Override
+        void save(Session session, Long loanId, int installmentNo, BigDecimal paymentAmount) {
+            session.persist(new SequenceSchedule(loanId, installmentNo, paymentAmount));
+        }
+    },
+    TABLE(TableSchedule.class) {
+        @Override
+        void save(Session session, Long loanId, int installmentNo, BigDecimal paymentAmount) {
+            session.persist(new TableSchedule(loanId, installmentNo, paymentAmount));
+        }
+    },
+    // ID 가 있으므로 save() 는 merge 를 호출한다
+    ASSIGNED(AssignedSchedule.class) {
+        @Override
+        void save(Session session, Long loanId, int installmentNo, BigDecimal paymentAmount) {
+            session.merge(new AssignedSchedule(SequenceHolder.nextValue(), loanId, installmentNo, paymentAmount));
+        }
+    },
+    // BulkInsertEntity.isNew() 가 true 이므로 save() 는 persist 를 호출한다
+    CUSTOM_ID(CustomIdSchedule.class) {
+        @Override
+        void save(Session session, Long loanId, int installmentNo, BigDecimal paymentAmount) {
+            session.persist(new CustomIdSchedule(SequenceHolder.nextValue(), loanId, installmentNo, paymentAmount));
+        }
+    };
+
+    private final Class<?> entityType;
+
+    IdStrategy(Class<?> entityType) {
+        this.entityType = entityType;
+    }
+
+    abstract void save(Session session, Long loanId, int installmentNo, BigDecimal paymentAmount);
+
+    Class<?> getEntityType() {
+        return entityType;
+    }
+}
@@ -0,0 +1,117 @@
+package com.jw.bench;
+
+import com.jw.JpaBulkInsertApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 애플리케이션 context 를 띄우고 닫는 시간 비교. (두 persistence unit 초기화 + 스키마 검사)
+ * <p>
+ * ddlAuto 는 시작 시 스키마 검사 방식, backgroundBootstrap 은 jw.jpa.background-bootstrap,
+ * schemaSnapshot 은 jw.jpa.schema-snapshot-directory 사용 여부이다.
+ * target=h2 이면 trial 마다 내장 H2 에 스키마를 만들고, target=configured 이면 application.yml 의 MySQL / Oracle 에 접속한다.
+ * trial 시작 때 ddl-auto update 로 한 번 띄워 스키마를 맞추고 (snapshot 을 쓰면 snapshot 도 기록) 같은 DB 로 반복해서 시작한다.
+ * H2 는 같은 프로세스 안에 있어 JDBC 메타데이터 조회가 원격 DB 보다 훨씬 싸므로 스키마 검사 비용은 configured 로 재야 한다.
+ * <pre>
+ * gradle jmh -Pjmh.includes=StartupBenchmark
+ * gradle jmh -Pjmh.includes=StartupBenchmark -Pjmh.params=target=configured
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    private static final AtomicInteger TRIALS = new AtomicInteger();
+
+    @Param({"h2"})
+    public String target;
+
+    @Param({"update", "validate"})
+    public String ddlAuto;
+
+    @Param({"false", "true"})
+    public boolean backgroundBootstrap;
+
+    @Param({"false", "true"})
+    public boolean schemaSnapshot;
+
+    private Path snapshotDirectory;
+    private Map<String, Object> properties;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        snapshotDirectory = Files.createTempDirectory("schema-snapshot");
+        properties = properties("bench" + TRIALS.incrementAndGet());
+        // 스키마 생성 (snapshot 을 쓰면 여기서 기록되어 측정 중에는 검사를 생략한다)
+        Map<String, Object> initial = new HashMap<>(properties);
+        initial.put("spring.jpa.hibernate.ddl-auto", "update");
+        start(initial).close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(snapshotDirectory);
+    }
+
+    // 두 EntityManagerFactory 가 사용 가능해질 때까지 (background bootstrap 이면 여기서 초기화 완료를 기다림)
+    @Benchmark
+    public void startAndClose() {
+        try (ConfigurableApplicationContext context = start(properties)) {
+            context.getBean("mysqlEntityManagerFactory", EntityManagerFactory.class).getMetamodel();
+            context.getBean("oracleEntityManagerFactory", EntityManagerFactory.class).getMetamodel();
+        }
+    }
+
+    private ConfigurableApplicationContext start(Map<String, Object> properties) {
+        // application.yml 보다 우선하도록 default properties 가 아닌 명령행 인자로 넘긴다
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(JpaBulkInsertApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    private Map<String, Object> properties(String database) {
+        Map<String, Object> properties = new HashMap<>();
+        if ("h2".equals(target)) {
+            properties.putAll(h2DataSources(database));
+        } else if (!"configured".equals(target)) {
+            throw new IllegalArgumentException("Unknown target: " + target);
+        }
+        properties.put("spring.jpa.hibernate.ddl-auto", ddlAuto);
+        properties.put("jw.jpa.background-bootstrap", backgroundBootstrap);
+        properties.put("jw.jpa.schema-snapshot-directory", schemaSnapshot ? snapshotDirectory.toString() : "");
+        properties.put("jw.id.node-id", 0);
+        properties.put("logging.level.root", "WARN");
+        return properties;
+    }
+
+    private static Map<String, Object> h2DataSources(String database) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.mysql.url", "jdbc:h2:mem:" + database + "-mysql;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.mysql.username", "sa");
+        properties.put("spring.datasource.mysql.password", "");
+        properties.put("spring.datasource.oracle.url", "jdbc:h2:mem:" + database + "-oracle;MODE=Oracle;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.oracle.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.oracle.username", "sa");
+        properties.put("spring.datasource.oracle.password", "");
+        properties.put("jw.jpa.mysql-dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("jw.jpa.oracle-dialect", "org.hibernate.dialect.H2Dialect");
+        return properties;
+    }
+}
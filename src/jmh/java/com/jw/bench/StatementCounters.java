@@ -0,0 +1,42 @@
+package com.jw.bench;
+
+import net.ttddyy.dsproxy.QueryCount;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * datasource-proxy 가 센 statement 수를 JMH 보조 지표로 보고한다.
+ * <p>
+ * 초당 값으로 출력되므로 호출 1회당 statement 수는 각 값을 benchmark 처리량으로 나누면 된다.
+ * JDBC batch 는 executeBatch 한 번을 statement 하나로 센다.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class StatementCounters {
+
+    public long rows;
+    public long insertStatements;
+    public long selectStatements;
+    public long otherStatements;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        rows = 0;
+        insertStatements = 0;
+        selectStatements = 0;
+        otherStatements = 0;
+    }
+
+    void add(QueryCount queryCount, int rowCount) {
+        rows += rowCount;
+        if (queryCount == null) {
+            return;
+        }
+        insertStatements += queryCount.getInsert();
+        selectStatements += queryCount.getSelect();
+        otherStatements += queryCount.getUpdate() + queryCount.getDelete() + queryCount.getOther();
+    }
+}
@@ -0,0 +1,28 @@
+package com.jw.bench.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+
+// 직접 할당 ID 지만 Persistable 미구현: save() 가 merge 로 처리해 row 마다 select 가 먼저 나간다
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "ASSIGNED_SCHEDULE")
+public class AssignedSchedule extends BenchSchedule {
+
+    @Id
+    @Column(name = "ID", nullable = false)
+    private Long id;
+
+    public AssignedSchedule(Long id, Long loanId, int installmentNo, BigDecimal paymentAmount) {
+        super(loanId, installmentNo, paymentAmount);
+        this.id = id;
+    }
+}
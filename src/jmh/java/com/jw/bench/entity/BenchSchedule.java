@@ -0,0 +1,33 @@
+package com.jw.bench.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.MappedSuperclass;
+import java.math.BigDecimal;
+
+/**
+ * 벤치마크용 상환 일정. ID 생성 전략만 다른 하위 엔티티로 비교한다.
+ */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@MappedSuperclass
+public abstract class BenchSchedule {
+
+    @Column(name = "LOAN_ID", nullable = false)
+    private Long loanId;
+
+    @Column(name = "INSTALLMENT_NO", nullable = false)
+    private int installmentNo;
+
+    @Column(name = "PAYMENT_AMOUNT", nullable = false)
+    private BigDecimal paymentAmount;
+
+    protected BenchSchedule(Long loanId, int installmentNo, BigDecimal paymentAmount) {
+        this.loanId = loanId;
+        this.installmentNo = installmentNo;
+        this.paymentAmount = paymentAmount;
+    }
+}
@@ -0,0 +1,37 @@
+package com.jw.bench.entity;
+
+import com.jw.common.entity.BulkInsertEntity;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+// BulkInsertEntity + 애플리케이션 생성 ID (SequenceHolder): DB 조회 없이 batch insert
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "CUSTOM_ID_SCHEDULE")
+public class CustomIdSchedule extends BulkInsertEntity<Long> {
+
+    @Id
+    @Column(name = "ID", nullable = false)
+    private Long id;
+
+    @Column(name = "LOAN_ID", nullable = false)
+    private Long loanId;
+
+    @Column(name = "INSTALLMENT_NO", nullable = false)
+    private int installmentNo;
+
+    @Column(name = "PAYMENT_AMOUNT", nullable = false)
+    private BigDecimal paymentAmount;
+
+    public CustomIdSchedule(Long id, Long loanId, int installmentNo, BigDecimal paymentAmount) {
+        this.id = id;
+        this.loanId = loanId;
+        this.installmentNo = installmentNo;
+        this.paymentAmount = paymentAmount;
+    }
+}
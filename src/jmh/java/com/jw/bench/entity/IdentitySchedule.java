@@ -0,0 +1,25 @@
+package com.jw.bench.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+// IDENTITY: insert 직후 생성된 키를 읽어야 하므로 Hibernate 가 batch insert 를 하지 않는다
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "IDENTITY_SCHEDULE")
+public class IdentitySchedule extends BenchSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID", nullable = false)
+    private Long id;
+
+    public IdentitySchedule(Long loanId, int installmentNo, BigDecimal paymentAmount) {
+        super(loanId, installmentNo, paymentAmount);
+    }
+}
@@ -0,0 +1,26 @@
+package com.jw.bench.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+// SEQUENCE(allocationSize = 1): row 마다 nextval 조회 후 batch insert
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "SEQUENCE_SCHEDULE")
+@SequenceGenerator(name = "SEQUENCE_SCHEDULE_SQ_GEN", sequenceName = "SQ_SEQUENCE_SCHEDULE", allocationSize = 1)
+public class SequenceSchedule extends BenchSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQUENCE_SCHEDULE_SQ_GEN")
+    @Column(name = "ID", nullable = false)
+    private Long id;
+
+    public SequenceSchedule(Long loanId, int installmentNo, BigDecimal paymentAmount) {
+        super(loanId, installmentNo, paymentAmount);
+    }
+}
@@ -0,0 +1,26 @@
+package com.jw.bench.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+// TABLE(allocationSize = 1): row 마다 키 테이블 select for update + update 후 batch insert
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "TABLE_SCHEDULE")
+@TableGenerator(name = "TABLE_SCHEDULE_GEN", table = "BENCH_SEQUENCES", allocationSize = 1)
+public class TableSchedule extends BenchSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "TABLE_SCHEDULE_GEN")
+    @Column(name = "ID", nullable = false)
+    private Long id;
+
+    public TableSchedule(Long loanId, int installmentNo, BigDecimal paymentAmount) {
+        super(loanId, installmentNo, paymentAmount);
+    }
+}
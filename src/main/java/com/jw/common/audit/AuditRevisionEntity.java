@@ -0,0 +1,35 @@
+package com.jw.common.audit;
+
+import lombok.Getter;
+import org.hibernate.envers.RevisionNumber;
+import org.hibernate.envers.RevisionTimestamp;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+
+/**
+ * Envers revision (REVINFO). 번호는 시퀀스 테이블 대신 {@code SequenceHolder} 에서 받는다.
+ * <p>
+ * persistence unit 마다 {@code @RevisionEntity(AuditRevisionListener.class)} 엔티티로 상속해서 등록한다.
+ * {@link BulkAuditWriter} 는 이 테이블에 JDBC 로 직접 insert 한다.
+ */
+@Getter
+@MappedSuperclass
+public abstract class AuditRevisionEntity {
+
+    public static final String TABLE_NAME = "REVINFO";
+
+    @Id
+    @RevisionNumber
+    @Column(name = "REV", nullable = false)
+    private Long id;
+
+    @RevisionTimestamp
+    @Column(name = "REVTSTMP", nullable = false)
+    private long timestamp;
+
+    void assignId(long id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,13 @@
+package com.jw.common.audit;
+
+import com.jw.common.id.SequenceHolder;
+import org.hibernate.envers.RevisionListener;
+
+// Envers 가 revision 을 직접 만드는 경우(자동 listener 를 켠 경우)에도 BulkAuditWriter 와 같은 번호 체계를 쓴다
+public class AuditRevisionListener implements RevisionListener {
+
+    @Override
+    public void newRevision(Object revisionEntity) {
+        ((AuditRevisionEntity) revisionEntity).assignId(SequenceHolder.nextValue());
+    }
+}
@@ -0,0 +1,153 @@
+package com.jw.common.audit;
+
+import com.jw.common.id.SequenceHolder;
+import com.jw.common.jdbc.BulkInsertMapping;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.envers.RevisionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Envers 감사 테이블({@code {테이블}_AUD})을 엔티티 단위 이벤트 대신 SQL 몇 개로 기록한다.
+ * <p>
+ * Envers 자동 listener 는 엔티티마다 감사 객체를 만들어 insert 하므로 상환 일정 같은 대량 저장의 insert 수가 두 배가 되고,
+ * JDBC 로 직접 쓰는 경로는 아예 기록되지 않는다. 이 writer 는 저장이 끝난 행을 {@code INSERT ... SELECT} 로
+ * 감사 테이블에 복사하므로 행 수와 관계없이 key 하나당 statement 하나(JDBC batch)만 실행한다.
+ * <p>
+ * revision 은 트랜잭션마다 하나이고(REVINFO 는 처음 기록할 때 insert), 데이터와 같은 트랜잭션에서 커밋되므로
+ * 감사 행이 데이터보다 앞서거나 빠지지 않는다. 트랜잭션 밖에서 호출하면 호출마다 새 트랜잭션을 연다.
+ */
+@Slf4j
+public class BulkAuditWriter {
+
+    // org.hibernate.envers.audit_table_suffix 기본값
+    static final String AUDIT_TABLE_SUFFIX = "_AUD";
+
+    private final String name;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public BulkAuditWriter(String name, DataSource dataSource, PlatformTransactionManager transactionManager,
+                           boolean enabled, int batchSize) {
+        this.name = name;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 트랜잭션 밖에서 여러 번 기록할 때 하나의 revision 으로 묶는다 (이미 트랜잭션 안이면 그대로 참여)
+    public void withRevision(Runnable auditing) {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> auditing.run());
+    }
+
+    // ID 로 지정한 행을 현재 revision 에 기록
+    public int auditById(RevisionType revisionType, Class<?> entityType, Collection<?> ids) {
+        return audit(revisionType, entityType, BulkInsertMapping.of(entityType).getIdColumn().getName(), ids);
+    }
+
+    // keyColumn 값이 keys 인 행을 현재 revision 에 기록. DEL 은 삭제하기 전에 호출해야 하며 ID 만 남긴다 (store_data_at_delete=false)
+    public int audit(RevisionType revisionType, Class<?> entityType, String keyColumn, Collection<?> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return 0;
+        }
+        BulkInsertMapping<?> mapping = BulkInsertMapping.of(entityType);
+        String columnList = revisionType == RevisionType.DEL ? mapping.getIdColumn().getName() : mapping.getColumnList();
+        List<Object> values = new ArrayList<>(keys);
+        Integer audited = transactionTemplate.execute(status -> insertAuditRows(currentRevision(),
+                String.valueOf(revisionType.getRepresentation()), columnList, entityType, keyColumn, values));
+        return audited != null ? audited : 0;
+    }
+
+    // upsert 한 행을 현재 revision 에 기록. 행마다 감사 테이블의 마지막 기록이 있고 DEL 이 아니면 MOD, 아니면 ADD 로 남긴다
+    // (감사를 켜기 전부터 있던 행은 감사 기록이 없으므로 ADD 가 된다)
+    public int auditUpsertById(Class<?> entityType, Collection<?> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return 0;
+        }
+        BulkInsertMapping<?> mapping = BulkInsertMapping.of(entityType);
+        String idColumn = mapping.getIdColumn().getName();
+        String auditTable = mapping.getTableName() + AUDIT_TABLE_SUFFIX;
+        String revisionType = "CASE WHEN EXISTS (SELECT 1 FROM " + auditTable + " a WHERE a." + idColumn + " = t." + idColumn
+                + " AND a.REVTYPE <> " + RevisionType.DEL.getRepresentation()
+                + " AND a.REV = (SELECT MAX(b.REV) FROM " + auditTable + " b WHERE b." + idColumn + " = t." + idColumn + "))"
+                + " THEN " + RevisionType.MOD.getRepresentation() + " ELSE " + RevisionType.ADD.getRepresentation() + " END";
+        List<Object> values = new ArrayList<>(ids);
+        Integer audited = transactionTemplate.execute(status -> insertAuditRows(currentRevision(), revisionType,
+                mapping.getColumnList(), entityType, idColumn, values));
+        return audited != null ? audited : 0;
+    }
+
+    // 현재 트랜잭션의 revision 번호. 트랜잭션에서 처음 호출할 때 REVINFO 에 insert 한다
+    // (REQUIRES_NEW 로 시작한 트랜잭션에서는 바깥 트랜잭션의 synchronization 이 보이지 않으므로 새 revision 을 만든다)
+    public long currentRevision() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("No transaction synchronization for audit revision: " + name);
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof RevisionSynchronization && ((RevisionSynchronization) synchronization).owner == this) {
+                return ((RevisionSynchronization) synchronization).revision;
+            }
+        }
+        long revision = SequenceHolder.nextValue();
+        jdbcTemplate.update("INSERT INTO " + AuditRevisionEntity.TABLE_NAME + " (REV, REVTSTMP) VALUES (?, ?)",
+                revision, System.currentTimeMillis());
+        TransactionSynchronizationManager.registerSynchronization(new RevisionSynchronization(this, revision));
+        return revision;
+    }
+
+    // revisionType 은 REVTYPE 에 넣을 SQL 식 (숫자 또는 CASE 식)
+    private int insertAuditRows(long revision, String revisionType, String columnList, Class<?> entityType,
+                                String keyColumn, List<Object> keys) {
+        BulkInsertMapping<?> mapping = BulkInsertMapping.of(entityType);
+        String sql = "INSERT INTO " + mapping.getTableName() + AUDIT_TABLE_SUFFIX + " (REV, REVTYPE, " + columnList + ")"
+                + " SELECT ?, " + revisionType + ", " + columnList + " FROM " + mapping.getTableName() + " t"
+                + " WHERE t." + keyColumn + " = ?";
+        int[][] counts = jdbcTemplate.batchUpdate(sql, keys, batchSize, (statement, key) -> {
+            statement.setLong(1, revision);
+            statement.setObject(2, key);
+        });
+        int audited = sum(counts);
+        log.debug("audited. name={}, revision={}, table={}, type={}, keys={}, rows={}",
+                name, revision, mapping.getTableName(), revisionType, keys.size(), audited);
+        return audited;
+    }
+
+    // 드라이버가 건수를 알려주지 않으면(SUCCESS_NO_INFO) 0 으로 센다
+    private static int sum(int[][] counts) {
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                total += Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+
+    private static final class RevisionSynchronization implements TransactionSynchronization {
+        private final BulkAuditWriter owner;
+        private final long revision;
+
+        private RevisionSynchronization(BulkAuditWriter owner, long revision) {
+            this.owner = owner;
+            this.revision = revision;
+        }
+    }
+}
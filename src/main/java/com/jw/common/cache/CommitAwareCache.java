@@ -0,0 +1,72 @@
+package com.jw.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 커밋된 값만 담는 Caffeine 캐시.
+ * <p>
+ * 쓰기 트랜잭션 안에서는 캐시를 읽거나 채우지 않고, 변경된 값은 커밋 후에 넣는다.
+ * 롤백되면 키는 비워진 채로 남아 다음 조회 때 DB 에서 다시 읽는다.
+ */
+public class CommitAwareCache<K, V> {
+
+    private final Cache<K, V> cache;
+
+    public CommitAwareCache(Cache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    // loader 가 null 을 반환하면 캐시하지 않는다
+    public Optional<V> get(K key, Function<? super K, ? extends V> loader) {
+        if (isInWriteTransaction()) {
+            return Optional.ofNullable(loader.apply(key));
+        }
+        return Optional.ofNullable(cache.get(key, loader));
+    }
+
+    public void putAfterCommit(K key, V value) {
+        putAllAfterCommit(Map.of(key, value));
+    }
+
+    // 이전 값은 바로 지우고 새 값은 커밋 후에 넣는다 (트랜잭션 밖이면 바로 넣는다)
+    public void putAllAfterCommit(Map<? extends K, ? extends V> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        cache.invalidateAll(values.keySet());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.putAll(values);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.putAll(values);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static boolean isInWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,13 @@
+package com.jw.common.datasource;
+
+import java.lang.annotation.*;
+
+/**
+ * 메서드(클래스에 붙이면 모든 public 메서드) 안에서 새로 시작하는 트랜잭션의 커넥션을 bulk pool 에서 가져온다.
+ * 이미 진행 중인 트랜잭션에 참여하는 경우에는 그 트랜잭션의 커넥션을 그대로 쓴다.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface BulkWorkload {
+}
@@ -0,0 +1,23 @@
+package com.jw.common.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+// 트랜잭션 시작 시점에 커넥션을 가져오므로 @Transactional 보다 바깥에서 실행
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BulkWorkloadAspect {
+
+    @Around("@annotation(com.jw.common.datasource.BulkWorkload) || @within(com.jw.common.datasource.BulkWorkload)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Workload previous = WorkloadContext.enter(Workload.BULK);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+}
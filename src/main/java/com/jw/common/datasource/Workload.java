@@ -0,0 +1,11 @@
+package com.jw.common.datasource;
+
+/**
+ * 커넥션을 가져올 pool 을 고르는 작업 종류.
+ */
+public enum Workload {
+    // 짧은 요청. 기본값
+    OLTP,
+    // 커넥션을 오래 잡는 대량 적재/복사
+    BULK
+}
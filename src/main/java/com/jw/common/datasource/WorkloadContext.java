@@ -0,0 +1,47 @@
+package com.jw.common.datasource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 현재 스레드의 {@link Workload}. 지정하지 않으면 {@link Workload#OLTP}.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.OLTP;
+    }
+
+    // 다른 스레드에서 실행할 작업에 현재 workload 를 이어 붙인다
+    public static <V> Callable<V> propagate(Callable<V> task) {
+        Workload workload = CURRENT.get();
+        return () -> {
+            Workload previous = enter(workload);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    // 이전 값을 돌려주므로 finally 에서 restore 로 되돌린다
+    static Workload enter(Workload workload) {
+        Workload previous = CURRENT.get();
+        restore(workload);
+        return previous;
+    }
+
+    static void restore(Workload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
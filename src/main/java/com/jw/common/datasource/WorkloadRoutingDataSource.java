@@ -0,0 +1,27 @@
+package com.jw.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 커넥션을 가져오는 스레드의 {@link WorkloadContext} 에 따라 OLTP pool 과 bulk pool 중 하나를 고른다.
+ * <p>
+ * 두 pool 을 나누어 대량 적재가 커넥션을 오래 잡고 있어도 짧은 요청이 커넥션을 기다리지 않도록 한다.
+ * pool 은 각각 bean 으로 등록되어 있어야 pool 별 지표(hikaricp.connections.*{pool=...})가 집계된다.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public WorkloadRoutingDataSource(DataSource oltpDataSource, DataSource bulkDataSource) {
+        setTargetDataSources(Map.of(Workload.OLTP, oltpDataSource, Workload.BULK, bulkDataSource));
+        setDefaultTargetDataSource(oltpDataSource);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+}
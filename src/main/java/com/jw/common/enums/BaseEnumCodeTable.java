@@ -0,0 +1,44 @@
+package com.jw.common.enums;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * enum 클래스별 code -> 상수 조회 테이블. 클래스마다 처음 사용할 때 한 번만 만든다.
+ * ({@code getEnumConstants()} 는 호출할 때마다 배열을 복사하므로 조회마다 쓰지 않는다)
+ */
+final class BaseEnumCodeTable {
+
+    private static final ClassValue<BaseEnumCodeTable> TABLES = new ClassValue<BaseEnumCodeTable>() {
+        @Override
+        protected BaseEnumCodeTable computeValue(Class<?> type) {
+            return new BaseEnumCodeTable(type);
+        }
+    };
+
+    private final Map<String, Object> constantsByCode;
+
+    private BaseEnumCodeTable(Class<?> enumClass) {
+        Object[] constants = enumClass.getEnumConstants();
+        if (constants == null) {
+            throw new IllegalArgumentException("Not an enum: " + enumClass.getName());
+        }
+        this.constantsByCode = new HashMap<>(constants.length * 2);
+        for (Object constant : constants) {
+            String code = ((BaseEnum) constant).getCode();
+            Object duplicate = constantsByCode.put(code, constant);
+            if (duplicate != null) {
+                throw new IllegalStateException("Duplicate code " + code + " in " + enumClass.getName()
+                        + ": " + duplicate + ", " + constant);
+            }
+        }
+    }
+
+    static <E extends Enum<E> & BaseEnum> E fromCode(Class<E> enumClass, String code) {
+        Object constant = TABLES.get(enumClass).constantsByCode.get(code);
+        if (constant == null) {
+            throw new IllegalArgumentException("Invalid code: " + code);
+        }
+        return enumClass.cast(constant);
+    }
+}
@@ -0,0 +1,49 @@
+package com.jw.common.id;
+
+/**
+ * {@link SnowflakeIdGenerator#reserve(int)} 로 확보한 연속 ID 범위.
+ * index 가 커질수록 ID 도 커진다. 한 호출자가 소유하는 객체이므로 thread-safe 하지 않다.
+ * <p>
+ * 범위는 첫 ID 와 크기만으로 정해지므로 첫 ID 만 저장해 두면 {@link #startingAt(long, int)} 로 같은 범위를 다시 만들 수 있다.
+ */
+public class IdBlock {
+
+    private final long nodeBits;
+    private final long startCounter;
+    private final int size;
+    private int position;
+
+    IdBlock(long nodeBits, long startCounter, int size) {
+        this.nodeBits = nodeBits;
+        this.startCounter = startCounter;
+        this.size = size;
+    }
+
+    // get(0) 이 firstId 인 범위
+    public static IdBlock startingAt(long firstId, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        return new IdBlock(SnowflakeIdGenerator.nodeBitsOf(firstId), SnowflakeIdGenerator.counterOf(firstId), size);
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        return SnowflakeIdGenerator.toId(startCounter + index, nodeBits);
+    }
+
+    public boolean hasNext() {
+        return position < size;
+    }
+
+    public long next() {
+        return get(position++);
+    }
+
+    public int size() {
+        return size;
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.jw.common.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.engine.jdbc.connections.spi.JdbcConnectionAccess;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 시퀀스 값을 블록 단위(한 번의 multi-row nextval 조회)로 미리 확보해 두는 ID 생성기.
+ * <p>
+ * 현재 블록의 잔량이 {@code prefetch_ratio} 이하로 떨어지면 다음 블록을 백그라운드에서 미리 조회한다.
+ * 미리 조회가 실패하면 블록이 바닥났을 때 세션 커넥션으로 직접 조회하고, 다음 블록에서 다시 미리 조회한다.
+ * <p>
+ * Oracle 은 {@code connect by level} 로 한 번에 블록을 받으므로 시퀀스 INCREMENT BY 는 1 그대로 두어도 되고,
+ * 기존 {@code @SequenceGenerator(allocationSize = 1)} 시퀀스를 그대로 사용할 수 있다.
+ * 그 밖의 dialect (내장 H2 등) 는 nextval 한 번을 블록 시작값으로 쓰는 pooled-lo 방식이므로
+ * 시퀀스 INCREMENT BY 가 block_size 와 같아야 한다 (스키마 생성 시 그렇게 만든다).
+ *
+ * <pre>
+ * &#64;GenericGenerator(name = "LOAN_SQ_GEN", strategy = "com.jw.common.id.PrefetchSequenceGenerator",
+ *         parameters = &#64;Parameter(name = PrefetchSequenceGenerator.SEQUENCE_NAME, value = "SQ_LOAN"))
+ * </pre>
+ */
+@Slf4j
+public class PrefetchSequenceGenerator implements IdentifierGenerator {
+
+    public static final String SEQUENCE_NAME = "sequence_name";
+    public static final String BLOCK_SIZE = "block_size";
+    public static final String PREFETCH_RATIO = "prefetch_ratio";
+
+    private static final int DEFAULT_BLOCK_SIZE = 1000;
+    private static final double DEFAULT_PREFETCH_RATIO = 0.25;
+
+    // 모든 생성기가 공유하는 prefetch 전용 스레드 (블록 조회는 짧고 드물게 일어난다)
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sequence-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private String sequenceName;
+    private int blockSize;
+    private int prefetchThreshold;
+    private String blockSql;
+    // true 면 Oracle multi-row 조회, false 면 pooled-lo (nextval 하나 = 블록 시작값)
+    private boolean multiRowFetch;
+    private JdbcConnectionAccess detachedConnectionAccess;
+
+    private SequenceBlock current;
+    private CompletableFuture<SequenceBlock> prefetched;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        sequenceName = ConfigurationHelper.getString(SEQUENCE_NAME, params);
+        if (sequenceName == null) {
+            throw new MappingException("PrefetchSequenceGenerator requires '" + SEQUENCE_NAME + "' parameter");
+        }
+        double prefetchRatio = Double.parseDouble(params.getProperty(PREFETCH_RATIO, String.valueOf(DEFAULT_PREFETCH_RATIO)));
+        Dialect dialect = serviceRegistry.getService(JdbcEnvironment.class).getDialect();
+        configure(sequenceName, ConfigurationHelper.getInt(BLOCK_SIZE, params, DEFAULT_BLOCK_SIZE), prefetchRatio,
+                dialect instanceof Oracle8iDialect);
+        blockSql = multiRowFetch
+                ? "select " + sequenceName + ".nextval from dual connect by level <= ?"
+                : dialect.getSequenceNextValString(sequenceName);
+        detachedConnectionAccess = serviceRegistry.getService(JdbcServices.class).getBootstrapJdbcConnectionAccess();
+    }
+
+    void configure(String sequenceName, int blockSize, double prefetchRatio, boolean multiRowFetch) {
+        this.sequenceName = sequenceName;
+        this.blockSize = blockSize;
+        this.prefetchThreshold = (int) Math.max(1, blockSize * prefetchRatio);
+        this.multiRowFetch = multiRowFetch;
+    }
+
+    // pooled-lo 면 시퀀스 INCREMENT BY 를 block_size 로 만든다
+    @Override
+    public void registerExportables(Database database) {
+        Namespace namespace = database.getDefaultNamespace();
+        Identifier identifier = Identifier.toIdentifier(sequenceName);
+        if (namespace.locateSequence(identifier) == null) {
+            namespace.createSequence(identifier, 1, multiRowFetch ? 1 : blockSize);
+        }
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        lock.lock();
+        try {
+            if (current == null || !current.hasNext()) {
+                current = nextBlock(session);
+            }
+            long id = current.next();
+            if (prefetched == null && current.remaining() <= prefetchThreshold) {
+                prefetched = CompletableFuture.supplyAsync(this::fetchDetachedBlock, PREFETCH_EXECUTOR);
+            }
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 미리 받아 둔 블록이 있으면 사용하고, 없거나 실패했으면 세션 커넥션으로 직접 조회
+    private SequenceBlock nextBlock(SharedSessionContractImplementor session) {
+        CompletableFuture<SequenceBlock> pending = prefetched;
+        prefetched = null;
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (RuntimeException e) {
+                log.warn("sequence prefetch failed. sequence={}, fallback to synchronous fetch", sequenceName, e);
+            }
+        }
+        return fetchBlock(session);
+    }
+
+    SequenceBlock fetchBlock(SharedSessionContractImplementor session) {
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+        long[] values = new long[blockSize];
+        int fetched = 0;
+        while (fetched < blockSize) {
+            PreparedStatement statement = jdbcCoordinator.getStatementPreparer().prepareStatement(blockSql);
+            ResultSet resultSet = null;
+            try {
+                if (multiRowFetch) {
+                    statement.setInt(1, blockSize - fetched);
+                }
+                resultSet = jdbcCoordinator.getResultSetReturn().extract(statement);
+                if (!multiRowFetch) {
+                    resultSet.next();
+                    return SequenceBlock.startingAt(resultSet.getLong(1), blockSize);
+                }
+                while (resultSet.next() && fetched < blockSize) {
+                    values[fetched++] = resultSet.getLong(1);
+                }
+            } catch (SQLException e) {
+                throw new HibernateException("Could not fetch sequence block: " + sequenceName, e);
+            } finally {
+                if (resultSet != null) {
+                    jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(resultSet, statement);
+                }
+                jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(statement);
+                jdbcCoordinator.afterStatementExecution();
+            }
+        }
+        return new SequenceBlock(values);
+    }
+
+    // 백그라운드 스레드는 트랜잭션과 무관한 별도 커넥션으로 조회한다 (시퀀스는 트랜잭션에 묶이지 않음)
+    SequenceBlock fetchDetachedBlock() {
+        long[] values = new long[blockSize];
+        int fetched = 0;
+        Connection connection = null;
+        try {
+            connection = detachedConnectionAccess.obtainConnection();
+            while (fetched < blockSize) {
+                try (PreparedStatement statement = connection.prepareStatement(blockSql)) {
+                    if (multiRowFetch) {
+                        statement.setInt(1, blockSize - fetched);
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (!multiRowFetch) {
+                            resultSet.next();
+                            return SequenceBlock.startingAt(resultSet.getLong(1), blockSize);
+                        }
+                        while (resultSet.next() && fetched < blockSize) {
+                            values[fetched++] = resultSet.getLong(1);
+                        }
+                    }
+                }
+            }
+            return new SequenceBlock(values);
+        } catch (SQLException e) {
+            throw new HibernateException("Could not prefetch sequence block: " + sequenceName, e);
+        } finally {
+            if (connection != null) {
+                try {
+                    detachedConnectionAccess.releaseConnection(connection);
+                } catch (SQLException e) {
+                    log.warn("failed to release prefetch connection. sequence={}", sequenceName, e);
+                }
+            }
+        }
+    }
+
+    static final class SequenceBlock {
+        private final long[] values;
+        private int position;
+
+        SequenceBlock(long[] values) {
+            this.values = values;
+        }
+
+        // pooled-lo 블록 (start ~ start + size - 1)
+        static SequenceBlock startingAt(long start, int size) {
+            long[] values = new long[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = start + i;
+            }
+            return new SequenceBlock(values);
+        }
+
+        private boolean hasNext() {
+            return position < values.length;
+        }
+
+        private long next() {
+            return values[position++];
+        }
+
+        private int remaining() {
+            return values.length - position;
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.jw.common.id;
 
-import java.util.UUID;
-
 public class SequenceHolder {
+
+    private static volatile SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0);
+
+    public static void initialize(long nodeId) {
+        generator = new SnowflakeIdGenerator(nodeId);
+    }
+
     public static Long nextValue() {
-        return UUID.randomUUID().getLeastSignificantBits();
+        return generator.nextId();
+    }
+
+    public static IdBlock reserve(int size) {
+        return generator.reserve(size);
     }
 }
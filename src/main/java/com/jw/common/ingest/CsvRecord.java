@@ -0,0 +1,136 @@
+package com.jw.common.ingest;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * CSV 한 줄. 필드 값을 복사하지 않고 매핑된 버퍼 안의 위치만 가지고 있다가 숫자는 byte 에서 바로 변환한다.
+ * <p>
+ * 다음 줄을 읽으면 내용이 바뀌므로 필요한 값은 {@link MappedCsvSegmentReader#next} 전에 꺼내야 한다.
+ */
+public class CsvRecord {
+
+    private ByteBuffer buffer;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int fieldCount;
+    // 이 줄의 파일 offset (오류 메시지용)
+    private long filePosition;
+
+    void reset(ByteBuffer buffer, long filePosition) {
+        this.buffer = buffer;
+        this.filePosition = filePosition;
+        this.fieldCount = 0;
+    }
+
+    void addField(int start, int end) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public long getFilePosition() {
+        return filePosition;
+    }
+
+    public int getInt(int field) {
+        long value = getLong(field);
+        if (value != (int) value) {
+            throw invalid(field, "int");
+        }
+        return (int) value;
+    }
+
+    public long getLong(int field) {
+        int position = start(field);
+        int end = ends[field];
+        boolean negative = position < end && buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        if (position == end) {
+            throw invalid(field, "long");
+        }
+        long value = 0;
+        for (; position < end; position++) {
+            int digit = buffer.get(position) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                throw invalid(field, "long");
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    // "12345.67" 을 unscaled long 과 scale 로 만든다. long 범위를 넘으면 문자열로 변환
+    public BigDecimal getDecimal(int field) {
+        int position = start(field);
+        int end = ends[field];
+        boolean negative = position < end && buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        long unscaled = 0;
+        int scale = -1;
+        int digits = 0;
+        for (; position < end; position++) {
+            byte b = buffer.get(position);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(field, "decimal");
+            }
+            if (unscaled > (Long.MAX_VALUE - digit) / 10) {
+                return new BigDecimal(getString(field));
+            }
+            unscaled = unscaled * 10 + digit;
+            digits++;
+            if (scale >= 0) {
+                scale++;
+            }
+        }
+        if (digits == 0) {
+            throw invalid(field, "decimal");
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    public String getString(int field) {
+        int start = start(field);
+        byte[] bytes = new byte[ends[field] - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public boolean isEmpty(int field) {
+        return start(field) == ends[field];
+    }
+
+    private int start(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IllegalArgumentException("No field " + field + " at file position " + filePosition
+                    + " (fields: " + fieldCount + ")");
+        }
+        return starts[field];
+    }
+
+    private IllegalArgumentException invalid(int field, String type) {
+        return new IllegalArgumentException("Invalid " + type + " '" + getString(field) + "' in field " + field
+                + " at file position " + filePosition);
+    }
+}
@@ -0,0 +1,29 @@
+package com.jw.common.ingest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class FileImportResult {
+    private final String importId;
+    private final String file;
+    private final long fileSize;
+    private final int segmentCount;
+    // 이전 호출에서 이미 적재가 끝나 건너뛴 구간
+    private final List<Integer> skippedSegments;
+    private final List<Integer> failedSegments;
+    // 이번 호출에서 커밋된 레코드 수
+    private final long importedRecords;
+    // 이 importId 로 지금까지 건너뛴 레코드 수 (이전 호출 포함). 위치는 BULK_LOAD_REJECT 에 있다
+    private final long rejectedRecords;
+    private final long elapsedMillis;
+
+    public long getRecordsPerSecond() {
+        return importedRecords * 1000 / Math.max(1, elapsedMillis);
+    }
+}
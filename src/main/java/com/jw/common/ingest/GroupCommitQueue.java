@@ -0,0 +1,211 @@
+package com.jw.common.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 요청을 고정 크기 큐에 모았다가 여러 건을 한 번에 처리(한 트랜잭션으로 커밋)하는 group commit 큐.
+ * <p>
+ * 전용 스레드 하나가 큐에서 요청을 꺼내 {@code maxBatchSize} 건이 모이거나,
+ * 첫 요청이 들어온 지 {@code maxLatencyMillis} 가 지나면 {@code batchHandler} 를 호출한다.
+ * 묶음 처리가 실패하면 어떤 요청이 원인인지 알 수 없으므로 {@code singleHandler} 로 한 건씩 다시 처리한다.
+ * <p>
+ * 큐가 가득 차면 {@link #submit} 은 호출 스레드를 {@code enqueueTimeoutMillis} 동안 막고, 그래도 자리가 없으면
+ * {@link RejectedExecutionException} 으로 완료된 future 를 돌려준다. (back-pressure)
+ * future 는 처리 스레드에서 완료되므로 이어지는 작업이 무거우면 별도 executor 를 지정해야 한다.
+ * <p>
+ * 처리 스레드는 {@link #start()} 에서 시작한다. submit 은 read lock, close 는 write lock 아래에서 상태를 보므로
+ * close 와 겹친 submit 은 큐에 들어가 처리되거나 거절될 뿐, 처리되지 않은 채 남지 않는다.
+ */
+@Slf4j
+public class GroupCommitQueue<R, E> implements AutoCloseable {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final String name;
+    private final BlockingQueue<Pending<R, E>> queue;
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+    private final long enqueueTimeoutMillis;
+    private final Function<List<R>, List<E>> batchHandler;
+    private final Function<R, E> singleHandler;
+    private final Thread worker;
+    // submit(read) 과 close(write) 사이의 경쟁을 막는다
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+
+    private volatile State state = State.NEW;
+
+    public GroupCommitQueue(String name, int capacity, int maxBatchSize, long maxLatencyMillis, long enqueueTimeoutMillis,
+                            Function<List<R>, List<E>> batchHandler, Function<R, E> singleHandler) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxLatencyMillis);
+        this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+        this.batchHandler = batchHandler;
+        this.singleHandler = singleHandler;
+        this.worker = new Thread(this::run, name + "-group-commit");
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+        stateLock.writeLock().lock();
+        try {
+            if (state != State.NEW) {
+                throw new IllegalStateException("Group commit queue already started: " + name);
+            }
+            state = State.RUNNING;
+            worker.start();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    // 큐가 가득 차면 enqueueTimeoutMillis 동안 호출 스레드를 막는다
+    public CompletableFuture<E> submit(R request) {
+        CompletableFuture<E> future = new CompletableFuture<>();
+        stateLock.readLock().lock();
+        try {
+            if (state != State.RUNNING) {
+                future.completeExceptionally(new IllegalStateException("Group commit queue is not running: " + name + " (" + state + ")"));
+                return future;
+            }
+            if (!queue.offer(new Pending<>(request, future, System.nanoTime()), enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                future.completeExceptionally(new RejectedExecutionException(
+                        "Group commit queue is full: " + name + " (capacity=" + (queue.size() + queue.remainingCapacity()) + ")"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        return future;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    // 새 요청은 받지 않고, 이미 들어온 요청은 모두 처리한 뒤 종료
+    // (write lock 을 잡으면 진행 중인 submit 이 모두 끝났으므로 이후 큐에 새 요청이 들어오지 않는다)
+    @Override
+    public void close() {
+        if (markClosed() == State.RUNNING) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        failRemaining(new IllegalStateException("Group commit queue closed before processing: " + name));
+    }
+
+    private State markClosed() {
+        stateLock.writeLock().lock();
+        try {
+            State previous = state;
+            state = State.CLOSED;
+            return previous;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    // 처리 스레드가 먼저 끝났거나 시작하지 않았을 때 큐에 남은 요청을 실패로 완료
+    private void failRemaining(Throwable cause) {
+        List<Pending<R, E>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.future.completeExceptionally(cause));
+    }
+
+    private void run() {
+        List<Pending<R, E>> batch = new ArrayList<>(maxBatchSize);
+        while (state == State.RUNNING || !queue.isEmpty()) {
+            try {
+                Pending<R, E> first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.enqueuedAt + maxLatencyNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Pending<R, E> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.future.completeExceptionally(e));
+                markClosed();
+                failRemaining(e);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Pending<R, E>> batch) {
+        List<R> requests = new ArrayList<>(batch.size());
+        batch.forEach(pending -> requests.add(pending.request));
+        List<E> results;
+        try {
+            results = batchHandler.apply(requests);
+        } catch (RuntimeException e) {
+            log.warn("group commit failed. name={}, size={}, retrying one by one", name, batch.size(), e);
+            batch.forEach(this::processSingle);
+            return;
+        }
+        if (results.size() != batch.size()) {
+            IllegalStateException e = new IllegalStateException(
+                    "Batch handler returned " + results.size() + " results for " + batch.size() + " requests: " + name);
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(results.get(i));
+        }
+    }
+
+    private void processSingle(Pending<R, E> pending) {
+        try {
+            pending.future.complete(singleHandler.apply(pending.request));
+        } catch (RuntimeException e) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    private enum State {
+        NEW, RUNNING, CLOSED
+    }
+
+    private static final class Pending<R, E> {
+        private final R request;
+        private final CompletableFuture<E> future;
+        private final long enqueuedAt;
+
+        private Pending(R request, CompletableFuture<E> future, long enqueuedAt) {
+            this.request = request;
+            this.future = future;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
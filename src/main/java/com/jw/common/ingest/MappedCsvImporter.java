@@ -0,0 +1,183 @@
+package com.jw.common.ingest;
+
+import com.jw.common.datasource.WorkloadContext;
+import com.jw.common.ledger.BulkLoadLedger;
+import com.jw.common.ledger.BulkLoadRejectLog;
+import com.jw.common.metrics.JdbcOperationContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 대용량 CSV 파일을 구간(segment) 으로 나누어 여러 스레드에서 메모리 매핑으로 읽고 묶음 단위로 저장한다.
+ * <p>
+ * 구간마다 {@code checkpointInterval} 건을 모아 {@code sink} 를 호출하고, 같은 트랜잭션에서 다음에 읽을 파일 offset 을
+ * {@link BulkLoadLedger} 에 기록한다. 같은 importId 로 다시 호출하면 구간마다 기록된 offset 부터 이어서 읽는다.
+ * 구간 경계는 파일 크기와 {@code segmentSize} 로 정해지므로 이어서 적재할 때는 같은 파일, 같은 설정이어야 한다.
+ * sink 는 전달받은 트랜잭션 관리자의 트랜잭션에 참여해야 한다. (원장도 같은 DataSource 에 기록)
+ * <p>
+ * parser 가 예외를 던진 레코드는 건너뛰고 파일 offset 과 사유를 같은 트랜잭션에서 {@link BulkLoadRejectLog} 에 기록한다.
+ * 한 구간에서 {@code maxRejectsPerSegment} 건을 넘게 건너뛰면 파일 형식이 잘못된 것으로 보고 구간을 실패 처리한다.
+ */
+@Slf4j
+public class MappedCsvImporter {
+
+    private final BulkLoadLedger ledger;
+    private final BulkLoadRejectLog rejectLog;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final long segmentSize;
+    private final int checkpointInterval;
+    private final int maxRejectsPerSegment;
+
+    public MappedCsvImporter(String name, DataSource ledgerDataSource, PlatformTransactionManager transactionManager,
+                             int parallelism, long segmentSize, int checkpointInterval, int maxRejectsPerSegment) {
+        this.ledger = new BulkLoadLedger(ledgerDataSource);
+        this.rejectLog = new BulkLoadRejectLog(ledgerDataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.segmentSize = segmentSize;
+        this.checkpointInterval = checkpointInterval;
+        this.maxRejectsPerSegment = maxRejectsPerSegment;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, name + "-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // skipHeader 이면 파일 첫 줄을 건너뛴다. 실패한 구간이 있으면 나머지 구간을 마친 뒤 예외를 던진다
+    public <T> FileImportResult importFile(String importId, Path file, boolean skipHeader,
+                                           Function<CsvRecord, ? extends T> parser, Consumer<List<T>> sink) {
+        long start = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> segments = MappedCsvSegmentReader.split(channel, segmentSize);
+            Map<Integer, Long> positions = ledger.findPositions(importId);
+
+            List<Integer> skippedSegments = new ArrayList<>();
+            Map<Integer, Future<Long>> futures = new LinkedHashMap<>();
+            for (int segmentNo = 0; segmentNo < segments.size(); segmentNo++) {
+                long[] segment = segments.get(segmentNo);
+                long position = Math.max(segment[0], positions.getOrDefault(segmentNo, segment[0]));
+                if (position >= segment[1]) {
+                    skippedSegments.add(segmentNo);
+                    continue;
+                }
+                int target = segmentNo;
+                boolean header = skipHeader && position == 0;
+                futures.put(segmentNo, executor.submit(WorkloadContext.propagate(JdbcOperationContext.propagate(
+                        () -> importSegment(importId, channel, target, position, segment[1], header, parser, sink)))));
+            }
+
+            List<Integer> failedSegments = new ArrayList<>();
+            long importedRecords = 0;
+            Throwable failure = null;
+            for (Map.Entry<Integer, Future<Long>> entry : futures.entrySet()) {
+                try {
+                    importedRecords += entry.getValue().get();
+                } catch (ExecutionException e) {
+                    failedSegments.add(entry.getKey());
+                    failure = failure == null ? e.getCause() : failure;
+                    log.warn("import segment failed. importId={}, segment={}", importId, entry.getKey(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failedSegments.add(entry.getKey());
+                    failure = failure == null ? e : failure;
+                }
+            }
+
+            FileImportResult result = new FileImportResult(importId, file.toString(), channel.size(), segments.size(),
+                    skippedSegments, failedSegments, importedRecords, rejectLog.count(importId),
+                    System.currentTimeMillis() - start);
+            log.info("import finished. {} ({} records/s)", result, result.getRecordsPerSecond());
+            if (!failedSegments.isEmpty()) {
+                throw new IllegalStateException("Import failed: " + result, failure);
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read import file: " + file, e);
+        }
+    }
+
+    // 구간의 매핑은 구간을 다 읽으면 바로 해제한다 (GC 를 기다리지 않는다)
+    private <T> long importSegment(String importId, FileChannel channel, int segmentNo, long position, long end,
+                                   boolean skipHeader, Function<CsvRecord, ? extends T> parser,
+                                   Consumer<List<T>> sink) throws IOException {
+        try (MappedCsvSegmentReader reader = new MappedCsvSegmentReader(channel, position, end)) {
+            CsvRecord record = new CsvRecord();
+            if (skipHeader) {
+                reader.next(record);
+            }
+            List<T> batch = new ArrayList<>(checkpointInterval);
+            List<RejectedRecord> rejects = new ArrayList<>();
+            long imported = 0;
+            int rejected = 0;
+            while (reader.next(record)) {
+                try {
+                    batch.add(parser.apply(record));
+                } catch (RuntimeException e) {
+                    if (++rejected > maxRejectsPerSegment) {
+                        throw new IllegalStateException("Too many rejected records in segment " + segmentNo
+                                + " (max " + maxRejectsPerSegment + ")", e);
+                    }
+                    log.warn("record rejected. importId={}, position={}, reason={}", importId, record.getFilePosition(), e.getMessage());
+                    rejects.add(new RejectedRecord(record.getFilePosition(), e.getMessage()));
+                }
+                if (batch.size() + rejects.size() == checkpointInterval) {
+                    imported += commit(importId, segmentNo, batch, rejects, reader.getFilePosition(), sink);
+                    batch = new ArrayList<>(checkpointInterval);
+                    rejects = new ArrayList<>();
+                }
+            }
+            // 남은 묶음과 함께 구간 끝 offset 을 기록해 완료 처리 (남은 묶음이 없어도 기록)
+            return imported + commit(importId, segmentNo, batch, rejects, end, sink);
+        }
+    }
+
+    // sink 가 batch 를 보관할 수 있으므로 커밋한 batch 는 다시 쓰지 않는다
+    private <T> int commit(String importId, int segmentNo, List<T> batch, List<RejectedRecord> rejects,
+                           long nextPosition, Consumer<List<T>> sink) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!batch.isEmpty()) {
+                sink.accept(batch);
+            }
+            for (RejectedRecord reject : rejects) {
+                rejectLog.record(importId, reject.position, reject.message);
+            }
+            ledger.record(importId, segmentNo, nextPosition);
+        });
+        return batch.size();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class RejectedRecord {
+        private final long position;
+        private final String message;
+
+        private RejectedRecord(long position, String message) {
+            this.position = position;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.jw.common.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 파일의 한 구간 [start, end) 을 메모리 매핑해 한 줄씩 {@link CsvRecord} 로 나눈다.
+ * <p>
+ * 구간은 {@link #split} 으로 줄 경계에 맞춰 나누므로 구간마다 다른 스레드에서 읽을 수 있다.
+ * 구분자는 쉼표이고 따옴표로 감싼 필드는 지원하지 않는다. 빈 줄은 건너뛴다.
+ * {@link #close} 하면 매핑을 바로 해제하므로 그 뒤에는 이 reader 와 읽은 {@link CsvRecord} 를 쓰면 안 된다.
+ */
+@Slf4j
+public class MappedCsvSegmentReader implements Closeable {
+
+    private static final byte DELIMITER = ',';
+    private static final int ALIGN_BUFFER_SIZE = 8 * 1024;
+    // 매핑 해제 (sun.misc.Unsafe#invokeCleaner). 쓸 수 없는 JVM 이면 null 이고 GC 가 해제할 때까지 남는다
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("mapped buffers are released by GC only: {}", e.toString());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final MappedByteBuffer buffer;
+    private final long start;
+    private boolean closed;
+
+    public MappedCsvSegmentReader(FileChannel channel, long start, long end) throws IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment too large to map: " + (end - start) + " bytes");
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        this.start = start;
+    }
+
+    // 다음 byte 의 파일 offset. 이 값부터 다시 읽으면 다음 줄부터 이어서 읽는다
+    public long getFilePosition() {
+        return start + buffer.position();
+    }
+
+    public void seek(long filePosition) {
+        buffer.position(Math.toIntExact(filePosition - start));
+    }
+
+    public boolean next(CsvRecord record) {
+        int limit = buffer.limit();
+        int position = buffer.position();
+        while (position < limit && isLineBreak(buffer.get(position))) {
+            position++;
+        }
+        if (position == limit) {
+            buffer.position(limit);
+            return false;
+        }
+        record.reset(buffer, start + position);
+        int fieldStart = position;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == '\n') {
+                break;
+            }
+            if (b == DELIMITER) {
+                record.addField(fieldStart, position);
+                fieldStart = position + 1;
+            }
+            position++;
+        }
+        int lineEnd = position > fieldStart && buffer.get(position - 1) == '\r' ? position - 1 : position;
+        record.addField(fieldStart, Math.max(fieldStart, lineEnd));
+        buffer.position(Math.min(limit, position + 1));
+        return true;
+    }
+
+    // 파일을 약 segmentSize 크기로 나누고 각 경계를 다음 줄의 시작으로 옮긴다. 결과는 {start, end} 목록
+    public static List<long[]> split(FileChannel channel, long segmentSize) throws IOException {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+        }
+        long size = channel.size();
+        List<long[]> segments = new ArrayList<>();
+        long segmentStart = 0;
+        while (segmentStart < size) {
+            long segmentEnd = alignToLineStart(channel, Math.min(size, segmentStart + segmentSize), size);
+            segments.add(new long[]{segmentStart, segmentEnd});
+            segmentStart = segmentEnd;
+        }
+        return segments;
+    }
+
+    private static long alignToLineStart(FileChannel channel, long position, long size) throws IOException {
+        if (position >= size) {
+            return size;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(ALIGN_BUFFER_SIZE);
+        long offset = position - 1;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    @Override
+    public void close() {
+        if (closed || INVOKE_CLEANER == null) {
+            return;
+        }
+        closed = true;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            log.warn("cannot release mapped buffer: {}", e.toString());
+        }
+    }
+
+    private static boolean isLineBreak(byte b) {
+        return b == '\n' || b == '\r';
+    }
+}
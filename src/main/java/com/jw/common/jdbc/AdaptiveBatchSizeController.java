@@ -0,0 +1,155 @@
+package com.jw.common.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.util.List;
+
+/**
+ * batch insert 처리량을 보고 JDBC batch size 를 조정하는 hill-climbing 컨트롤러.
+ * <p>
+ * proxy DataSource 의 listener 로 등록되어 {@code windowSize} 번의 batch insert 마다 처리량(rows/sec)을 계산한다.
+ * 같은 DataSource 의 다른 batch 가 섞이지 않도록 {@link #enter()} 와 {@link #exit()} 사이에서
+ * 컨트롤러가 정한 크기 그대로 실행된 batch 만 관찰한다.
+ * 직전 구간보다 {@code hysteresis} 비율 이상 좋아지면 같은 방향으로, 나빠지면 반대 방향으로 {@code stepFactor} 배 이동하고
+ * 그 사이면 유지한다. 평균 batch 실행 시간이 {@code maxLatencyMillis} 를 넘으면 처리량과 관계없이 줄인다.
+ * 결정은 모두 로그로 남긴다.
+ * <p>
+ * persistence unit 마다 하나씩 만들어 EntityManagerFactory 속성 {@link #PROPERTY} 로 넘기면
+ * {@code BulkInsertRepositoryImpl} 가 세션 batch size 로 사용한다.
+ */
+@Slf4j
+public class AdaptiveBatchSizeController implements QueryExecutionListener {
+
+    public static final String PROPERTY = "jw.jdbc.batch_size_controller";
+
+    private final String name;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int windowSize;
+    private final double stepFactor;
+    private final double hysteresis;
+    private final long maxLatencyMillis;
+
+    private volatile int batchSize;
+    // 이 스레드가 컨트롤러 크기로 batch 를 보내는 중이면 그 크기
+    private final ThreadLocal<Integer> issuedBatchSize = new ThreadLocal<>();
+
+    // 아래 필드는 synchronized 안에서만 접근
+    private int direction = 1;
+    private double lastThroughput = -1;
+    private int windowBatches;
+    private long windowRows;
+    private long windowMillis;
+
+    public AdaptiveBatchSizeController(String name, int initialBatchSize, int minBatchSize, int maxBatchSize,
+                                       int windowSize, double stepFactor, double hysteresis, long maxLatencyMillis) {
+        if (minBatchSize < 1 || minBatchSize > maxBatchSize) {
+            throw new IllegalArgumentException("Invalid batch size bounds: " + minBatchSize + " ~ " + maxBatchSize);
+        }
+        if (stepFactor <= 1) {
+            throw new IllegalArgumentException("stepFactor must be greater than 1: " + stepFactor);
+        }
+        this.name = name;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.windowSize = Math.max(1, windowSize);
+        this.stepFactor = stepFactor;
+        this.hysteresis = hysteresis;
+        this.maxLatencyMillis = maxLatencyMillis;
+        this.batchSize = clamp(initialBatchSize);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    // 현재 batch size 를 이 스레드에서 보낼 크기로 표시하고 반환한다. 다 보낸 뒤 exit() 로 해제한다
+    public int enter() {
+        int size = batchSize;
+        issuedBatchSize.set(size);
+        return size;
+    }
+
+    public void exit() {
+        issuedBatchSize.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    // enter() 한 스레드에서 그 크기로 실행된 insert batch 만 관찰한다.
+    // 다른 writer 의 batch, 부모 1건, 마지막 나머지 chunk 는 처리량을 왜곡하므로 제외
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Integer issued = issuedBatchSize.get();
+        if (issued == null || !execInfo.isBatch() || !execInfo.isSuccess() || queryInfoList.isEmpty()
+                || execInfo.getBatchSize() != issued
+                || QueryUtils.getQueryType(queryInfoList.get(0).getQuery()) != QueryType.INSERT) {
+            return;
+        }
+        record(execInfo.getBatchSize(), execInfo.getElapsedTime());
+    }
+
+    synchronized void record(int rows, long elapsedMillis) {
+        windowBatches++;
+        windowRows += rows;
+        windowMillis += elapsedMillis;
+        if (windowBatches < windowSize) {
+            return;
+        }
+        double throughput = windowRows * 1000.0 / Math.max(1, windowMillis);
+        double averageLatency = (double) windowMillis / windowBatches;
+        windowBatches = 0;
+        windowRows = 0;
+        windowMillis = 0;
+        decide(throughput, averageLatency);
+    }
+
+    private void decide(double throughput, double averageLatency) {
+        int previous = batchSize;
+        String reason;
+        if (averageLatency > maxLatencyMillis) {
+            direction = -1;
+            reason = "latency above " + maxLatencyMillis + " ms";
+        } else if (lastThroughput < 0) {
+            reason = "first window";
+        } else {
+            double change = (throughput - lastThroughput) / lastThroughput;
+            if (change < -hysteresis) {
+                direction = -direction;
+                reason = String.format("throughput %+.1f%%, reverse", change * 100);
+            } else if (change > hysteresis) {
+                reason = String.format("throughput %+.1f%%, continue", change * 100);
+            } else {
+                reason = String.format("throughput %+.1f%% within hysteresis, hold", change * 100);
+                lastThroughput = throughput;
+                log(previous, previous, throughput, averageLatency, reason);
+                return;
+            }
+        }
+        lastThroughput = throughput;
+        int next = clamp(direction > 0 ? (int) Math.ceil(previous * stepFactor) : (int) Math.floor(previous / stepFactor));
+        if (next == previous) {
+            // 경계에 닿으면 다음 구간은 반대 방향으로 탐색
+            direction = -direction;
+            reason += ", at bound";
+        }
+        batchSize = next;
+        log(previous, next, throughput, averageLatency, reason);
+    }
+
+    private void log(int previous, int next, double throughput, double averageLatency, String reason) {
+        log.info("batch size decision. name={}, batchSize={} -> {}, throughput={} rows/s, avgLatency={} ms, reason={}",
+                name, previous, next, Math.round(throughput), String.format("%.1f", averageLatency), reason);
+    }
+
+    private int clamp(int value) {
+        return Math.max(minBatchSize, Math.min(maxBatchSize, value));
+    }
+}
@@ -0,0 +1,37 @@
+package com.jw.common.jdbc;
+
+import lombok.Getter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.function.Function;
+
+/**
+ * insert 대상 컬럼 하나. 엔티티에서 꺼낸 값은 이미 JDBC 로 바인딩할 수 있는 값으로 변환되어 있다.
+ */
+@Getter
+public class BulkInsertColumn<T> {
+
+    private final String name;
+    private final int sqlType;
+    private final Function<T, Object> extractor;
+
+    BulkInsertColumn(String name, int sqlType, Function<T, Object> extractor) {
+        this.name = name;
+        this.sqlType = sqlType;
+        this.extractor = extractor;
+    }
+
+    public Object extract(T entity) {
+        return extractor.apply(entity);
+    }
+
+    public void bind(PreparedStatement statement, int index, T entity) throws SQLException {
+        Object value = extractor.apply(entity);
+        if (value == null) {
+            statement.setNull(index, sqlType);
+        } else {
+            statement.setObject(index, value, sqlType);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.jw.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * DB 별 insert 방식. {@link JdbcBulkInsertWriter} 가 chunk 단위로 호출한다.
+ */
+public interface BulkInsertDialect {
+
+    int insert(Connection connection, BulkInsertMapping<?> mapping, BulkInsertRows rows) throws SQLException;
+
+    default <T> int insert(Connection connection, BulkInsertMapping<T> mapping, List<? extends T> rows) throws SQLException {
+        return insert(connection, mapping, BulkInsertRows.of(mapping, rows));
+    }
+
+    // ID 가 같은 row 가 있으면 ID 외 컬럼을 갱신하고 없으면 insert. 기존 row 를 미리 조회하지 않는다
+    // 반영한 row 수를 반환한다. insert/update 건수는 드라이버 결과로 정확히 나눌 수 없어 구분하지 않는다
+    int upsert(Connection connection, BulkInsertMapping<?> mapping, BulkInsertRows rows) throws SQLException;
+
+}
@@ -0,0 +1,358 @@
+package com.jw.common.jdbc;
+
+import com.jw.common.enums.BaseEnum;
+import com.jw.common.id.PrefetchSequenceGenerator;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 엔티티 클래스의 JPA 매핑 정보(테이블, 컬럼, enum 변환, {@code @ManyToOne} FK)를 한 번만 읽어 둔 insert 용 메타데이터.
+ * <p>
+ * ID 는 직접 할당하거나({@code BulkInsertEntity}) 시퀀스({@code @SequenceGenerator}, {@link PrefetchSequenceGenerator})로 생성하는 경우만 지원한다.
+ * 컴파일 시 생성된 {@link BulkRowBinder} 가 있으면 바인딩은 그것을 사용한다.
+ */
+@Getter
+public class BulkInsertMapping<T> {
+
+    static final String GENERATED_BINDER_SUFFIX = "_BulkRowBinder";
+
+    private static final ClassValue<BulkInsertMapping<?>> CACHE = new ClassValue<BulkInsertMapping<?>>() {
+        @Override
+        protected BulkInsertMapping<?> computeValue(Class<?> type) {
+            return new BulkInsertMapping<>(type);
+        }
+    };
+
+    private final Class<T> entityType;
+    private final String tableName;
+    private final BulkInsertColumn<T> idColumn;
+    // ID 를 시퀀스로 생성하는 경우 시퀀스 이름, 직접 할당하면 null
+    private final String idSequence;
+    // idColumn 을 포함한 전체 insert 컬럼
+    private final List<BulkInsertColumn<T>> columns;
+    // "ID, TYPE, ..."
+    private final String columnList;
+    // "INSERT INTO LOAN (ID, TYPE, ...)"
+    private final String insertPrefix;
+    // "(?, ?, ...)"
+    private final String rowPlaceholder;
+    // @ManyToOne 컬럼이 있으면 FK 제약이 걸린 테이블로 본다
+    @Getter(AccessLevel.NONE)
+    private final boolean foreignKeys;
+    // 생성된 {엔티티}_BulkRowBinder, 없으면 columns 로 바인딩하는 리플렉션 binder
+    @Getter(AccessLevel.NONE)
+    private final BulkRowBinder<T> rowBinder;
+
+    @Getter(AccessLevel.NONE)
+    private final Field idField;
+
+    @SuppressWarnings("unchecked")
+    public static <T> BulkInsertMapping<T> of(Class<T> entityType) {
+        return (BulkInsertMapping<T>) CACHE.get(entityType);
+    }
+
+    private BulkInsertMapping(Class<T> entityType) {
+        if (!entityType.isAnnotationPresent(Entity.class)) {
+            throw new IllegalArgumentException("Not an entity: " + entityType.getName());
+        }
+        this.entityType = entityType;
+        this.tableName = resolveTableName(entityType);
+
+        Field foundIdField = null;
+        List<BulkInsertColumn<T>> foundColumns = new ArrayList<>();
+        boolean foundForeignKey = false;
+        for (Field field : persistentFields(entityType)) {
+            if (field.isAnnotationPresent(Id.class)) {
+                foundIdField = field;
+                foundColumns.add(0, column(field));
+            } else if (field.isAnnotationPresent(ManyToOne.class)) {
+                foundColumns.add(joinColumn(field));
+                foundForeignKey = true;
+            } else {
+                foundColumns.add(column(field));
+            }
+        }
+        if (foundIdField == null) {
+            throw new IllegalArgumentException("No @Id field: " + entityType.getName());
+        }
+        this.idField = foundIdField;
+        this.foreignKeys = foundForeignKey;
+        this.idColumn = foundColumns.get(0);
+        this.idSequence = resolveIdSequence(entityType, foundIdField);
+        this.columns = Collections.unmodifiableList(foundColumns);
+        this.columnList = columns.stream().map(BulkInsertColumn::getName).collect(Collectors.joining(", "));
+        this.insertPrefix = "INSERT INTO " + tableName + " (" + columnList + ")";
+        this.rowPlaceholder = "(" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        this.rowBinder = resolveRowBinder(entityType, columns);
+    }
+
+    // index 부터 row 의 전체 컬럼을 바인딩하고 다음 index 를 반환
+    public int bind(PreparedStatement statement, int index, T row) throws SQLException {
+        return rowBinder.bind(statement, index, row);
+    }
+
+    public boolean hasForeignKeys() {
+        return foreignKeys;
+    }
+
+    public boolean hasGeneratedBinder() {
+        return !(rowBinder instanceof ReflectiveRowBinder);
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    public Object getId(T entity) {
+        return readField(idField, entity);
+    }
+
+    public void assignId(T entity, long id) {
+        try {
+            idField.set(entity, id);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot assign id: " + entityType.getName(), e);
+        }
+    }
+
+    private BulkInsertColumn<T> column(Field field) {
+        String name = columnName(field);
+        Class<?> type = field.getType();
+        if (type.isEnum()) {
+            return enumColumn(field, name);
+        }
+        Convert convert = field.getAnnotation(Convert.class);
+        if (convert != null && !convert.disableConversion() && convert.converter() != void.class) {
+            AttributeConverter<Object, Object> converter = instantiate(convert.converter());
+            return new BulkInsertColumn<>(name, Types.VARCHAR, entity -> converter.convertToDatabaseColumn(readField(field, entity)));
+        }
+        return new BulkInsertColumn<>(name, sqlType(type), entity -> toJdbcValue(readField(field, entity)));
+    }
+
+    private BulkInsertColumn<T> enumColumn(Field field, String name) {
+        Enumerated enumerated = field.getAnnotation(Enumerated.class);
+        if (enumerated == null && BaseEnum.class.isAssignableFrom(field.getType())) {
+            // BaseEnumConverter(autoApply) 와 동일하게 code 로 저장
+            return new BulkInsertColumn<>(name, Types.VARCHAR, entity -> {
+                BaseEnum value = (BaseEnum) readField(field, entity);
+                return value != null ? value.getCode() : null;
+            });
+        }
+        if (enumerated != null && enumerated.value() == EnumType.STRING) {
+            return new BulkInsertColumn<>(name, Types.VARCHAR, entity -> {
+                Enum<?> value = (Enum<?>) readField(field, entity);
+                return value != null ? value.name() : null;
+            });
+        }
+        return new BulkInsertColumn<>(name, Types.INTEGER, entity -> {
+            Enum<?> value = (Enum<?>) readField(field, entity);
+            return value != null ? value.ordinal() : null;
+        });
+    }
+
+    // FK 값은 연관 엔티티의 ID. 지연 로딩 프록시여도 초기화되지 않도록 Persistable.getId() 를 우선 사용
+    private BulkInsertColumn<T> joinColumn(Field field) {
+        JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+        String name = joinColumn != null && !joinColumn.name().isEmpty()
+                ? joinColumn.name()
+                : toSnakeCase(field.getName()) + "_id";
+        Function<Object, Object> targetId = targetIdExtractor(field.getType());
+        return new BulkInsertColumn<>(name, Types.BIGINT, entity -> {
+            Object target = readField(field, entity);
+            return target != null ? targetId.apply(target) : null;
+        });
+    }
+
+    private static Function<Object, Object> targetIdExtractor(Class<?> targetType) {
+        if (Persistable.class.isAssignableFrom(targetType)) {
+            return target -> ((Persistable<?>) target).getId();
+        }
+        Field targetIdField = persistentFields(targetType).stream()
+                .filter(f -> f.isAnnotationPresent(Id.class))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No @Id field: " + targetType.getName()));
+        return target -> readField(targetIdField, target);
+    }
+
+    private static String resolveIdSequence(Class<?> entityType, Field idField) {
+        GeneratedValue generatedValue = idField.getAnnotation(GeneratedValue.class);
+        if (generatedValue == null) {
+            return null;
+        }
+        String generator = generatedValue.generator();
+        GenericGenerator genericGenerator = entityType.getAnnotation(GenericGenerator.class);
+        if (genericGenerator != null && genericGenerator.name().equals(generator)) {
+            for (Parameter parameter : genericGenerator.parameters()) {
+                if (PrefetchSequenceGenerator.SEQUENCE_NAME.equals(parameter.name())) {
+                    return parameter.value();
+                }
+            }
+        }
+        SequenceGenerator sequenceGenerator = entityType.getAnnotation(SequenceGenerator.class);
+        if (sequenceGenerator != null && sequenceGenerator.name().equals(generator)) {
+            return sequenceGenerator.sequenceName();
+        }
+        throw new IllegalArgumentException("Unsupported id generation for bulk insert: " + entityType.getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> BulkRowBinder<T> resolveRowBinder(Class<T> entityType, List<BulkInsertColumn<T>> columns) {
+        Class<?> binderType;
+        try {
+            binderType = Class.forName(entityType.getName() + GENERATED_BINDER_SUFFIX, true, entityType.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return new ReflectiveRowBinder<>(columns);
+        }
+        BulkRowBinder<T> binder;
+        try {
+            binder = (BulkRowBinder<T>) binderType.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate row binder: " + binderType.getName(), e);
+        }
+        // 생성 이후 매핑 규칙이 달라졌다면 잘못된 컬럼에 값이 들어가므로 바로 실패시킨다
+        List<String> columnNames = columns.stream().map(BulkInsertColumn::getName).collect(Collectors.toList());
+        if (!columnNames.equals(binder.getColumnNames())) {
+            throw new IllegalStateException("Generated row binder does not match the mapping: "
+                    + binderType.getName() + " " + binder.getColumnNames() + " != " + columnNames);
+        }
+        return binder;
+    }
+
+    private static String resolveTableName(Class<?> entityType) {
+        Table table = entityType.getAnnotation(Table.class);
+        if (table != null && !table.name().isEmpty()) {
+            return table.name();
+        }
+        return toSnakeCase(entityType.getSimpleName());
+    }
+
+    private static List<Field> persistentFields(Class<?> entityType) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> type = entityType; type != null && type != Object.class; type = type.getSuperclass()) {
+            if (type.isAnnotationPresent(Entity.class) || type.isAnnotationPresent(MappedSuperclass.class)) {
+                hierarchy.add(0, type);
+            }
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> type : hierarchy) {
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+                        || field.isAnnotationPresent(Transient.class)
+                        || field.isAnnotationPresent(OneToMany.class)
+                        || field.isAnnotationPresent(ManyToMany.class)
+                        || field.isAnnotationPresent(OneToOne.class) && !field.isAnnotationPresent(JoinColumn.class)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static String columnName(Field field) {
+        Column column = field.getAnnotation(Column.class);
+        return column != null && !column.name().isEmpty() ? column.name() : toSnakeCase(field.getName());
+    }
+
+    private static int sqlType(Class<?> type) {
+        if (type == Long.class || type == long.class) {
+            return Types.BIGINT;
+        }
+        if (type == Integer.class || type == int.class || type == Short.class || type == short.class) {
+            return Types.INTEGER;
+        }
+        if (type == BigDecimal.class || type == BigInteger.class || type == Double.class || type == double.class) {
+            return Types.NUMERIC;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return Types.BOOLEAN;
+        }
+        if (type == LocalDate.class) {
+            return Types.DATE;
+        }
+        if (type == LocalDateTime.class) {
+            return Types.TIMESTAMP;
+        }
+        return Types.VARCHAR;
+    }
+
+    // ojdbc6 는 java.time 타입을 바인딩하지 못하므로 java.sql 타입으로 변환
+    private static Object toJdbcValue(Object value) {
+        if (value instanceof LocalDateTime) {
+            return java.sql.Timestamp.valueOf((LocalDateTime) value);
+        }
+        if (value instanceof LocalDate) {
+            return java.sql.Date.valueOf((LocalDate) value);
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        return value;
+    }
+
+    private static Object readField(Field field, Object entity) {
+        try {
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read field: " + field, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AttributeConverter<Object, Object> instantiate(Class<?> converterType) {
+        try {
+            java.lang.reflect.Constructor<?> constructor = converterType.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return (AttributeConverter<Object, Object>) constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot instantiate converter: " + converterType.getName(), e);
+        }
+    }
+
+    private static String toSnakeCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+
+    private static class ReflectiveRowBinder<T> implements BulkRowBinder<T> {
+
+        private final List<BulkInsertColumn<T>> columns;
+
+        ReflectiveRowBinder(List<BulkInsertColumn<T>> columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public List<String> getColumnNames() {
+            return columns.stream().map(BulkInsertColumn::getName).collect(Collectors.toList());
+        }
+
+        @Override
+        public int bind(PreparedStatement statement, int index, T row) throws SQLException {
+            for (BulkInsertColumn<T> column : columns) {
+                column.bind(statement, index++, row);
+            }
+            return index;
+        }
+    }
+}
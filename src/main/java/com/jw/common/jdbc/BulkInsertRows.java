@@ -0,0 +1,62 @@
+package com.jw.common.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * dialect 가 insert 할 row 묶음. row 는 번호로만 접근하므로 엔티티 목록이 아닌 열 단위 버퍼({@link InstallmentRowBuffer})도 담을 수 있다.
+ */
+public interface BulkInsertRows {
+
+    int size();
+
+    // row 번째 row 의 ID, 아직 없으면 null
+    Object getId(int row);
+
+    // row 번째 row 의 전체 컬럼을 index 부터 바인딩하고 다음 index 를 반환
+    int bind(PreparedStatement statement, int index, int row) throws SQLException;
+
+    // [from, to) 구간만 보여주는 view
+    default BulkInsertRows slice(int from, int to) {
+        BulkInsertRows rows = this;
+        if (from < 0 || to > rows.size() || from > to) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", size: " + rows.size());
+        }
+        return new BulkInsertRows() {
+            @Override
+            public int size() {
+                return to - from;
+            }
+
+            @Override
+            public Object getId(int row) {
+                return rows.getId(from + row);
+            }
+
+            @Override
+            public int bind(PreparedStatement statement, int index, int row) throws SQLException {
+                return rows.bind(statement, index, from + row);
+            }
+        };
+    }
+
+    static <T> BulkInsertRows of(BulkInsertMapping<T> mapping, List<? extends T> entities) {
+        return new BulkInsertRows() {
+            @Override
+            public int size() {
+                return entities.size();
+            }
+
+            @Override
+            public Object getId(int row) {
+                return mapping.getId(entities.get(row));
+            }
+
+            @Override
+            public int bind(PreparedStatement statement, int index, int row) throws SQLException {
+                return mapping.bind(statement, index, entities.get(row));
+            }
+        };
+    }
+}
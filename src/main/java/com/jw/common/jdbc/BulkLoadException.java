@@ -0,0 +1,16 @@
+package com.jw.common.jdbc;
+
+import lombok.Getter;
+
+// 일부 partition 이 실패한 경우. 같은 loadId 로 다시 적재하면 커밋된 partition 은 건너뛴다
+@Getter
+public class BulkLoadException extends RuntimeException {
+
+    private final ParallelLoadResult result;
+
+    public BulkLoadException(ParallelLoadResult result, Throwable cause) {
+        super("Bulk load partially failed. loadId=" + result.getLoadId()
+                + ", failedPartitions=" + result.getFailedPartitions(), cause);
+        this.result = result;
+    }
+}
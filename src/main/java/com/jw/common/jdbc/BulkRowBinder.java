@@ -0,0 +1,21 @@
+package com.jw.common.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 엔티티 한 row 의 컬럼 값을 {@link PreparedStatement} 에 바인딩한다.
+ * <p>
+ * {@code BulkInsertEntity} 하위 엔티티마다 annotation processor(bulk-binder-processor)가
+ * {@code <엔티티>_BulkRowBinder} 를 생성하며, getter 를 직접 호출하므로 row 마다 리플렉션이나 boxing 이 없다.
+ * 생성된 binder 가 없으면 {@link BulkInsertMapping} 이 리플렉션으로 바인딩한다.
+ */
+public interface BulkRowBinder<T> {
+
+    // insert 컬럼 순서. BulkInsertMapping 의 컬럼 순서와 같아야 한다
+    List<String> getColumnNames();
+
+    // index 부터 row 의 컬럼을 바인딩하고 다음 index 를 반환
+    int bind(PreparedStatement statement, int index, T row) throws SQLException;
+}
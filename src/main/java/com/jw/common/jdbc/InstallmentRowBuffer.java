@@ -0,0 +1,165 @@
+package com.jw.common.jdbc;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * (ID, 부모 ID, 회차, 금액) 형태 row 를 엔티티 없이 열 단위 primitive 배열로 모아 두는 버퍼. (LOAN_SCHEDULE)
+ * <p>
+ * 금액은 대출 하나 안에서 모두 같으므로 사전(dictionary)에 한 번만 두고 row 에는 사전 번호만 저장한다.
+ * row 당 24 byte(long 2개 + int 2개)만 쓰므로, row 마다 엔티티/builder/boxed ID 를 만드는 것보다 힙 사용과 GC 부담이 훨씬 적다.
+ * 컬럼 이름과 순서는 {@code entityType} 의 {@link BulkInsertMapping} 을 따른다. thread-safe 하지 않다.
+ */
+public class InstallmentRowBuffer implements BulkInsertRows {
+
+    // 아직 ID 가 없는 row (시퀀스로 채울 row). 시퀀스/Snowflake ID 는 0 이 될 수 없다
+    public static final long NO_ID = 0;
+
+    private static final int[] COLUMN_TYPES = {Types.BIGINT, Types.BIGINT, Types.INTEGER, Types.NUMERIC};
+
+    @Getter
+    private final Class<?> entityType;
+    private long[] ids;
+    private long[] parentIds;
+    private int[] installmentNos;
+    private int[] amountRefs;
+    private int size;
+
+    private BigDecimal[] amounts = new BigDecimal[4];
+    private final Map<BigDecimal, Integer> amountIndex = new HashMap<>();
+    private int amountCount;
+
+    public InstallmentRowBuffer(Class<?> entityType, int initialCapacity) {
+        List<? extends BulkInsertColumn<?>> columns = BulkInsertMapping.of(entityType).getColumns();
+        if (columns.size() != COLUMN_TYPES.length) {
+            throw new IllegalArgumentException("Not an installment row entity: " + entityType.getName() + " " + columns.size() + " columns");
+        }
+        for (int i = 0; i < COLUMN_TYPES.length; i++) {
+            if (columns.get(i).getSqlType() != COLUMN_TYPES[i]) {
+                throw new IllegalArgumentException("Unexpected column type: " + entityType.getName() + "." + columns.get(i).getName());
+            }
+        }
+        this.entityType = entityType;
+        int capacity = Math.max(1, initialCapacity);
+        this.ids = new long[capacity];
+        this.parentIds = new long[capacity];
+        this.installmentNos = new int[capacity];
+        this.amountRefs = new int[capacity];
+    }
+
+    public void add(long id, long parentId, int installmentNo, BigDecimal amount) {
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = id;
+        parentIds[size] = parentId;
+        installmentNos[size] = installmentNo;
+        amountRefs[size] = amountRef(amount);
+        size++;
+    }
+
+    // ID 는 insert 할 때 시퀀스로 채운다 (JdbcBulkInsertWriter)
+    public void addWithoutId(long parentId, int installmentNo, BigDecimal amount) {
+        add(NO_ID, parentId, installmentNo, amount);
+    }
+
+    // BulkInsertRows 용. ID 가 없으면 null
+    @Override
+    public Object getId(int row) {
+        checkRow(row);
+        return ids[row] != NO_ID ? ids[row] : null;
+    }
+
+    public long getIdAsLong(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    public void assignId(int row, long id) {
+        checkRow(row);
+        ids[row] = id;
+    }
+
+    public long getParentId(int row) {
+        checkRow(row);
+        return parentIds[row];
+    }
+
+    public int getInstallmentNo(int row) {
+        checkRow(row);
+        return installmentNos[row];
+    }
+
+    public BigDecimal getAmount(int row) {
+        checkRow(row);
+        return amounts[amountRefs[row]];
+    }
+
+    public int getDistinctAmountCount() {
+        return amountCount;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int bind(PreparedStatement statement, int index, int row) throws SQLException {
+        statement.setLong(index++, ids[row]);
+        statement.setLong(index++, parentIds[row]);
+        statement.setInt(index++, installmentNos[row]);
+        statement.setBigDecimal(index++, amounts[amountRefs[row]]);
+        return index;
+    }
+
+    // 배열은 그대로 두고 다음 대출에 재사용
+    public void clear() {
+        size = 0;
+        Arrays.fill(amounts, 0, amountCount, null);
+        amountIndex.clear();
+        amountCount = 0;
+    }
+
+    // 직전 금액과 같으면 사전을 찾지 않는다 (대출 하나의 row 는 모두 같은 금액)
+    private int amountRef(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("amount must not be null");
+        }
+        if (amountCount > 0 && amounts[amountCount - 1] == amount) {
+            return amountCount - 1;
+        }
+        Integer ref = amountIndex.get(amount);
+        if (ref != null) {
+            return ref;
+        }
+        if (amountCount == amounts.length) {
+            amounts = Arrays.copyOf(amounts, amountCount * 2);
+        }
+        amounts[amountCount] = amount;
+        amountIndex.put(amount, amountCount);
+        return amountCount++;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1) + 1;
+        ids = Arrays.copyOf(ids, capacity);
+        parentIds = Arrays.copyOf(parentIds, capacity);
+        installmentNos = Arrays.copyOf(installmentNos, capacity);
+        amountRefs = Arrays.copyOf(amountRefs, capacity);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row: " + row + ", size: " + size);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.jw.common.jdbc;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 영속성 컨텍스트를 거치지 않고 엔티티를 JDBC 로 직접 insert(또는 upsert) 한다.
+ * <p>
+ * JpaTransactionManager 는 트랜잭션 시작 시 EntityManagerFactory 의 DataSource 에 커넥션을 바인딩하므로,
+ * 같은 DataSource(proxy) 로 만든 writer 는 진행 중인 JPA 트랜잭션에 그대로 참여한다.
+ * JPA 로 저장한 부모를 참조한다면 writer 호출 전에 flush 해야 한다.
+ */
+public class JdbcBulkInsertWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BulkInsertDialect dialect;
+    // 시퀀스가 없는 DB(MySQL)는 null. 이때는 모든 row 에 ID 가 미리 할당되어 있어야 한다
+    private final SequenceAllocator sequenceAllocator;
+    private final int batchSize;
+
+    public JdbcBulkInsertWriter(DataSource dataSource, BulkInsertDialect dialect, int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.dialect = dialect;
+        this.sequenceAllocator = dialect instanceof SequenceAllocator ? (SequenceAllocator) dialect : null;
+        this.batchSize = batchSize;
+    }
+
+    public <T> long insert(Class<T> entityType, Iterable<? extends T> rows) {
+        return insert(entityType, rows.iterator());
+    }
+
+    public <T> long insert(Class<T> entityType, Stream<? extends T> rows) {
+        return insert(entityType, rows.iterator());
+    }
+
+    public <T> long insert(Class<T> entityType, Iterator<? extends T> rows) {
+        return insertInChunks(entityType, rows, batchSize, dialect::insert);
+    }
+
+    // 이미 저장된 엔티티(merge 대상)를 row 마다 조회하지 않고 batchSize 단위로 insert 또는 update 하고 반영한 row 수를 반환
+    // ID 가 없는 row 는 시퀀스 ID 를 받아 insert 된다
+    public <T> long upsert(Class<T> entityType, Iterable<? extends T> rows) {
+        return upsert(entityType, rows.iterator());
+    }
+
+    public <T> long upsert(Class<T> entityType, Stream<? extends T> rows) {
+        return upsert(entityType, rows.iterator());
+    }
+
+    public <T> long upsert(Class<T> entityType, Iterator<? extends T> rows) {
+        return insertInChunks(entityType, rows, batchSize,
+                (connection, mapping, chunk) -> dialect.upsert(connection, mapping, BulkInsertRows.of(mapping, chunk)));
+    }
+
+    // 열 단위 버퍼를 batchSize 단위로 insert. 엔티티를 만들지 않으므로 row 당 할당이 없다
+    public long insert(InstallmentRowBuffer buffer) {
+        BulkInsertMapping<?> mapping = BulkInsertMapping.of(buffer.getEntityType());
+        Long inserted = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            long count = 0;
+            for (int from = 0; from < buffer.size(); from += batchSize) {
+                int to = Math.min(buffer.size(), from + batchSize);
+                assignSequenceIds(connection, mapping, buffer, from, to);
+                count += dialect.insert(connection, mapping, buffer.slice(from, to));
+            }
+            return count;
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    // 이미 ID 가 있는 row 묶음(다른 DB 에서 읽은 row 등)을 batchSize 단위로 insert
+    public long insert(Class<?> entityType, BulkInsertRows rows) {
+        BulkInsertMapping<?> mapping = BulkInsertMapping.of(entityType);
+        Long inserted = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            long count = 0;
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                count += dialect.insert(connection, mapping, rows.slice(from, Math.min(rows.size(), from + batchSize)));
+            }
+            return count;
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    // chunkSize 만큼 모아 시퀀스 ID 를 할당한 뒤 chunkInserter 로 insert (upsert 도 같은 경로를 쓴다)
+    protected <T> long insertInChunks(Class<T> entityType, Iterator<? extends T> rows, int chunkSize,
+                                      ChunkInserter<T> chunkInserter) {
+        BulkInsertMapping<T> mapping = BulkInsertMapping.of(entityType);
+        Long inserted = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            long count = 0;
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == chunkSize) {
+                    count += writeChunk(connection, mapping, chunk, chunkInserter);
+                }
+            }
+            return count + writeChunk(connection, mapping, chunk, chunkInserter);
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    private <T> int writeChunk(Connection connection, BulkInsertMapping<T> mapping, List<T> chunk,
+                               ChunkInserter<T> chunkInserter) throws SQLException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        assignSequenceIds(connection, mapping, chunk);
+        int inserted = chunkInserter.insert(connection, mapping, chunk);
+        chunk.clear();
+        return inserted;
+    }
+
+    // 시퀀스 ID 는 chunk 단위로 한 번에 받아 엔티티에 할당한다. (자식 row 의 FK 가 부모 ID 를 읽을 수 있도록)
+    protected <T> void assignSequenceIds(Connection connection, BulkInsertMapping<T> mapping, List<T> chunk) throws SQLException {
+        if (mapping.getIdSequence() == null) {
+            return;
+        }
+        List<T> missing = new ArrayList<>();
+        for (T row : chunk) {
+            if (mapping.getId(row) == null) {
+                missing.add(row);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        long[] ids = nextSequenceValues(connection, mapping, missing.size());
+        for (int i = 0; i < ids.length; i++) {
+            mapping.assignId(missing.get(i), ids[i]);
+        }
+    }
+
+    private void assignSequenceIds(Connection connection, BulkInsertMapping<?> mapping, InstallmentRowBuffer buffer,
+                                   int from, int to) throws SQLException {
+        int missing = 0;
+        for (int row = from; row < to; row++) {
+            if (buffer.getIdAsLong(row) == InstallmentRowBuffer.NO_ID) {
+                missing++;
+            }
+        }
+        if (missing == 0) {
+            return;
+        }
+        if (mapping.getIdSequence() == null) {
+            throw new IllegalStateException("Rows without id but no sequence: " + mapping.getTableName());
+        }
+        long[] ids = nextSequenceValues(connection, mapping, missing);
+        int next = 0;
+        for (int row = from; row < to; row++) {
+            if (buffer.getIdAsLong(row) == InstallmentRowBuffer.NO_ID) {
+                buffer.assignId(row, ids[next++]);
+            }
+        }
+    }
+
+    private long[] nextSequenceValues(Connection connection, BulkInsertMapping<?> mapping, int count) throws SQLException {
+        if (sequenceAllocator == null) {
+            throw new IllegalStateException("Rows without id but dialect has no sequences: " + mapping.getTableName());
+        }
+        return sequenceAllocator.nextSequenceValues(connection, mapping.getIdSequence(), count);
+    }
+
+    protected JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public BulkInsertDialect getDialect() {
+        return dialect;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @FunctionalInterface
+    protected interface ChunkInserter<T> {
+        int insert(Connection connection, BulkInsertMapping<T> mapping, List<T> chunk) throws SQLException;
+    }
+}
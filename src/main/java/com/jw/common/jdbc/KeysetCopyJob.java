@@ -0,0 +1,369 @@
+package com.jw.common.jdbc;
+
+import com.jw.common.datasource.WorkloadContext;
+import com.jw.common.ledger.BulkLoadLedger;
+import com.jw.common.metrics.JdbcOperationContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 다른 DB 의 같은 구조 테이블에서 row 를 복사한다. (원본 DataSource → 대상 {@link JdbcBulkInsertWriter})
+ * <p>
+ * 원본을 ID 구간(partition) 으로 나누어 partition 마다 reader 스레드가 keyset 순서로 읽고,
+ * chunk 를 크기가 제한된 큐로 writer 스레드에 넘긴다. 읽기와 쓰기는 서로 다른 커넥션 풀에서 동시에 진행된다.
+ * writer 는 chunk 마다 대상 DB 트랜잭션으로 insert 하고 같은 트랜잭션에서 마지막 ID 를 {@link BulkLoadLedger} 에 기록한다.
+ * 감사 기록처럼 chunk 와 함께 커밋해야 하는 작업은 afterChunk 로 같은 트랜잭션에서 실행한다.
+ * 같은 copyId 로 다시 호출하면 partition 마다 기록된 ID 다음부터 이어서 복사한다.
+ * 복사할 ID 구간과 partition 수는 첫 호출 때 원장에 기록하므로 이후 원본에 추가된 row 는 복사하지 않고,
+ * 다른 partition 수로 이어서 복사하면 partition 별 위치가 다른 구간을 가리키므로 거부한다.
+ * 대상에만 있는 컬럼(원본 테이블에 없는 컬럼)은 NULL 로 복사한다.
+ */
+@Slf4j
+public class KeysetCopyJob {
+
+    // 원장에서 partition 번호 대신 쓰는 복사 구간 기록 (시작 ID 는 제외, 끝 ID 는 포함)
+    static final int LOWER_BOUND_ENTRY = -1;
+    static final int UPPER_BOUND_ENTRY = -2;
+    static final int PARTITION_COUNT_ENTRY = -3;
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final JdbcTemplate sourceJdbcTemplate;
+    private final JdbcBulkInsertWriter targetWriter;
+    private final BulkLoadLedger ledger;
+    private final TransactionTemplate targetTransactionTemplate;
+    private final ExecutorService readers;
+    private final ExecutorService writers;
+    private final int fetchSize;
+    private final int queueCapacity;
+
+    // targetTransactionManager 는 targetDataSource 의 트랜잭션을 관리해야 한다 (JPA 트랜잭션 매니저면 같은 DataSource)
+    public KeysetCopyJob(String name, DataSource sourceDataSource, DataSource targetDataSource,
+                         PlatformTransactionManager targetTransactionManager, JdbcBulkInsertWriter targetWriter,
+                         int parallelism, int fetchSize, int queueCapacity) {
+        this.sourceJdbcTemplate = new JdbcTemplate(sourceDataSource);
+        this.sourceJdbcTemplate.setFetchSize(fetchSize);
+        this.targetWriter = targetWriter;
+        this.ledger = new BulkLoadLedger(targetDataSource);
+        this.targetTransactionTemplate = new TransactionTemplate(targetTransactionManager);
+        this.readers = newThreadPool(name + "-copy-read-", parallelism);
+        this.writers = newThreadPool(name + "-copy-write-", parallelism);
+        this.fetchSize = fetchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    // 대상 엔티티의 테이블/컬럼과 같은 이름으로 원본을 읽는다. 부모 테이블을 먼저 복사해야 한다
+    public TableCopyResult copy(String copyId, Class<?> targetEntityType, int partitionCount) {
+        return copy(copyId, targetEntityType, partitionCount, ids -> {
+        });
+    }
+
+    // afterChunk 는 chunk 마다 insert 한 ID 로 writer 의 대상 트랜잭션 안에서 호출된다
+    public TableCopyResult copy(String copyId, Class<?> targetEntityType, int partitionCount,
+                                Consumer<List<Object>> afterChunk) {
+        long start = System.currentTimeMillis();
+        BulkInsertMapping<?> mapping = BulkInsertMapping.of(targetEntityType);
+        Map<Integer, Long> positions = ledger.findPositions(copyId);
+        long[] bounds = resolveBounds(copyId, mapping, positions, partitionCount);
+        long[] upperBounds = splitRange(bounds[0], bounds[1], partitionCount);
+        String selectList = sourceSelectList(mapping);
+
+        CopyStatistics statistics = new CopyStatistics();
+        List<Integer> skippedPartitions = new ArrayList<>();
+        Map<Integer, Future<Long>> futures = new LinkedHashMap<>();
+        for (int partitionNo = 0; partitionNo < partitionCount; partitionNo++) {
+            long lowerBound = partitionNo == 0 ? bounds[0] : upperBounds[partitionNo - 1];
+            long upperBound = upperBounds[partitionNo];
+            long position = Math.max(lowerBound, positions.getOrDefault(partitionNo, lowerBound));
+            if (position >= upperBound) {
+                skippedPartitions.add(partitionNo);
+                continue;
+            }
+            int target = partitionNo;
+            futures.put(partitionNo, readers.submit(WorkloadContext.propagate(JdbcOperationContext.propagate(
+                    () -> copyPartition(copyId, mapping, selectList, target, position, upperBound, afterChunk, statistics)))));
+        }
+
+        List<Integer> failedPartitions = new ArrayList<>();
+        long copiedRows = 0;
+        Throwable failure = null;
+        for (Map.Entry<Integer, Future<Long>> entry : futures.entrySet()) {
+            try {
+                copiedRows += entry.getValue().get();
+            } catch (ExecutionException e) {
+                failedPartitions.add(entry.getKey());
+                failure = failure == null ? e.getCause() : failure;
+                log.warn("copy partition failed. copyId={}, partition={}", copyId, entry.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedPartitions.add(entry.getKey());
+                failure = failure == null ? e : failure;
+            }
+        }
+
+        TableCopyResult result = new TableCopyResult(copyId, mapping.getTableName(), partitionCount,
+                skippedPartitions, failedPartitions, copiedRows, System.currentTimeMillis() - start,
+                TimeUnit.NANOSECONDS.toMillis(statistics.readerBlockedNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(statistics.writerIdleNanos.sum()));
+        log.info("copy finished. {} ({} rows/s)", result, result.getRowsPerSecond());
+        if (!failedPartitions.isEmpty()) {
+            throw new IllegalStateException("Copy failed: " + result, failure);
+        }
+        return result;
+    }
+
+    // 원장에 구간이 없으면 (첫 호출) 원본의 MIN/MAX ID 와 partition 수를 읽어 기록한다
+    private long[] resolveBounds(String copyId, BulkInsertMapping<?> mapping, Map<Integer, Long> positions,
+                                 int partitionCount) {
+        Long lowerBound = positions.get(LOWER_BOUND_ENTRY);
+        Long upperBound = positions.get(UPPER_BOUND_ENTRY);
+        if (lowerBound != null && upperBound != null) {
+            checkPartitionCount(copyId, positions, partitionCount);
+            return new long[]{lowerBound, upperBound};
+        }
+        String idColumn = mapping.getIdColumn().getName();
+        long[] bounds = sourceJdbcTemplate.queryForObject(
+                "SELECT MIN(" + idColumn + "), MAX(" + idColumn + ") FROM " + mapping.getTableName(),
+                (rs, rowNum) -> {
+                    long max = rs.getLong(2);
+                    return rs.wasNull() ? new long[]{0, 0} : new long[]{rs.getLong(1) - 1, max};
+                });
+        targetTransactionTemplate.executeWithoutResult(status -> {
+            ledger.record(copyId, LOWER_BOUND_ENTRY, bounds[0]);
+            ledger.record(copyId, UPPER_BOUND_ENTRY, bounds[1]);
+            ledger.record(copyId, PARTITION_COUNT_ENTRY, partitionCount);
+        });
+        return bounds;
+    }
+
+    // partition 경계는 partition 수로 정해지므로 기록된 수와 다르면 이어서 복사하지 않는다
+    private static void checkPartitionCount(String copyId, Map<Integer, Long> positions, int partitionCount) {
+        Long recorded = positions.get(PARTITION_COUNT_ENTRY);
+        if (recorded == null || recorded != partitionCount) {
+            throw new IllegalStateException("Partition count mismatch. copyId=" + copyId
+                    + ", recorded=" + recorded + ", requested=" + partitionCount);
+        }
+    }
+
+    // 대상 mapping 의 컬럼 순서대로 원본에서 읽을 select 목록. 원본에 없는 컬럼은 NULL
+    private String sourceSelectList(BulkInsertMapping<?> mapping) {
+        Set<String> sourceColumns = sourceJdbcTemplate.query("SELECT * FROM " + mapping.getTableName() + " WHERE 1 = 0", rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            Set<String> names = new HashSet<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                names.add(metaData.getColumnName(i).toUpperCase(Locale.ROOT));
+            }
+            return names;
+        });
+        StringJoiner selectList = new StringJoiner(", ");
+        for (BulkInsertColumn<?> column : mapping.getColumns()) {
+            String name = column.getName();
+            selectList.add(sourceColumns != null && sourceColumns.contains(name.toUpperCase(Locale.ROOT)) ? name : "NULL");
+        }
+        return selectList.toString();
+    }
+
+    // (lowerBound, upperBound] 를 partitionCount 개로 나눈 각 구간의 끝 ID
+    static long[] splitRange(long lowerBound, long upperBound, int partitionCount) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Invalid partition count: " + partitionCount);
+        }
+        long[] upperBounds = new long[partitionCount];
+        long width = upperBound - lowerBound;
+        for (int partitionNo = 0; partitionNo < partitionCount; partitionNo++) {
+            upperBounds[partitionNo] = lowerBound + width / partitionCount * (partitionNo + 1)
+                    + Math.min(width % partitionCount, partitionNo + 1);
+        }
+        return upperBounds;
+    }
+
+    // reader: 이 스레드에서 원본을 읽어 큐에 넣는다. writer 가 실패하면 읽기를 멈춘다
+    private long copyPartition(String copyId, BulkInsertMapping<?> mapping, String selectList, int partitionNo,
+                               long position, long upperBound, Consumer<List<Object>> afterChunk,
+                               CopyStatistics statistics) throws Exception {
+        BlockingQueue<CopyChunk> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Future<Long> written = writers.submit(WorkloadContext.propagate(JdbcOperationContext.propagate(
+                () -> writePartition(copyId, mapping, partitionNo, upperBound, queue, afterChunk, statistics))));
+        try {
+            readPartition(mapping, selectList, position, upperBound, queue, written, statistics);
+            offer(queue, CopyChunk.END, written, statistics);
+        } catch (RuntimeException e) {
+            // writer 가 먼저 실패했으면 writer 의 예외를 던진다
+            if (!written.isDone()) {
+                written.cancel(true);
+                throw e;
+            }
+        }
+        try {
+            return written.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private void readPartition(BulkInsertMapping<?> mapping, String selectList, long position, long upperBound,
+                               BlockingQueue<CopyChunk> queue, Future<Long> written, CopyStatistics statistics) {
+        List<BulkInsertColumn<?>> columns = new ArrayList<>(mapping.getColumns());
+        String idColumn = mapping.getIdColumn().getName();
+        String sql = "SELECT " + selectList + " FROM " + mapping.getTableName()
+                + " WHERE " + idColumn + " > ? AND " + idColumn + " <= ? ORDER BY " + idColumn;
+        int chunkSize = targetWriter.getBatchSize();
+        CopyChunk[] chunk = {new CopyChunk(columns, chunkSize)};
+        sourceJdbcTemplate.query(sql, rs -> {
+            chunk[0].add(rs);
+            if (chunk[0].size() == chunkSize) {
+                offer(queue, chunk[0], written, statistics);
+                chunk[0] = new CopyChunk(columns, chunkSize);
+            }
+        }, position, upperBound);
+        if (chunk[0].size() > 0) {
+            offer(queue, chunk[0], written, statistics);
+        }
+    }
+
+    // 큐가 가득 차 있는 동안 (writer 가 느린 동안) 기다린 시간을 기록한다
+    private static void offer(BlockingQueue<CopyChunk> queue, CopyChunk chunk, Future<Long> written,
+                              CopyStatistics statistics) {
+        long start = System.nanoTime();
+        try {
+            while (!queue.offer(chunk, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (written.isDone()) {
+                    throw new IllegalStateException("Copy writer stopped");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while copying", e);
+        } finally {
+            statistics.readerBlockedNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    // writer: chunk 마다 insert 와 원장 기록을 한 트랜잭션으로 커밋. 끝나면 partition 끝 ID 를 기록해 완료 처리
+    private long writePartition(String copyId, BulkInsertMapping<?> mapping, int partitionNo, long upperBound,
+                                BlockingQueue<CopyChunk> queue, Consumer<List<Object>> afterChunk,
+                                CopyStatistics statistics) throws InterruptedException {
+        long written = 0;
+        while (true) {
+            long start = System.nanoTime();
+            CopyChunk chunk = queue.take();
+            statistics.writerIdleNanos.add(System.nanoTime() - start);
+            if (chunk == CopyChunk.END) {
+                targetTransactionTemplate.executeWithoutResult(status -> ledger.record(copyId, partitionNo, upperBound));
+                return written;
+            }
+            Long inserted = targetTransactionTemplate.execute(status -> {
+                long rows = targetWriter.insert(mapping.getEntityType(), chunk);
+                afterChunk.accept(chunk.getIds());
+                ledger.record(copyId, partitionNo, chunk.getLastId());
+                return rows;
+            });
+            written += inserted != null ? inserted : 0;
+        }
+    }
+
+    public void shutdown() {
+        readers.shutdown();
+        writers.shutdown();
+    }
+
+    private static ExecutorService newThreadPool(String namePrefix, int size) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static class CopyStatistics {
+        // reader 가 큐에 넣으려고 기다린 시간 (쓰기가 병목)
+        private final LongAdder readerBlockedNanos = new LongAdder();
+        // writer 가 큐가 비어 기다린 시간 (읽기가 병목)
+        private final LongAdder writerIdleNanos = new LongAdder();
+    }
+
+    // 원본에서 읽은 row 묶음. 컬럼 순서는 대상 mapping 의 컬럼 순서와 같고 첫 컬럼이 ID 다
+    private static class CopyChunk implements BulkInsertRows {
+
+        private static final CopyChunk END = new CopyChunk(List.of(), 0);
+
+        private final List<BulkInsertColumn<?>> columns;
+        private final List<Object[]> rows;
+
+        private CopyChunk(List<BulkInsertColumn<?>> columns, int capacity) {
+            this.columns = columns;
+            this.rows = new ArrayList<>(capacity);
+        }
+
+        private void add(ResultSet rs) throws SQLException {
+            Object[] row = new Object[columns.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            rows.add(row);
+        }
+
+        private long getLastId() {
+            return ((Number) rows.get(rows.size() - 1)[0]).longValue();
+        }
+
+        private List<Object> getIds() {
+            List<Object> ids = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                ids.add(row[0]);
+            }
+            return ids;
+        }
+
+        @Override
+        public int size() {
+            return rows.size();
+        }
+
+        @Override
+        public Object getId(int row) {
+            return rows.get(row)[0];
+        }
+
+        @Override
+        public int bind(PreparedStatement statement, int index, int row) throws SQLException {
+            Object[] values = rows.get(row);
+            for (int i = 0; i < values.length; i++) {
+                int sqlType = columns.get(i).getSqlType();
+                if (values[i] == null) {
+                    statement.setNull(index++, sqlType);
+                } else {
+                    statement.setObject(index++, values[i], sqlType);
+                }
+            }
+            return index;
+        }
+    }
+}
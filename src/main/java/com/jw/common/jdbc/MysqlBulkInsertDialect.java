@@ -0,0 +1,75 @@
+package com.jw.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * MySQL: {@code INSERT INTO t (...) VALUES (...), (...), ...} multi-row insert.
+ * 한 statement 의 placeholder 수는 65,535 개를 넘을 수 없으므로 그 안에서 row 수를 나눈다.
+ */
+public class MysqlBulkInsertDialect implements BulkInsertDialect {
+
+    private static final int MAX_PLACEHOLDERS = 65_535;
+
+    @Override
+    public int insert(Connection connection, BulkInsertMapping<?> mapping, BulkInsertRows rows) throws SQLException {
+        int rowsPerStatement = Math.max(1, MAX_PLACEHOLDERS / mapping.getColumnCount());
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+            int to = Math.min(rows.size(), from + rowsPerStatement);
+            try (PreparedStatement statement = connection.prepareStatement(insertSql(mapping, to - from))) {
+                int index = 1;
+                for (int row = from; row < to; row++) {
+                    index = rows.bind(statement, index, row);
+                }
+                inserted += statement.executeUpdate();
+            }
+        }
+        return inserted;
+    }
+
+    // INSERT ... ON DUPLICATE KEY UPDATE. 보낸 row 수를 반환한다
+    // 영향 받은 row 수(insert 1, 갱신 2, 값이 같은 row 는 useAffectedRows 에 따라 1 또는 0)로는 insert/update 를 나눌 수 없다
+    @Override
+    public int upsert(Connection connection, BulkInsertMapping<?> mapping, BulkInsertRows rows) throws SQLException {
+        int rowsPerStatement = Math.max(1, MAX_PLACEHOLDERS / mapping.getColumnCount());
+        for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+            int to = Math.min(rows.size(), from + rowsPerStatement);
+            try (PreparedStatement statement = connection.prepareStatement(upsertSql(mapping, to - from))) {
+                int index = 1;
+                for (int row = from; row < to; row++) {
+                    index = rows.bind(statement, index, row);
+                }
+                statement.executeUpdate();
+            }
+        }
+        return rows.size();
+    }
+
+    static String insertSql(BulkInsertMapping<?> mapping, int rowCount) {
+        StringBuilder sql = new StringBuilder(mapping.getInsertPrefix()).append(" VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(mapping.getRowPlaceholder());
+        }
+        return sql.toString();
+    }
+
+    // 8.0.20 부터 VALUES() 는 deprecated 지만 row alias(AS new) 를 지원하지 않는 버전/호환 DB 가 있어 VALUES() 를 쓴다
+    static String upsertSql(BulkInsertMapping<?> mapping, int rowCount) {
+        StringBuilder sql = new StringBuilder(insertSql(mapping, rowCount)).append(" ON DUPLICATE KEY UPDATE ");
+        List<? extends BulkInsertColumn<?>> columns = mapping.getColumns();
+        for (int i = 1; i < columns.size(); i++) {
+            String name = columns.get(i).getName();
+            if (i > 1) {
+                sql.append(", ");
+            }
+            sql.append(name).append(" = VALUES(").append(name).append(')');
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.jw.common.jdbc;
+
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.JdbcConnection;
+import com.mysql.cj.jdbc.JdbcStatement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * MySQL 전용 {@code LOAD DATA LOCAL INFILE} 적재.
+ * <p>
+ * 임시 파일 없이 엔티티를 TSV 로 직렬화하는 스트림을 Connector/J 에 그대로 넘긴다. ({@code setLocalInfileInputStream})
+ * 커넥션에 {@code allowLoadLocalInfile=true} 가 없으면 {@link JdbcBulkInsertWriter} 의 multi-row insert 로 대신한다.
+ * 서버도 {@code local_infile=ON} 이어야 한다.
+ */
+@Slf4j
+public class MysqlLoadDataWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcBulkInsertWriter fallbackWriter;
+
+    public MysqlLoadDataWriter(DataSource dataSource, JdbcBulkInsertWriter fallbackWriter) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.fallbackWriter = fallbackWriter;
+    }
+
+    public <T> long load(Class<T> entityType, Iterable<? extends T> rows) {
+        return load(entityType, rows.iterator());
+    }
+
+    public <T> long load(Class<T> entityType, Stream<? extends T> rows) {
+        return load(entityType, rows.iterator());
+    }
+
+    private <T> long load(Class<T> entityType, Iterator<? extends T> rows) {
+        BulkInsertMapping<T> mapping = BulkInsertMapping.of(entityType);
+        Long loaded = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            if (!isLocalInfileAllowed(connection)) {
+                log.debug("allowLoadLocalInfile is off. fallback to batched insert. table={}", mapping.getTableName());
+                return null;
+            }
+            String sql = loadDataSql(mapping);
+            TsvRowInputStream<T> input = new TsvRowInputStream<>(mapping, rows);
+            try (Statement statement = connection.createStatement()) {
+                statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(input);
+                int affected = statement.executeUpdate(sql);
+                // LOCAL 모드에서는 중복 키/변환 오류가 경고로 바뀌고 row 가 버려지므로 건수로 확인한다
+                if (affected != input.getRowCount()) {
+                    throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(sql, (int) input.getRowCount(), affected);
+                }
+                return (long) affected;
+            }
+        });
+        return loaded != null ? loaded : fallbackWriter.insert(entityType, rows);
+    }
+
+    private static boolean isLocalInfileAllowed(Connection connection) throws SQLException {
+        if (!connection.isWrapperFor(JdbcConnection.class)) {
+            return false;
+        }
+        return connection.unwrap(JdbcConnection.class).getPropertySet()
+                .getBooleanProperty(PropertyKey.allowLoadLocalInfile).getValue();
+    }
+
+    static String loadDataSql(BulkInsertMapping<?> mapping) {
+        return "LOAD DATA LOCAL INFILE 'stream' INTO TABLE " + mapping.getTableName()
+                + " CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'"
+                + " LINES TERMINATED BY '\\n'"
+                + " (" + mapping.getColumnList() + ")";
+    }
+}
@@ -0,0 +1,129 @@
+package com.jw.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Oracle: 단건 INSERT 를 JDBC batch 로 묶어 보내는 array binding.
+ * 드라이버가 chunk 전체를 한 번의 round trip 으로 보내고 서버는 array DML 로 실행한다.
+ * <p>
+ * {@link OracleBulkInsertWriter} 가 사용하는 {@code INSERT ALL} 다중 row insert 도 제공한다.
+ */
+public class OracleBulkInsertDialect implements BulkInsertDialect, SequenceAllocator {
+
+    // 한 statement 의 bind 변수는 65,535 개를 넘을 수 없다
+    private static final int MAX_BINDS = 65_535;
+
+    @Override
+    public int insert(Connection connection, BulkInsertMapping<?> mapping, BulkInsertRows rows) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(insertSql(mapping))) {
+            for (int row = 0; row < rows.size(); row++) {
+                rows.bind(statement, 1, row);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        return rows.size();
+    }
+
+    // INSERT ALL INTO t (...) VALUES (...) INTO t (...) VALUES (...) ... SELECT 1 FROM DUAL
+    // statement 안의 nextval 은 한 번만 평가되므로 ID 는 미리 할당되어 있어야 한다
+    public <T> int insertAll(Connection connection, BulkInsertMapping<T> mapping, List<? extends T> rows) throws SQLException {
+        return insertAll(connection, mapping, BulkInsertRows.of(mapping, rows));
+    }
+
+    public int insertAll(Connection connection, BulkInsertMapping<?> mapping, BulkInsertRows rows) throws SQLException {
+        int rowsPerStatement = Math.max(1, MAX_BINDS / mapping.getColumnCount());
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+            int to = Math.min(rows.size(), from + rowsPerStatement);
+            try (PreparedStatement statement = connection.prepareStatement(insertAllSql(mapping, to - from))) {
+                int index = 1;
+                for (int row = from; row < to; row++) {
+                    index = rows.bind(statement, index, row);
+                }
+                inserted += statement.executeUpdate();
+            }
+        }
+        return inserted;
+    }
+
+    // MERGE INTO ... USING (SELECT ? ... FROM DUAL) 를 array binding 으로 실행
+    // MERGE 와 ojdbc batch 결과로는 insert/update 를 구분할 수 없으므로 보낸 row 수만 반환한다
+    @Override
+    public int upsert(Connection connection, BulkInsertMapping<?> mapping, BulkInsertRows rows) throws SQLException {
+        if (rows.size() == 0) {
+            return 0;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(mergeSql(mapping))) {
+            for (int row = 0; row < rows.size(); row++) {
+                rows.bind(statement, 1, row);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        return rows.size();
+    }
+
+    // 시퀀스 값 여러 개를 한 번의 조회로 가져온다
+    @Override
+    public long[] nextSequenceValues(Connection connection, String sequenceName, int count) throws SQLException {
+        long[] values = new long[count];
+        int fetched = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select " + sequenceName + ".nextval from dual connect by level <= ?")) {
+            while (fetched < count) {
+                statement.setInt(1, count - fetched);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next() && fetched < count) {
+                        values[fetched++] = resultSet.getLong(1);
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    static String insertSql(BulkInsertMapping<?> mapping) {
+        return mapping.getInsertPrefix() + " VALUES " + mapping.getRowPlaceholder();
+    }
+
+    static String insertAllSql(BulkInsertMapping<?> mapping, int rowCount) {
+        String into = " INTO " + mapping.getTableName() + " (" + mapping.getColumnList() + ") VALUES " + mapping.getRowPlaceholder();
+        StringBuilder sql = new StringBuilder("INSERT ALL");
+        for (int i = 0; i < rowCount; i++) {
+            sql.append(into);
+        }
+        return sql.append(" SELECT 1 FROM DUAL").toString();
+    }
+
+    static String directPathInsertSql(BulkInsertMapping<?> mapping) {
+        return "INSERT /*+ APPEND_VALUES */ INTO " + mapping.getTableName()
+                + " (" + mapping.getColumnList() + ") VALUES " + mapping.getRowPlaceholder();
+    }
+
+    // MERGE INTO t USING (SELECT ? ID, ? ... FROM DUAL) s ON (t.ID = s.ID)
+    // WHEN MATCHED THEN UPDATE SET ... WHEN NOT MATCHED THEN INSERT (...) VALUES (...)
+    static String mergeSql(BulkInsertMapping<?> mapping) {
+        List<? extends BulkInsertColumn<?>> columns = mapping.getColumns();
+        String id = mapping.getIdColumn().getName();
+        StringJoiner source = new StringJoiner(", ", "SELECT ", " FROM DUAL");
+        StringJoiner update = new StringJoiner(", ");
+        StringJoiner values = new StringJoiner(", ");
+        for (BulkInsertColumn<?> column : columns) {
+            String name = column.getName();
+            source.add("? " + name);
+            values.add("s." + name);
+            if (!name.equals(id)) {
+                update.add("t." + name + " = s." + name);
+            }
+        }
+        return "MERGE INTO " + mapping.getTableName() + " t USING (" + source + ") s ON (t." + id + " = s." + id + ")"
+                + " WHEN MATCHED THEN UPDATE SET " + update
+                + " WHEN NOT MATCHED THEN INSERT (" + mapping.getColumnList() + ") VALUES (" + values + ")";
+    }
+}
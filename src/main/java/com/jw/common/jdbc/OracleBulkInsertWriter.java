@@ -0,0 +1,109 @@
+package com.jw.common.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Oracle 전용 insert. row 수에 따라 {@link OracleInsertMode} 를 골라 적재한다.
+ * <p>
+ * {@link OracleInsertMode#DIRECT_PATH} 는 모든 row 를 한 번의 {@code executeBatch} 로 실행해 호출자 트랜잭션
+ * (oracleTransactionManager)에 참여한다. direct-path insert 한 테이블은 커밋 전까지 같은 트랜잭션에서 다시 읽거나
+ * 쓸 수 없으므로(ORA-12838) 테이블마다 트랜잭션당 한 번만, 그 테이블을 더 건드리지 않는 마지막 단계에서 사용한다.
+ * 활성화된 FK 가 있는 테이블(LOAN_SCHEDULE)은 Oracle 이 오류 없이 conventional path 로 실행하므로
+ * 어느 insert 에서든 DIRECT_PATH 대신 ARRAY_DML 을 쓴다.
+ */
+@Slf4j
+public class OracleBulkInsertWriter extends JdbcBulkInsertWriter {
+
+    private final OracleBulkInsertDialect oracleDialect;
+    private final int insertAllMaxRows;
+    private final long directPathMinRows;
+
+    public OracleBulkInsertWriter(DataSource dataSource, int batchSize, int insertAllMaxRows, long directPathMinRows) {
+        this(dataSource, new OracleBulkInsertDialect(), batchSize, insertAllMaxRows, directPathMinRows);
+    }
+
+    private OracleBulkInsertWriter(DataSource dataSource, OracleBulkInsertDialect dialect, int batchSize,
+                                   int insertAllMaxRows, long directPathMinRows) {
+        super(dataSource, dialect, batchSize);
+        this.oracleDialect = dialect;
+        this.insertAllMaxRows = insertAllMaxRows;
+        this.directPathMinRows = directPathMinRows;
+    }
+
+    // 예상 row 수로 insert 방식을 고른다
+    public <T> long insert(Class<T> entityType, Stream<? extends T> rows, long expectedRowCount) {
+        return insert(entityType, rows, OracleInsertMode.select(expectedRowCount, insertAllMaxRows, directPathMinRows));
+    }
+
+    // FK 가 있는 테이블에 DIRECT_PATH 를 지정하면 ARRAY_DML 로 실행한다
+    public <T> long insert(Class<T> entityType, Stream<? extends T> rows, OracleInsertMode mode) {
+        OracleInsertMode applied = appliedMode(entityType, mode);
+        log.debug("oracle bulk insert. table={}, mode={}", BulkInsertMapping.of(entityType).getTableName(), applied);
+        Iterator<? extends T> iterator = rows.iterator();
+        switch (applied) {
+            case INSERT_ALL:
+                return insertInChunks(entityType, iterator, getBatchSize(), oracleDialect::insertAll);
+            case DIRECT_PATH:
+                return insertDirectPath(entityType, iterator);
+            default:
+                return insert(entityType, iterator);
+        }
+    }
+
+    public OracleInsertMode selectMode(Class<?> entityType, long rowCount) {
+        return appliedMode(entityType, OracleInsertMode.select(rowCount, insertAllMaxRows, directPathMinRows));
+    }
+
+    // FK 가 있는 테이블은 direct-path 가 적용되지 않으므로 DIRECT_PATH 를 쓰지 않는다
+    public OracleInsertMode appliedMode(Class<?> entityType, OracleInsertMode mode) {
+        if (mode == OracleInsertMode.DIRECT_PATH && BulkInsertMapping.of(entityType).hasForeignKeys()) {
+            return OracleInsertMode.ARRAY_DML;
+        }
+        return mode;
+    }
+
+    // ID 는 batchSize 단위로 시퀀스에서 할당하고, row 는 한 statement 에 모아 한 번만 실행한다
+    private <T> long insertDirectPath(Class<T> entityType, Iterator<? extends T> rows) {
+        BulkInsertMapping<T> mapping = BulkInsertMapping.of(entityType);
+        int batchSize = getBatchSize();
+        Long inserted = getJdbcTemplate().execute((ConnectionCallback<Long>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(OracleBulkInsertDialect.directPathInsertSql(mapping))) {
+                List<T> chunk = new ArrayList<>(batchSize);
+                long count = 0;
+                while (rows.hasNext()) {
+                    chunk.add(rows.next());
+                    if (chunk.size() == batchSize || !rows.hasNext()) {
+                        assignSequenceIds(connection, mapping, chunk);
+                        for (T row : chunk) {
+                            mapping.bind(statement, 1, row);
+                            statement.addBatch();
+                        }
+                        count += chunk.size();
+                        chunk.clear();
+                    }
+                }
+                if (count > 0) {
+                    statement.executeBatch();
+                }
+                return count;
+            }
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    public int getInsertAllMaxRows() {
+        return insertAllMaxRows;
+    }
+
+    public long getDirectPathMinRows() {
+        return directPathMinRows;
+    }
+}
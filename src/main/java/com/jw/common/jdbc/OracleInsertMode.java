@@ -0,0 +1,25 @@
+package com.jw.common.jdbc;
+
+/**
+ * {@link OracleBulkInsertWriter} 의 insert 방식.
+ */
+public enum OracleInsertMode {
+
+    // INSERT ALL ... SELECT 1 FROM DUAL. 적은 row 를 statement 하나로 보낸다
+    INSERT_ALL,
+    // 단건 INSERT 의 JDBC batch (conventional path array DML)
+    ARRAY_DML,
+    // INSERT /*+ APPEND_VALUES */ 의 JDBC batch. HWM 위에 직접 쓰고 undo 를 거의 만들지 않는다
+    DIRECT_PATH;
+
+    // row 수가 insertAllMaxRows 이하면 INSERT_ALL, directPathMinRows 이상이면 DIRECT_PATH, 그 사이는 ARRAY_DML
+    public static OracleInsertMode select(long rowCount, int insertAllMaxRows, long directPathMinRows) {
+        if (rowCount <= insertAllMaxRows) {
+            return INSERT_ALL;
+        }
+        if (rowCount >= directPathMinRows) {
+            return DIRECT_PATH;
+        }
+        return ARRAY_DML;
+    }
+}
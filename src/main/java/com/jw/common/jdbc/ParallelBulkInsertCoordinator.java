@@ -0,0 +1,213 @@
+package com.jw.common.jdbc;
+
+import com.jw.common.datasource.WorkloadContext;
+import com.jw.common.ledger.BulkLoadLedger;
+import com.jw.common.metrics.JdbcOperationContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 대량 데이터를 partition 으로 나누어 여러 커넥션에서 동시에 insert 한다.
+ * <p>
+ * partition 마다 별도 트랜잭션으로 커밋하고, 같은 트랜잭션에서 {@link BulkLoadLedger} 에 완료를 기록한다.
+ * 같은 loadId 로 다시 호출하면 이미 커밋된 partition 은 건너뛰므로 일부 실패한 적재를 그대로 재시도할 수 있다.
+ * 다른 커넥션에서 insert 하므로 부모 row 는 호출 전에 커밋되어 있어야 한다.
+ * <p>
+ * loadId 는 호출자가 정하는 적재 ID 다. {@link #begin} 으로 부모 row 와 partition 수를 loadId 에 묶어 두면
+ * 호출자가 같은 loadId 로 재시도하거나 {@link #getParentId} 로 부모를 찾아 이어서 적재할 때 부모를 새로 만들지 않는다.
+ * 모든 partition 이 커밋된 뒤 한 번만 해야 하는 작업(감사 기록 등)은 {@link #complete} 로 원장에 함께 기록한다.
+ */
+@Slf4j
+public class ParallelBulkInsertCoordinator {
+
+    // 원장에서 partition 번호 대신 쓰는 적재 정보 (begin 에서 기록)
+    static final int PARENT_ID_ENTRY = -1;
+    static final int PARTITION_COUNT_ENTRY = -2;
+    // complete 에서 기록
+    static final int COMPLETION_ENTRY = -3;
+
+    private final JdbcBulkInsertWriter writer;
+    private final BulkLoadLedger ledger;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int maxAttempts;
+
+    public ParallelBulkInsertCoordinator(String name, DataSource dataSource, JdbcBulkInsertWriter writer,
+                                         int parallelism, int maxAttempts) {
+        this.writer = writer;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.ledger = new BulkLoadLedger(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, name + "-bulk-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 부모 row 를 insert 하고 같은 트랜잭션에서 부모 ID 와 partition 수를 원장에 기록한 뒤 부모 ID 를 반환한다.
+    // 이미 시작한 loadId 면 부모를 만들지 않고 기록된 ID 를 반환한다 (partition 수가 다르면 실패).
+    // 같은 loadId 로 동시에 시작하면 원장의 기본 키 충돌로 한쪽만 커밋된다
+    public <P> long begin(String loadId, Class<P> parentType, Supplier<? extends P> parentFactory, int partitionCount) {
+        Long parentId = transactionTemplate.execute(status -> {
+            Map<Integer, Long> positions = ledger.findPositions(loadId);
+            Long recorded = positions.get(PARENT_ID_ENTRY);
+            if (recorded != null) {
+                checkPartitionCount(loadId, positions, partitionCount);
+                return recorded;
+            }
+            P parent = parentFactory.get();
+            writer.insert(parentType, List.of(parent));
+            long id = ((Number) BulkInsertMapping.of(parentType).getId(parent)).longValue();
+            ledger.record(loadId, PARENT_ID_ENTRY, id);
+            ledger.record(loadId, PARTITION_COUNT_ENTRY, partitionCount);
+            return id;
+        });
+        return Objects.requireNonNull(parentId);
+    }
+
+    public long getParentId(String loadId) {
+        return entry(loadId, PARENT_ID_ENTRY);
+    }
+
+    public int getPartitionCount(String loadId) {
+        return (int) entry(loadId, PARTITION_COUNT_ENTRY);
+    }
+
+    // 모든 partition 이 커밋된 loadId 의 완료 작업을 호출자 트랜잭션에서 실행하고, 반환값을 같은 트랜잭션에서 원장에 기록한다.
+    // 이미 기록된 loadId 면 실행하지 않고 false 를 반환한다. 커밋 전에 실패하면 기록도 남지 않으므로 재개할 때 다시 실행된다
+    public boolean complete(String loadId, LongSupplier completion) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Bulk load completion must run in a transaction: " + loadId);
+        }
+        Map<Integer, Long> positions = ledger.findPositions(loadId);
+        if (positions.containsKey(COMPLETION_ENTRY)) {
+            return false;
+        }
+        int partitionCount = (int) entry(loadId, PARTITION_COUNT_ENTRY);
+        for (int partitionNo = 0; partitionNo < partitionCount; partitionNo++) {
+            if (!positions.containsKey(partitionNo)) {
+                throw new IllegalStateException("Bulk load not finished. loadId=" + loadId + ", partition=" + partitionNo);
+            }
+        }
+        ledger.record(loadId, COMPLETION_ENTRY, completion.getAsLong());
+        return true;
+    }
+
+    // 실패한 partition 이 있으면 maxAttempts 까지 다시 시도한다. (원장에 기록된 partition 은 건너뜀)
+    public <T> ParallelLoadResult load(String loadId, Class<T> entityType, int partitionCount,
+                                       IntFunction<? extends Stream<? extends T>> partitionSource) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(loadId, entityType, partitionCount, partitionSource);
+            } catch (BulkLoadException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.warn("retry bulk load. loadId={}, attempt={}, failedPartitions={}",
+                        loadId, attempt, e.getResult().getFailedPartitions());
+            }
+        }
+    }
+
+    private <T> ParallelLoadResult attempt(String loadId, Class<T> entityType, int partitionCount,
+                                           IntFunction<? extends Stream<? extends T>> partitionSource) {
+        long start = System.currentTimeMillis();
+        Map<Integer, Long> positions = ledger.findPositions(loadId);
+        checkPartitionCount(loadId, positions, partitionCount);
+        Set<Integer> committed = positions.keySet();
+
+        List<Integer> skippedPartitions = new ArrayList<>();
+        Map<Integer, Future<Long>> futures = new LinkedHashMap<>();
+        for (int partitionNo = 0; partitionNo < partitionCount; partitionNo++) {
+            if (committed.contains(partitionNo)) {
+                skippedPartitions.add(partitionNo);
+                continue;
+            }
+            int target = partitionNo;
+            futures.put(partitionNo, executor.submit(WorkloadContext.propagate(JdbcOperationContext.propagate(
+                    () -> loadPartition(loadId, entityType, target, partitionSource)))));
+        }
+
+        List<Integer> committedPartitions = new ArrayList<>();
+        List<Integer> failedPartitions = new ArrayList<>();
+        long insertedRows = 0;
+        Throwable failure = null;
+        for (Map.Entry<Integer, Future<Long>> entry : futures.entrySet()) {
+            try {
+                insertedRows += entry.getValue().get();
+                committedPartitions.add(entry.getKey());
+            } catch (ExecutionException e) {
+                failedPartitions.add(entry.getKey());
+                failure = failure == null ? e.getCause() : failure;
+                log.warn("bulk load partition failed. loadId={}, partition={}", loadId, entry.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedPartitions.add(entry.getKey());
+                failure = failure == null ? e : failure;
+            }
+        }
+
+        ParallelLoadResult result = new ParallelLoadResult(loadId, partitionCount, committedPartitions,
+                skippedPartitions, failedPartitions, insertedRows, System.currentTimeMillis() - start);
+        log.info("bulk load finished. {}", result);
+        if (!result.isCompleted()) {
+            throw new BulkLoadException(result, failure);
+        }
+        return result;
+    }
+
+    private <T> long loadPartition(String loadId, Class<T> entityType, int partitionNo,
+                                   IntFunction<? extends Stream<? extends T>> partitionSource) {
+        Long inserted = transactionTemplate.execute(status -> {
+            long rows;
+            try (Stream<? extends T> partition = partitionSource.apply(partitionNo)) {
+                rows = writer.insert(entityType, partition);
+            }
+            ledger.record(loadId, partitionNo, rows);
+            return rows;
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    // partition 경계는 partition 수로 정해지므로 다른 수로 이어서 적재하면 구간이 어긋난다
+    private static void checkPartitionCount(String loadId, Map<Integer, Long> positions, int partitionCount) {
+        Long recorded = positions.get(PARTITION_COUNT_ENTRY);
+        if (recorded != null && recorded != partitionCount) {
+            throw new IllegalStateException("Partition count mismatch. loadId=" + loadId
+                    + ", recorded=" + recorded + ", requested=" + partitionCount);
+        }
+    }
+
+    private long entry(String loadId, int entry) {
+        Long position = ledger.findPositions(loadId).get(entry);
+        if (position == null) {
+            throw new IllegalArgumentException("Bulk load not started: " + loadId);
+        }
+        return position;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
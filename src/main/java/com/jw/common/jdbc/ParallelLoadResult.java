@@ -0,0 +1,26 @@
+package com.jw.common.jdbc;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class ParallelLoadResult {
+    private final String loadId;
+    private final int partitionCount;
+    // 이번 호출에서 커밋된 partition
+    private final List<Integer> committedPartitions;
+    // 이전 호출에서 이미 커밋되어 건너뛴 partition
+    private final List<Integer> skippedPartitions;
+    private final List<Integer> failedPartitions;
+    private final long insertedRows;
+    private final long elapsedMillis;
+
+    public boolean isCompleted() {
+        return failedPartitions.isEmpty();
+    }
+}
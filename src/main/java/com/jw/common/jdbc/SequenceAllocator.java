@@ -0,0 +1,14 @@
+package com.jw.common.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 시퀀스 값 여러 개를 한 번의 조회로 가져온다. 시퀀스가 있는 DB 의 {@link BulkInsertDialect} 만 구현한다.
+ * {@link JdbcBulkInsertWriter} 는 ID 가 없는 row 를 만나면 이 인터페이스로 chunk 단위 ID 를 받는다.
+ */
+public interface SequenceAllocator {
+
+    long[] nextSequenceValues(Connection connection, String sequenceName, int count) throws SQLException;
+
+}
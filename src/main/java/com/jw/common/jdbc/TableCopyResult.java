@@ -0,0 +1,29 @@
+package com.jw.common.jdbc;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class TableCopyResult {
+    private final String copyId;
+    private final String tableName;
+    private final int partitionCount;
+    // 이전 호출에서 이미 복사가 끝났거나 복사할 ID 구간이 비어 있어 건너뛴 partition
+    private final List<Integer> skippedPartitions;
+    private final List<Integer> failedPartitions;
+    private final long copiedRows;
+    private final long elapsedMillis;
+    // reader 들이 큐가 가득 차 기다린 시간의 합. 크면 쓰기가 병목
+    private final long readerBlockedMillis;
+    // writer 들이 큐가 비어 기다린 시간의 합. 크면 읽기가 병목
+    private final long writerIdleMillis;
+
+    public long getRowsPerSecond() {
+        return copiedRows * 1000 / Math.max(1, elapsedMillis);
+    }
+}
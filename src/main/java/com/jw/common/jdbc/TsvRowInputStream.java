@@ -0,0 +1,118 @@
+package com.jw.common.jdbc;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 엔티티를 읽는 만큼만 LOAD DATA 형식의 TSV 로 직렬화하는 InputStream.
+ * (FIELDS TERMINATED BY '\t' ESCAPED BY '\\' LINES TERMINATED BY '\n', null 은 \N)
+ */
+class TsvRowInputStream<T> extends InputStream {
+
+    private static final int BUFFER_ROWS = 512;
+
+    private final Iterator<? extends T> rows;
+    private final List<BulkInsertColumn<T>> columns;
+    private final StringBuilder text = new StringBuilder();
+
+    private byte[] buffer = new byte[0];
+    private int position;
+    private long rowCount;
+
+    TsvRowInputStream(BulkInsertMapping<T> mapping, Iterator<? extends T> rows) {
+        this.rows = rows;
+        this.columns = mapping.getColumns();
+    }
+
+    long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int read() {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, buffer.length - position);
+        System.arraycopy(buffer, position, target, offset, count);
+        position += count;
+        return count;
+    }
+
+    private boolean fill() {
+        if (position < buffer.length) {
+            return true;
+        }
+        text.setLength(0);
+        for (int i = 0; i < BUFFER_ROWS && rows.hasNext(); i++) {
+            appendRow(rows.next());
+        }
+        buffer = text.toString().getBytes(StandardCharsets.UTF_8);
+        position = 0;
+        return buffer.length > 0;
+    }
+
+    private void appendRow(T row) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                text.append('\t');
+            }
+            appendValue(columns.get(i).extract(row));
+        }
+        text.append('\n');
+        rowCount++;
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            text.append("\\N");
+        } else if (value instanceof BigDecimal) {
+            text.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Boolean) {
+            text.append((Boolean) value ? '1' : '0');
+        } else if (value instanceof Number) {
+            text.append(value);
+        } else {
+            appendEscaped(value.toString());
+        }
+    }
+
+    private void appendEscaped(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    text.append("\\\\");
+                    break;
+                case '\t':
+                    text.append("\\t");
+                    break;
+                case '\n':
+                    text.append("\\n");
+                    break;
+                case '\r':
+                    text.append("\\r");
+                    break;
+                case '\0':
+                    text.append("\\0");
+                    break;
+                default:
+                    text.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.jw.common.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class JournalRecord {
+    // 1 부터 1씩 증가하는 기록 번호
+    private final long lsn;
+    private final byte[] payload;
+}
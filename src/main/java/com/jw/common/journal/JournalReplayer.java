@@ -0,0 +1,250 @@
+package com.jw.common.journal;
+
+import com.jw.common.ledger.BulkLoadLedger;
+import com.jw.common.ledger.BulkLoadRejectLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link WriteAheadJournal} 의 record 를 batchSize 건씩 DB 에 반영한다.
+ * <p>
+ * sink 호출과 마지막 LSN 기록({@link BulkLoadLedger}, partition 0)을 한 트랜잭션으로 커밋하므로
+ * 재시작하면 커밋된 LSN 다음부터 이어서 반영하고, 같은 record 를 두 번 반영하지 않는다. 반영이 끝난 segment 는 지운다.
+ * <p>
+ * 실패는 두 가지로 나눈다.
+ * <ul>
+ *     <li>일시적 실패 (연결 끊김, lock timeout 등 {@link #isTransient}) : retryDelayMillis 부터 두 배씩 늘려 maxRetries 번까지 다시 시도</li>
+ *     <li>영구적 실패 (decode 실패, 제약 위반 등) : 묶음을 한 건씩 다시 반영하고, 실패한 record 는 payload 와 함께
+ *     {@link BulkLoadRejectLog} 에 dead letter 로 남기고 다음 record 로 넘어간다. ({@code journal.replay.dead-letters} 지표)</li>
+ * </ul>
+ * 재시도를 다 써도 실패하거나 저널을 읽지 못하면 반영을 멈추지 않고 잠시 뒤 마지막으로 커밋된 LSN 부터 다시 시작한다.
+ * 그동안 {@link #isHealthy()} 는 false 이고 {@link #getLastFailure()} 로 원인을 볼 수 있다.
+ */
+@Slf4j
+public class JournalReplayer<C> implements AutoCloseable {
+
+    private static final int LEDGER_PARTITION = 0;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private final String loadId;
+    private final WriteAheadJournal journal;
+    private final Function<byte[], ? extends C> decoder;
+    private final Consumer<List<C>> sink;
+    private final BulkLoadLedger ledger;
+    private final BulkLoadRejectLog deadLetters;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long idleMillis;
+    private final long retryDelayMillis;
+    private final int maxRetries;
+    private final Counter deadLetterCounter;
+    private final Thread worker;
+
+    private volatile boolean running = true;
+    private volatile long replayedLsn;
+    private volatile Exception lastFailure;
+
+    public JournalReplayer(String name, WriteAheadJournal journal, Function<byte[], ? extends C> decoder,
+                           Consumer<List<C>> sink, DataSource ledgerDataSource,
+                           PlatformTransactionManager transactionManager, int batchSize, long idleMillis,
+                           long retryDelayMillis, int maxRetries, MeterRegistry meterRegistry) {
+        this.loadId = "JOURNAL:" + name;
+        this.journal = journal;
+        this.decoder = decoder;
+        this.sink = sink;
+        this.ledger = new BulkLoadLedger(ledgerDataSource);
+        this.deadLetters = new BulkLoadRejectLog(ledgerDataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.idleMillis = idleMillis;
+        this.retryDelayMillis = retryDelayMillis;
+        this.maxRetries = maxRetries;
+        this.deadLetterCounter = Counter.builder("journal.replay.dead-letters")
+                .tag("journal", name)
+                .register(meterRegistry);
+        this.replayedLsn = ledger.findPositions(loadId).getOrDefault(LEDGER_PARTITION, 0L);
+        if (replayedLsn > journal.getDurableLsn()) {
+            throw new IllegalStateException("Journal is behind replayed lsn: " + loadId
+                    + " (replayed=" + replayedLsn + ", durable=" + journal.getDurableLsn() + ")");
+        }
+        this.worker = new Thread(this::run, name + "-journal-replay");
+        this.worker.setDaemon(true);
+    }
+
+    // 반영 스레드를 시작한다
+    public void start() {
+        worker.start();
+    }
+
+    public long getReplayedLsn() {
+        return replayedLsn;
+    }
+
+    // 저널에는 있지만 아직 DB 에 반영되지 않은 record 수
+    public long getLag() {
+        return journal.getDurableLsn() - replayedLsn;
+    }
+
+    public long getDeadLetterCount() {
+        return (long) deadLetterCounter.count();
+    }
+
+    // 마지막 반영이 성공했거나 아직 실패가 없으면 true
+    public boolean isHealthy() {
+        return lastFailure == null;
+    }
+
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    // 반영 중인 묶음까지 커밋하고 멈춘다. 남은 record 는 다음 시작 때 반영한다
+    @Override
+    public void close() {
+        running = false;
+        try {
+            if (worker.isAlive()) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 연결이나 lock 처럼 다시 시도하면 성공할 수 있는 실패
+    static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void run() {
+        long backoffMillis = retryDelayMillis;
+        while (running) {
+            try (WriteAheadJournal.Reader reader = journal.openReader(replayedLsn)) {
+                while (running) {
+                    List<JournalRecord> records = reader.read(batchSize);
+                    if (records.isEmpty()) {
+                        Thread.sleep(idleMillis);
+                        continue;
+                    }
+                    replay(records);
+                    lastFailure = null;
+                    backoffMillis = retryDelayMillis;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                lastFailure = e;
+                log.error("journal replay failed, restarting in {} ms. loadId={}, replayedLsn={}",
+                        backoffMillis, loadId, replayedLsn, e);
+                if (!pause(backoffMillis)) {
+                    return;
+                }
+                backoffMillis = Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+            }
+        }
+    }
+
+    private void replay(List<JournalRecord> records) throws IOException {
+        long lastLsn = records.get(records.size() - 1).getLsn();
+        try {
+            List<C> commands = new ArrayList<>(records.size());
+            records.forEach(record -> commands.add(decoder.apply(record.getPayload())));
+            commit(records.get(0).getLsn(), lastLsn, () -> sink.accept(commands));
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            // 어느 record 가 원인인지 모르므로 한 건씩 반영해 실패한 record 만 dead letter 로 보낸다
+            log.warn("journal replay failed permanently, replaying one by one. loadId={}, lsn={}~{}",
+                    loadId, records.get(0).getLsn(), lastLsn, e);
+            for (JournalRecord record : records) {
+                replayOne(record);
+            }
+        }
+        journal.deleteSegmentsUpTo(lastLsn);
+    }
+
+    private void replayOne(JournalRecord record) {
+        try {
+            C command = decoder.apply(record.getPayload());
+            commit(record.getLsn(), record.getLsn(), () -> sink.accept(Collections.singletonList(command)));
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            String message = NestedExceptionUtils.getMostSpecificCause(e).toString();
+            commit(record.getLsn(), record.getLsn(),
+                    () -> deadLetters.record(loadId, record.getLsn(), message, record.getPayload()));
+            deadLetterCounter.increment();
+            log.error("journal record moved to dead letter. loadId={}, lsn={}", loadId, record.getLsn(), e);
+        }
+    }
+
+    // work 와 LSN 기록을 한 트랜잭션으로 커밋한다. 일시적 실패만 maxRetries 번까지 다시 시도
+    private void commit(long fromLsn, long toLsn, Runnable work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    work.run();
+                    ledger.record(loadId, LEDGER_PARTITION, toLsn);
+                });
+                replayedLsn = toLsn;
+                return;
+            } catch (RuntimeException e) {
+                if (!isTransient(e) || attempt > maxRetries || !running) {
+                    throw e;
+                }
+                long delayMillis = Math.min(MAX_BACKOFF_MILLIS, retryDelayMillis << Math.min(attempt - 1, 20));
+                log.warn("journal replay failed. loadId={}, lsn={}~{}, attempt={}, retrying in {} ms",
+                        loadId, fromLsn, toLsn, attempt, delayMillis, e);
+                if (!pause(delayMillis)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // close 되면 바로 깨어나도록 idleMillis 단위로 나누어 기다린다. 멈춰야 하면 false
+    private boolean pause(long millis) {
+        long deadline = System.currentTimeMillis() + millis;
+        try {
+            while (running) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return true;
+                }
+                Thread.sleep(Math.min(remaining, Math.max(1, idleMillis)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,339 @@
+package com.jw.common.journal;
+
+import com.jw.common.ingest.GroupCommitQueue;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 로컬 디스크의 append-only 저널. DB 가 느려져도 요청은 저널에 기록되면 바로 응답하고,
+ * DB 반영은 {@link JournalReplayer} 가 따로 한다.
+ * <p>
+ * 기록은 {@link GroupCommitQueue} 로 모아 한 번의 write 와 fsync 로 내려쓰고, fsync 가 끝나면 LSN 으로 future 를 완료한다.
+ * 파일은 segmentSize 를 넘으면 새 segment({첫 LSN}.log) 로 넘어가고, 새 파일의 디렉터리 항목도 fsync 한다.
+ * 새 segment 를 만들지 못하면 이미 fsync 한 기록은 그대로 완료하고, 현재 segment 에 이어 쓰며 다음 기록 뒤에 다시 시도한다.
+ * record 형식은 [길이 4][LSN 8][CRC32 4][payload] 이고, 열 때 마지막 segment 의 깨진 꼬리(쓰다 만 record)를 잘라낸다.
+ */
+@Slf4j
+public class WriteAheadJournal implements AutoCloseable {
+
+    static final String SEGMENT_SUFFIX = ".log";
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final long segmentSize;
+    // 첫 LSN → segment 파일. 마지막 segment 에 기록한다
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final GroupCommitQueue<byte[], Long> queue;
+
+    // 아래는 group commit 스레드만 변경한다 (생성 시 복구 제외)
+    private FileChannel activeSegment;
+    private long nextLsn;
+
+    // fsync 까지 끝난 마지막 LSN. 이 값 이하의 record 만 읽을 수 있다
+    private volatile long durableLsn;
+
+    public WriteAheadJournal(String name, Path directory, long segmentSize, int capacity, int maxBatchSize,
+                             long maxLatencyMillis, long enqueueTimeoutMillis) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        recover();
+        this.queue = new GroupCommitQueue<>(name + "-journal", capacity, maxBatchSize, maxLatencyMillis,
+                enqueueTimeoutMillis, this::write, payload -> write(List.of(payload)).get(0));
+    }
+
+    // 기록 스레드를 시작한다. 그 전의 append 는 실패로 완료된다
+    public void start() {
+        queue.start();
+    }
+
+    // fsync 가 끝나면 LSN 으로 완료된다. 큐가 가득 차면 enqueueTimeoutMillis 동안 막힌 뒤 RejectedExecutionException 으로 완료
+    public CompletableFuture<Long> append(byte[] payload) {
+        return queue.submit(payload);
+    }
+
+    public long getDurableLsn() {
+        return durableLsn;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    // afterLsn 다음 record 부터 읽는 reader (한 스레드에서만 사용)
+    public Reader openReader(long afterLsn) {
+        return new Reader(afterLsn + 1);
+    }
+
+    // compaction: 모든 record 가 lsn 이하인 segment 를 지운다. 기록 중인 마지막 segment 는 남긴다
+    public int deleteSegmentsUpTo(long lsn) throws IOException {
+        int deleted = 0;
+        Iterator<Map.Entry<Long, Path>> iterator = segments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Path> entry = iterator.next();
+            Long nextFirstLsn = segments.higherKey(entry.getKey());
+            if (nextFirstLsn == null || nextFirstLsn > lsn + 1) {
+                break;
+            }
+            iterator.remove();
+            Files.deleteIfExists(entry.getValue());
+            deleted++;
+        }
+        return deleted;
+    }
+
+    // 이미 받은 기록은 모두 fsync 한 뒤 닫는다
+    @Override
+    public void close() throws IOException {
+        queue.close();
+        activeSegment.close();
+    }
+
+    private List<Long> write(List<byte[]> payloads) {
+        long rollbackPosition = -1;
+        try {
+            rollbackPosition = activeSegment.position();
+            int size = 0;
+            for (byte[] payload : payloads) {
+                size += HEADER_SIZE + payload.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            List<Long> lsns = new ArrayList<>(payloads.size());
+            long lsn = nextLsn;
+            for (byte[] payload : payloads) {
+                buffer.putInt(payload.length).putLong(lsn).putInt(checksum(lsn, payload)).put(payload);
+                lsns.add(lsn++);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                activeSegment.write(buffer);
+            }
+            activeSegment.force(false);
+            nextLsn = lsn;
+            durableLsn = lsn - 1;
+            rollIfFull();
+            return lsns;
+        } catch (IOException e) {
+            // 쓰다 만 record 를 지워 group commit 큐가 한 건씩 다시 쓸 수 있게 한다
+            truncate(rollbackPosition);
+            throw new UncheckedIOException("Cannot write journal: " + directory, e);
+        }
+    }
+
+    // fsync 가 끝난 뒤라 실패해도 기록은 완료한다. 현재 segment 에 이어 쓰고 다음 기록 뒤에 다시 시도
+    private void rollIfFull() {
+        try {
+            if (activeSegment.position() >= segmentSize) {
+                roll();
+            }
+        } catch (IOException e) {
+            log.warn("cannot roll journal segment, keep writing to the current one. directory={}, nextLsn={}",
+                    directory, nextLsn, e);
+        }
+    }
+
+    private void truncate(long position) {
+        if (position < 0) {
+            return;
+        }
+        try {
+            activeSegment.truncate(position);
+            activeSegment.position(position);
+        } catch (IOException e) {
+            log.error("cannot truncate journal segment. directory={}, position={}", directory, position, e);
+        }
+    }
+
+    // 새 segment 를 연 뒤에 이전 segment 를 닫는다 (모두 fsync 된 상태라 닫기 실패는 기록에 영향이 없다)
+    private void roll() throws IOException {
+        FileChannel previous = activeSegment;
+        activeSegment = openSegment(nextLsn);
+        try {
+            previous.close();
+        } catch (IOException e) {
+            log.warn("cannot close journal segment. directory={}", directory, e);
+        }
+    }
+
+    private FileChannel openSegment(long firstLsn) throws IOException {
+        Path file = directory.resolve(String.format("%020d", firstLsn) + SEGMENT_SUFFIX);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ);
+        try {
+            syncDirectory();
+        } catch (IOException e) {
+            // 남겨 두면 다음 segment 와 LSN 구간이 겹치므로 지운다
+            channel.close();
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        segments.put(firstLsn, file);
+        return channel;
+    }
+
+    // 파일 내용의 fsync 만으로는 새 파일의 디렉터리 항목이 남지 않으므로 디렉터리도 fsync 한다 (Windows 는 디렉터리를 열 수 없어 생략)
+    private void syncDirectory() throws IOException {
+        if (File.separatorChar == '\\') {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    // 마지막 segment 를 끝까지 검사해 깨진 꼬리를 잘라내고 다음 LSN 을 정한다
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(file -> segments.put(firstLsn(file), file));
+        }
+        if (segments.isEmpty()) {
+            nextLsn = 1;
+            activeSegment = openSegment(nextLsn);
+        } else {
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            activeSegment = FileChannel.open(last.getValue(), StandardOpenOption.WRITE, StandardOpenOption.READ);
+            long[] end = scan(activeSegment, last.getKey());
+            if (end[0] < activeSegment.size()) {
+                log.warn("truncate torn journal tail. file={}, validBytes={}, size={}",
+                        last.getValue(), end[0], activeSegment.size());
+                activeSegment.truncate(end[0]);
+            }
+            activeSegment.position(end[0]);
+            nextLsn = end[1];
+        }
+        durableLsn = nextLsn - 1;
+    }
+
+    // 올바른 record 가 끝나는 위치와 다음 LSN
+    private static long[] scan(FileChannel channel, long firstLsn) throws IOException {
+        long position = 0;
+        long expectedLsn = firstLsn;
+        while (true) {
+            JournalRecord record = readRecord(channel, position, expectedLsn);
+            if (record == null) {
+                return new long[]{position, expectedLsn};
+            }
+            position += HEADER_SIZE + record.getPayload().length;
+            expectedLsn++;
+        }
+    }
+
+    // position 의 record 가 expectedLsn 이고 checksum 이 맞으면 반환, 아니면 null
+    private static JournalRecord readRecord(FileChannel channel, long position, long expectedLsn) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (!readFully(channel, header, position)) {
+            return null;
+        }
+        header.flip();
+        int length = header.getInt();
+        long lsn = header.getLong();
+        int checksum = header.getInt();
+        if (length < 0 || lsn != expectedLsn || position + HEADER_SIZE + length > channel.size()) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        if (!readFully(channel, payload, position + HEADER_SIZE) || checksum(lsn, payload.array()) != checksum) {
+            return null;
+        }
+        return new JournalRecord(lsn, payload.array());
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int checksum(long lsn, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(lsn).array());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static long firstLsn(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * durable 한 record 를 LSN 순서로 읽는다. segment 가 바뀌면 다음 segment 로 넘어간다.
+     */
+    public class Reader implements AutoCloseable {
+
+        private long nextLsn;
+        private FileChannel channel;
+        private long position;
+
+        private Reader(long nextLsn) {
+            this.nextLsn = nextLsn;
+        }
+
+        public List<JournalRecord> read(int maxRecords) throws IOException {
+            List<JournalRecord> records = new ArrayList<>();
+            while (records.size() < maxRecords && nextLsn <= durableLsn) {
+                if (channel == null) {
+                    open();
+                }
+                JournalRecord record = readRecord(channel, position, nextLsn);
+                if (record == null) {
+                    // 현재 segment 를 다 읽었으면 nextLsn 으로 시작하는 segment 로 넘어간다
+                    if (!segments.containsKey(nextLsn)) {
+                        throw new IllegalStateException("Journal record not found: lsn=" + nextLsn + ", directory=" + directory);
+                    }
+                    close();
+                    continue;
+                }
+                records.add(record);
+                position += HEADER_SIZE + record.getPayload().length;
+                nextLsn++;
+            }
+            return records;
+        }
+
+        // nextLsn 을 담은 segment 를 열고 그 앞 record 들은 건너뛴다
+        private void open() throws IOException {
+            Map.Entry<Long, Path> segment = segments.floorEntry(nextLsn);
+            if (segment == null) {
+                throw new IllegalStateException("Journal segment not found: lsn=" + nextLsn + ", directory=" + directory);
+            }
+            channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ);
+            position = 0;
+            for (long lsn = segment.getKey(); lsn < nextLsn; lsn++) {
+                JournalRecord record = readRecord(channel, position, lsn);
+                if (record == null) {
+                    throw new IllegalStateException("Journal record not found: lsn=" + lsn + ", file=" + segment.getValue());
+                }
+                position += HEADER_SIZE + record.getPayload().length;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+}
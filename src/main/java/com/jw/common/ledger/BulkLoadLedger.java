@@ -0,0 +1,51 @@
+package com.jw.common.ledger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 대량 적재 작업의 partition 별 진행 위치를 기록하는 원장. (BULK_LOAD_LEDGER)
+ * <p>
+ * 적재 데이터와 같은 트랜잭션에서 {@link #record} 해야 "데이터는 커밋됐는데 기록은 없는" 상태가 생기지 않는다.
+ * position 의 의미는 작업마다 다르다. (적재한 row 수, 마지막으로 복사한 키, 파일 offset 등)
+ */
+public class BulkLoadLedger {
+
+    public static final String TABLE_NAME = "BULK_LOAD_LEDGER";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkLoadLedger(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public Map<Integer, Long> findPositions(String loadId) {
+        Map<Integer, Long> positions = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT PARTITION_NO, POSITION FROM " + TABLE_NAME + " WHERE LOAD_ID = ?",
+                rs -> {
+                    positions.put(rs.getInt(1), rs.getLong(2));
+                },
+                loadId);
+        return positions;
+    }
+
+    // 같은 partition 은 한 스레드만 기록하므로 update → insert 로 충분하다
+    public void record(String loadId, int partitionNo, long position) {
+        int updated = jdbcTemplate.update(
+                "UPDATE " + TABLE_NAME + " SET POSITION = ?, UPDATED_AT = CURRENT_TIMESTAMP WHERE LOAD_ID = ? AND PARTITION_NO = ?",
+                position, loadId, partitionNo);
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO " + TABLE_NAME + " (LOAD_ID, PARTITION_NO, POSITION, UPDATED_AT) VALUES (?, ?, ?, CURRENT_TIMESTAMP)",
+                    loadId, partitionNo, position);
+        }
+    }
+
+    public void delete(String loadId) {
+        jdbcTemplate.update("DELETE FROM " + TABLE_NAME + " WHERE LOAD_ID = ?", loadId);
+    }
+}
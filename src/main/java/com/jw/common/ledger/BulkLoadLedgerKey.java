@@ -0,0 +1,18 @@
+package com.jw.common.ledger;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+public class BulkLoadLedgerKey implements Serializable {
+    private String loadId;
+    private int partitionNo;
+}
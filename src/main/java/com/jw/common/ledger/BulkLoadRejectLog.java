@@ -0,0 +1,44 @@
+package com.jw.common.ledger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * 대량 적재에서 변환하거나 반영하지 못해 건너뛴 레코드(dead letter)를 기록한다. (BULK_LOAD_REJECT)
+ * <p>
+ * {@link BulkLoadLedger} 의 진행 위치와 같은 트랜잭션에서 기록하므로 이어서 적재해도 같은 레코드가 두 번 기록되지 않는다.
+ * position 은 작업마다 다르다. (CSV 파일 offset, 저널 LSN 등) 원본이 지워지는 작업은 payload 도 함께 남긴다.
+ */
+public class BulkLoadRejectLog {
+
+    public static final String TABLE_NAME = "BULK_LOAD_REJECT";
+    public static final int MAX_MESSAGE_LENGTH = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkLoadRejectLog(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void record(String loadId, long position, String message) {
+        record(loadId, position, message, null);
+    }
+
+    public void record(String loadId, long position, String message, byte[] payload) {
+        String trimmed = message == null || message.length() <= MAX_MESSAGE_LENGTH
+                ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+        jdbcTemplate.update(
+                "INSERT INTO " + TABLE_NAME + " (LOAD_ID, POSITION, MESSAGE, PAYLOAD, CREATED_AT) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                loadId, position, trimmed, payload);
+    }
+
+    public long count(String loadId) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE_NAME + " WHERE LOAD_ID = ?", Long.class, loadId);
+        return count != null ? count : 0;
+    }
+
+    public void delete(String loadId) {
+        jdbcTemplate.update("DELETE FROM " + TABLE_NAME + " WHERE LOAD_ID = ?", loadId);
+    }
+}
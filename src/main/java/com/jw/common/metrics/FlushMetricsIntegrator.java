@@ -0,0 +1,51 @@
+package com.jw.common.metrics;
+
+import org.hibernate.HibernateException;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * 기본 flush listener 앞뒤에 listener 를 등록해 flush 한 번에 실행된 statement 수를 {@link JdbcMetricsListener} 에 알린다.
+ * <p>
+ * {@code hibernate.integrator_provider} 로 persistence unit 마다 등록한다.
+ */
+public class FlushMetricsIntegrator implements Integrator {
+
+    private final JdbcMetricsListener jdbcMetricsListener;
+
+    public FlushMetricsIntegrator(JdbcMetricsListener jdbcMetricsListener) {
+        this.jdbcMetricsListener = jdbcMetricsListener;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        registry.prependListeners(EventType.FLUSH, new FlushStartListener());
+        registry.appendListeners(EventType.FLUSH, new FlushEndListener());
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    private class FlushStartListener implements FlushEventListener {
+        @Override
+        public void onFlush(FlushEvent event) throws HibernateException {
+            jdbcMetricsListener.flushStarted();
+        }
+    }
+
+    private class FlushEndListener implements FlushEventListener {
+        @Override
+        public void onFlush(FlushEvent event) throws HibernateException {
+            jdbcMetricsListener.flushEnded();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.jw.common.metrics;
+
+import com.mysql.cj.jdbc.JdbcConnection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * datasource-proxy 실행 정보를 data source / 테이블 단위 Micrometer 지표로 기록한다.
+ * <ul>
+ *     <li>{@code jdbc.statement.execution} : statement 실행 시간. {@code mode} 태그로 단건 / batch / MySQL 재작성 batch 구분</li>
+ *     <li>{@code jdbc.batch.size} : executeBatch 한 번에 묶인 row 수</li>
+ *     <li>{@code jdbc.rows} : insert/update/delete 로 보낸 row 수 (rate 로 보면 rows/sec)</li>
+ *     <li>{@code jdbc.flush.statements} : Hibernate flush 한 번에 실행된 statement 수 ({@link FlushMetricsIntegrator})</li>
+ * </ul>
+ * 모든 지표에 {@link JdbcOperation} 의 {@code operation} 태그가 붙는다.
+ * <p>
+ * proxy 는 드라이버가 재작성하기 전의 SQL 만 보므로 재작성 여부는 executeBatch 결과로 판단한다.
+ * MySQL 드라이버는 batch 를 multi-row VALUES insert 로 재작성하면 row 별 update count 대신
+ * {@link Statement#SUCCESS_NO_INFO} 를 돌려준다. update/delete batch 를 multi-statement 로 묶어 보낸 경우는
+ * 실제 update count 를 돌려주므로 구분할 수 없어 {@code batch} 로 기록된다.
+ */
+@Slf4j
+public class JdbcMetricsListener implements QueryExecutionListener {
+
+    static final String MODE_SINGLE = "single";
+    static final String MODE_BATCH = "batch";
+    static final String MODE_REWRITTEN = "batch-rewritten";
+
+    private static final Pattern TABLE_PATTERN = Pattern.compile(
+            "^\\s*(?:insert\\s+(?:/\\*.*?\\*/\\s*)?(?:all\\s+)?into|update|delete\\s+from|merge\\s+into|select\\s.+?\\sfrom)\\s+([\\w.$\"`]+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final double[] BATCH_SIZE_SLO = {1, 10, 50, 100, 500, 1000, 5000};
+
+    // DataSource 보다 MeterRegistry 가 늦게 만들어질 수 있으므로 첫 기록 시점에 가져온다
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private volatile MeterRegistry meterRegistry;
+    // data source 별 MySQL 여부 (Oracle 구버전 드라이버도 batch 결과로 SUCCESS_NO_INFO 를 돌려주므로 MySQL 만 본다)
+    private final Map<String, Boolean> mysqlDataSources = new ConcurrentHashMap<>();
+    // flush 중일 때만 data source 별 statement 수를 센다
+    private final ThreadLocal<Map<String, int[]>> flushStatements = new ThreadLocal<>();
+
+    public JdbcMetricsListener(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        MeterRegistry meterRegistry = meterRegistry();
+        String dataSource = execInfo.getDataSourceName();
+        String operation = JdbcOperationContext.current();
+        String sql = queryInfoList.get(0).getQuery();
+        String table = tableName(sql);
+        String type = QueryUtils.getQueryType(sql).name().toLowerCase(Locale.ROOT);
+        String mode = execInfo.isBatch()
+                ? (isMysql(dataSource, execInfo) && isRewritten(execInfo.getResult()) ? MODE_REWRITTEN : MODE_BATCH)
+                : MODE_SINGLE;
+
+        Timer.builder("jdbc.statement.execution")
+                .description("JDBC statement execution time")
+                .tags("datasource", dataSource, "table", table, "type", type, "mode", mode,
+                        "success", String.valueOf(execInfo.isSuccess()), "operation", operation)
+                .register(meterRegistry)
+                .record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+
+        if (execInfo.isBatch()) {
+            DistributionSummary.builder("jdbc.batch.size")
+                    .description("Rows per JDBC executeBatch")
+                    .serviceLevelObjectives(BATCH_SIZE_SLO)
+                    .tags("datasource", dataSource, "table", table, "operation", operation)
+                    .register(meterRegistry)
+                    .record(execInfo.getBatchSize());
+        }
+
+        long rows = rowCount(execInfo, queryInfoList);
+        if (rows > 0 && QueryUtils.getQueryType(sql) != QueryType.SELECT) {
+            Counter.builder("jdbc.rows")
+                    .description("Rows sent by insert/update/delete statements")
+                    .tags("datasource", dataSource, "table", table, "type", type, "operation", operation)
+                    .register(meterRegistry)
+                    .increment(rows);
+        }
+
+        Map<String, int[]> flushCounts = flushStatements.get();
+        if (flushCounts != null) {
+            flushCounts.computeIfAbsent(dataSource, key -> new int[1])[0]++;
+        }
+    }
+
+    void flushStarted() {
+        flushStatements.set(new HashMap<>());
+    }
+
+    void flushEnded() {
+        Map<String, int[]> flushCounts = flushStatements.get();
+        flushStatements.remove();
+        if (flushCounts == null) {
+            return;
+        }
+        MeterRegistry meterRegistry = meterRegistry();
+        String operation = JdbcOperationContext.current();
+        flushCounts.forEach((dataSource, count) -> DistributionSummary.builder("jdbc.flush.statements")
+                .description("JDBC statements executed by one Hibernate flush")
+                .tags("datasource", dataSource, "operation", operation)
+                .register(meterRegistry)
+                .record(count[0]));
+    }
+
+    private MeterRegistry meterRegistry() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            registry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+            meterRegistry = registry;
+        }
+        return registry;
+    }
+
+    // batch 는 addBatch 횟수, 단건은 드라이버가 돌려준 update count (multi-row VALUES 포함)
+    private static long rowCount(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.isBatch()) {
+            long rows = 0;
+            for (QueryInfo queryInfo : queryInfoList) {
+                rows += Math.max(1, queryInfo.getParametersList().size());
+            }
+            return rows;
+        }
+        Object result = execInfo.getResult();
+        return result instanceof Integer ? (Integer) result : 0;
+    }
+
+    private boolean isMysql(String dataSource, ExecutionInfo execInfo) {
+        return mysqlDataSources.computeIfAbsent(dataSource, key -> {
+            try {
+                Connection connection = execInfo.getStatement().getConnection();
+                return connection.isWrapperFor(JdbcConnection.class);
+            } catch (SQLException e) {
+                log.debug("cannot read connection type. dataSource={}", dataSource, e);
+                return false;
+            }
+        });
+    }
+
+    // executeBatch / executeLargeBatch 결과가 모두 SUCCESS_NO_INFO 면 드라이버가 재작성해서 보낸 batch
+    static boolean isRewritten(Object batchResult) {
+        if (batchResult instanceof int[]) {
+            int[] counts = (int[]) batchResult;
+            return counts.length > 0 && Arrays.stream(counts).allMatch(count -> count == Statement.SUCCESS_NO_INFO);
+        }
+        if (batchResult instanceof long[]) {
+            long[] counts = (long[]) batchResult;
+            return counts.length > 0 && Arrays.stream(counts).allMatch(count -> count == Statement.SUCCESS_NO_INFO);
+        }
+        return false;
+    }
+
+    static String tableName(String sql) {
+        Matcher matcher = TABLE_PATTERN.matcher(sql);
+        if (!matcher.find()) {
+            return "unknown";
+        }
+        return matcher.group(1).replace("\"", "").replace("`", "").toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,15 @@
+package com.jw.common.metrics;
+
+import java.lang.annotation.*;
+
+/**
+ * 메서드 안에서 실행되는 JDBC 지표에 {@code operation} 태그를 붙인다. 값이 없으면 메서드 이름을 사용한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface JdbcOperation {
+
+    String value() default "";
+
+}
@@ -0,0 +1,32 @@
+package com.jw.common.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.Method;
+
+// 트랜잭션 커밋 시점의 flush 까지 같은 operation 으로 집계되도록 @Transactional 보다 바깥에서 실행
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class JdbcOperationAspect {
+
+    @Around("@annotation(com.jw.common.metrics.JdbcOperation)")
+    public Object tag(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        JdbcOperation jdbcOperation = AnnotatedElementUtils.findMergedAnnotation(method, JdbcOperation.class);
+        String operation = jdbcOperation == null || jdbcOperation.value().isEmpty()
+                ? method.getName()
+                : jdbcOperation.value();
+        String previous = JdbcOperationContext.enter(operation);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            JdbcOperationContext.restore(previous);
+        }
+    }
+}
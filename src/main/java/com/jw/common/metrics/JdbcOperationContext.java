@@ -0,0 +1,49 @@
+package com.jw.common.metrics;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 현재 스레드에서 실행 중인 {@link JdbcOperation} 이름.
+ */
+public final class JdbcOperationContext {
+
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private JdbcOperationContext() {
+    }
+
+    public static String current() {
+        String operation = CURRENT.get();
+        return operation != null ? operation : NONE;
+    }
+
+    // 다른 스레드에서 실행할 작업에 현재 operation 을 이어 붙인다
+    public static <V> Callable<V> propagate(Callable<V> task) {
+        String operation = CURRENT.get();
+        return () -> {
+            String previous = enter(operation);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    // 이전 값을 돌려주므로 finally 에서 restore 로 되돌린다
+    static String enter(String operation) {
+        String previous = CURRENT.get();
+        restore(operation);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.jw.common.repository;
+
+import com.jw.common.entity.BulkInsertEntity;
+
+import java.util.stream.Stream;
+
+/**
+ * 대량 insert 용 repository fragment.
+ * <p>
+ * {@code hibernate.jdbc.batch_size} 단위로 persist 하고, chunk 마다 flush 후 해당 chunk 의 엔티티를 영속성 컨텍스트에서 분리한다.
+ * 따라서 insert 하는 row 수와 관계없이 영속성 컨텍스트에는 최대 한 chunk 만 남는다. 엔티티의 persistence unit 트랜잭션 안에서 호출한다.
+ * <p>
+ * 필요한 repository 만 {@code JpaRepository} 와 함께 직접 상속한다. 구현은 {@link BulkInsertRepositoryImpl} 로,
+ * 각 JpaConfig 의 basePackages 에 이 패키지를 넣어 fragment 로 연결한다.
+ * <pre>
+ * public interface LoanScheduleRepository extends JpaRepository&lt;LoanSchedule, Long&gt;, BulkInsertRepository&lt;LoanSchedule&gt;
+ * </pre>
+ */
+public interface BulkInsertRepository<T extends BulkInsertEntity<?>> {
+
+    <S extends T> long persistAllInChunks(Iterable<S> entities);
+
+    <S extends T> long persistAllInChunks(Stream<S> entities);
+
+}
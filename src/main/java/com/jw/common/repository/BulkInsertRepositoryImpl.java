@@ -0,0 +1,138 @@
+package com.jw.common.repository;
+
+import com.jw.common.entity.BulkInsertEntity;
+import com.jw.common.jdbc.AdaptiveBatchSizeController;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link BulkInsertRepository} fragment 구현.
+ * <p>
+ * fragment 는 persistence unit 과 관계없이 하나의 bean 으로 등록되므로, insert 할 엔티티 타입을 관리하는
+ * EntityManagerFactory 를 찾아 현재 트랜잭션의 EntityManager 로 persist 한다.
+ * 트랜잭션 매니저도 persistence unit 마다 다르므로 트랜잭션은 열지 않고 호출자 트랜잭션에 참여한다.
+ */
+public class BulkInsertRepositoryImpl<T extends BulkInsertEntity<?>> implements BulkInsertRepository<T> {
+
+    static final String BATCH_SIZE_PROPERTY = "hibernate.jdbc.batch_size";
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
+    private final List<EntityManagerFactory> entityManagerFactories;
+    private final Map<Class<?>, EntityManagerFactory> entityManagerFactoryByType = new ConcurrentHashMap<>();
+
+    public BulkInsertRepositoryImpl(List<EntityManagerFactory> entityManagerFactories) {
+        this.entityManagerFactories = entityManagerFactories;
+    }
+
+    @Override
+    public <S extends T> long persistAllInChunks(Iterable<S> entities) {
+        return persistAllInChunks(entities.iterator());
+    }
+
+    @Override
+    public <S extends T> long persistAllInChunks(Stream<S> entities) {
+        return persistAllInChunks(entities.iterator());
+    }
+
+    private <S extends T> long persistAllInChunks(Iterator<S> entities) {
+        if (!entities.hasNext()) {
+            return 0;
+        }
+        S first = entities.next();
+        EntityManagerFactory entityManagerFactory = entityManagerFactory(first.getClass());
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager == null) {
+            throw new IllegalStateException("persistAllInChunks must run in a transaction: " + first.getClass().getName());
+        }
+        Iterator<S> all = Stream.concat(Stream.of(first),
+                StreamSupport.stream(Spliterators.spliteratorUnknownSize(entities, 0), false)).iterator();
+
+        // 설정되어 있으면 batch_size 대신 컨트롤러가 정한 값을 chunk 마다 다시 읽어 세션 batch size 로 사용
+        AdaptiveBatchSizeController batchSizeController = (AdaptiveBatchSizeController)
+                entityManagerFactory.getProperties().get(AdaptiveBatchSizeController.PROPERTY);
+        if (batchSizeController == null) {
+            return persistAllInChunks(entityManager, all, resolveBatchSize(entityManagerFactory));
+        }
+        Session session = entityManager.unwrap(Session.class);
+        Integer sessionBatchSize = session.getJdbcBatchSize();
+        try {
+            long count = 0;
+            while (all.hasNext()) {
+                int chunkSize = batchSizeController.enter();
+                session.setJdbcBatchSize(chunkSize);
+                count += persistChunk(entityManager, all, chunkSize);
+            }
+            return count;
+        } finally {
+            batchSizeController.exit();
+            session.setJdbcBatchSize(sessionBatchSize);
+        }
+    }
+
+    private <S extends T> long persistAllInChunks(EntityManager entityManager, Iterator<S> entities, int chunkSize) {
+        long count = 0;
+        while (entities.hasNext()) {
+            count += persistChunk(entityManager, entities, chunkSize);
+        }
+        return count;
+    }
+
+    private <S extends T> int persistChunk(EntityManager entityManager, Iterator<S> entities, int chunkSize) {
+        List<S> chunk = new ArrayList<>(chunkSize);
+        while (entities.hasNext() && chunk.size() < chunkSize) {
+            S entity = entities.next();
+            entityManager.persist(entity);
+            chunk.add(entity);
+        }
+        return flushAndDetach(entityManager, chunk);
+    }
+
+    // clear() 대신 chunk 만 detach 한다.
+    // 부모 엔티티까지 분리되면 자식 insert 시 FK 대상의 transient 여부를 확인하는 select 가 row 마다 발생한다.
+    private <S extends T> int flushAndDetach(EntityManager entityManager, List<S> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+        chunk.forEach(entityManager::detach);
+        int size = chunk.size();
+        chunk.clear();
+        return size;
+    }
+
+    // 엔티티 타입을 관리하는 persistence unit 은 하나여야 한다
+    private EntityManagerFactory entityManagerFactory(Class<?> entityType) {
+        return entityManagerFactoryByType.computeIfAbsent(entityType, type -> {
+            List<EntityManagerFactory> candidates = entityManagerFactories.stream()
+                    .filter(factory -> factory.getMetamodel().getEntities().stream()
+                            .anyMatch(entity -> entity.getJavaType().equals(type)))
+                    .collect(Collectors.toList());
+            if (candidates.size() != 1) {
+                throw new IllegalStateException("Expected one persistence unit for " + type.getName()
+                        + " but found " + candidates.size());
+            }
+            return candidates.get(0);
+        });
+    }
+
+    private static int resolveBatchSize(EntityManagerFactory entityManagerFactory) {
+        Object value = entityManagerFactory.getProperties().get(BATCH_SIZE_PROPERTY);
+        if (value == null) {
+            return DEFAULT_BATCH_SIZE;
+        }
+        int batchSize = Integer.parseInt(value.toString().trim());
+        return batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+}
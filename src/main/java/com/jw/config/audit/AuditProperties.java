@@ -0,0 +1,18 @@
+package com.jw.config.audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jw.audit")
+public class AuditProperties {
+
+    // false 면 대출/상환 일정 감사 행(LOAN_AUD, LOAN_SCHEDULE_AUD)을 기록하지 않는다
+    private boolean enabled = true;
+
+    // 감사 INSERT ... SELECT 를 key 몇 개씩 JDBC batch 로 보낼지
+    private int batchSize = 500;
+
+}
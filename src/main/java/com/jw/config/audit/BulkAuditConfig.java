@@ -0,0 +1,32 @@
+package com.jw.config.audit;
+
+import com.jw.common.audit.BulkAuditWriter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+// Envers 자동 listener 는 끄고(hibernate.envers.autoRegisterListeners=false) 서비스에서 호출 단위로 감사 행을 기록한다
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+public class BulkAuditConfig {
+
+    @Bean
+    public BulkAuditWriter oracleAuditWriter(
+            @Qualifier("oracleProxyDataSource") DataSource dataSource,
+            @Qualifier("oracleTransactionManager") PlatformTransactionManager transactionManager,
+            AuditProperties properties) {
+        return new BulkAuditWriter("oracle", dataSource, transactionManager, properties.isEnabled(), properties.getBatchSize());
+    }
+
+    @Bean
+    public BulkAuditWriter mysqlAuditWriter(
+            @Qualifier("mysqlProxyDataSource") DataSource dataSource,
+            @Qualifier("mysqlTransactionManager") PlatformTransactionManager transactionManager,
+            AuditProperties properties) {
+        return new BulkAuditWriter("mysql", dataSource, transactionManager, properties.isEnabled(), properties.getBatchSize());
+    }
+}
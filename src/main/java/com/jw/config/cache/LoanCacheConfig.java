@@ -0,0 +1,41 @@
+package com.jw.config.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jw.common.cache.CommitAwareCache;
+import com.jw.domain.oracle.loan.vo.LoanHeaderVo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 히트/미스/eviction 지표는 /actuator/metrics 의 cache.gets, cache.evictions (cache=mysql-loan, oracle-loan) 로 조회
+@Configuration
+@EnableConfigurationProperties(LoanCacheProperties.class)
+public class LoanCacheConfig {
+
+    @Bean
+    public CommitAwareCache<Long, com.jw.domain.mysql.loan.vo.LoanHeaderVo> mysqlLoanCache(
+            LoanCacheProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new CommitAwareCache<>(buildCache("mysql-loan", properties, meterRegistry));
+    }
+
+    @Bean
+    public CommitAwareCache<Long, LoanHeaderVo> oracleLoanCache(
+            LoanCacheProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new CommitAwareCache<>(buildCache("oracle-loan", properties, meterRegistry));
+    }
+
+    private static <K, V> Cache<K, V> buildCache(String name, LoanCacheProperties properties,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, name));
+        return cache;
+    }
+}
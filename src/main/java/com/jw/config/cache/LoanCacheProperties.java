@@ -0,0 +1,20 @@
+package com.jw.config.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jw.cache.loan")
+public class LoanCacheProperties {
+
+    // persistence unit 별 최대 대출 수. 상환 일정은 캐시하지 않으므로 항목 하나가 수백 byte 수준이다
+    private long maximumSize = 10_000;
+
+    // 다른 애플리케이션이 직접 바꾼 대출도 이 시간이 지나면 다시 읽는다
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+}
@@ -1,9 +1,15 @@
 package com.jw.config.database;
 
+import com.jw.common.datasource.BulkWorkloadAspect;
+import com.jw.common.datasource.WorkloadRoutingDataSource;
+import com.jw.common.jdbc.AdaptiveBatchSizeController;
+import com.jw.common.metrics.JdbcMetricsListener;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
 import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -22,25 +28,54 @@ public class DataSourceConfig {
         return new DataSourceProperties();
     }
 
+    // 짧은 요청용 pool. 커넥션을 오래 기다리지 않는다 (spring.datasource.oracle.oltp.*)
     @Bean
-    public DataSource oracleDataSource(DataSourceProperties oracleDataSourceProperties) {
+    @ConfigurationProperties(prefix = "spring.datasource.oracle.oltp")
+    public HikariConfig oracleOltpPoolConfig() {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(oracleDataSourceProperties.getUrl());
-        config.setDriverClassName(oracleDataSourceProperties.getDriverClassName());
-        config.setUsername(oracleDataSourceProperties.getUsername());
-        config.setPassword(oracleDataSourceProperties.getPassword());
-        return new HikariDataSource(config);
+        config.setPoolName("oracle-oltp-pool");
+        return config;
+    }
+
+    // 대량 적재/복사용 pool (spring.datasource.oracle.bulk.*)
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.oracle.bulk")
+    public HikariConfig oracleBulkPoolConfig() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("oracle-bulk-pool");
+        return config;
+    }
+
+    @Bean
+    public DataSource oracleOltpDataSource(DataSourceProperties oracleDataSourceProperties, HikariConfig oracleOltpPoolConfig) {
+        return createPool(oracleDataSourceProperties, oracleOltpPoolConfig);
     }
 
     @Bean
-    public DataSource oracleProxyDataSource(DataSource oracleDataSource) {
-        return ProxyDataSourceBuilder.create(oracleDataSource)
+    public DataSource oracleBulkDataSource(DataSourceProperties oracleDataSourceProperties, HikariConfig oracleBulkPoolConfig) {
+        return createPool(oracleDataSourceProperties, oracleBulkPoolConfig);
+    }
+
+    // @BulkWorkload 안에서 시작한 트랜잭션은 bulk pool, 나머지는 OLTP pool 을 쓴다
+    @Bean
+    public DataSource oracleDataSource(DataSource oracleOltpDataSource, DataSource oracleBulkDataSource) {
+        return new WorkloadRoutingDataSource(oracleOltpDataSource, oracleBulkDataSource);
+    }
+
+    @Bean
+    public DataSource oracleProxyDataSource(
+            DataSource oracleDataSource,
+            JdbcMetricsListener jdbcMetricsListener,
+            @Qualifier("oracleBatchSizeController") ObjectProvider<AdaptiveBatchSizeController> batchSizeController) {
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(oracleDataSource)
                 .name("ORACLE-LOGGER")
+                .listener(jdbcMetricsListener)
 //                .logQueryBySlf4j(log.getName())
                 .multiline()
                 .asJson()
-                .countQuery()
-                .build();
+                .countQuery();
+        batchSizeController.ifAvailable(builder::listener);
+        return builder.build();
     }
 
     @Bean
@@ -49,24 +84,65 @@ public class DataSourceConfig {
         return new DataSourceProperties();
     }
 
+    // 짧은 요청용 pool. 커넥션을 오래 기다리지 않는다 (spring.datasource.mysql.oltp.*)
     @Bean
-    public DataSource mysqlDataSource(DataSourceProperties mysqlDataSourceProperties) {
+    @ConfigurationProperties(prefix = "spring.datasource.mysql.oltp")
+    public HikariConfig mysqlOltpPoolConfig() {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(mysqlDataSourceProperties.getUrl());
-        config.setUsername(mysqlDataSourceProperties.getUsername());
-        config.setPassword(mysqlDataSourceProperties.getPassword());
-        return new HikariDataSource(config);
+        config.setPoolName("mysql-oltp-pool");
+        return config;
+    }
+
+    // 대량 적재/복사용 pool (spring.datasource.mysql.bulk.*)
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.mysql.bulk")
+    public HikariConfig mysqlBulkPoolConfig() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("mysql-bulk-pool");
+        return config;
+    }
+
+    @Bean
+    public DataSource mysqlOltpDataSource(DataSourceProperties mysqlDataSourceProperties, HikariConfig mysqlOltpPoolConfig) {
+        return createPool(mysqlDataSourceProperties, mysqlOltpPoolConfig);
+    }
+
+    @Bean
+    public DataSource mysqlBulkDataSource(DataSourceProperties mysqlDataSourceProperties, HikariConfig mysqlBulkPoolConfig) {
+        return createPool(mysqlDataSourceProperties, mysqlBulkPoolConfig);
+    }
+
+    // @BulkWorkload 안에서 시작한 트랜잭션은 bulk pool, 나머지는 OLTP pool 을 쓴다
+    @Bean
+    public DataSource mysqlDataSource(DataSource mysqlOltpDataSource, DataSource mysqlBulkDataSource) {
+        return new WorkloadRoutingDataSource(mysqlOltpDataSource, mysqlBulkDataSource);
     }
 
     @Bean
-    public DataSource mysqlProxyDataSource(DataSource mysqlDataSource) {
-        return ProxyDataSourceBuilder.create(mysqlDataSource)
+    public DataSource mysqlProxyDataSource(
+            DataSource mysqlDataSource,
+            JdbcMetricsListener jdbcMetricsListener,
+            @Qualifier("mysqlBatchSizeController") ObjectProvider<AdaptiveBatchSizeController> batchSizeController) {
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(mysqlDataSource)
                 .name("MYSQL-LOGGER")
+                .listener(jdbcMetricsListener)
 //                .logQueryBySlf4j(log.getName())
                 .asJson()
-                .countQuery()
-                .build();
+                .countQuery();
+        batchSizeController.ifAvailable(builder::listener);
+        return builder.build();
     }
 
+    @Bean
+    public BulkWorkloadAspect bulkWorkloadAspect() {
+        return new BulkWorkloadAspect();
+    }
 
+    private static HikariDataSource createPool(DataSourceProperties dataSourceProperties, HikariConfig config) {
+        config.setJdbcUrl(dataSourceProperties.getUrl());
+        config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        config.setUsername(dataSourceProperties.getUsername());
+        config.setPassword(dataSourceProperties.getPassword());
+        return new HikariDataSource(config);
+    }
 }
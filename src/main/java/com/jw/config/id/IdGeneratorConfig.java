@@ -0,0 +1,29 @@
+package com.jw.config.id;
+
+import com.jw.common.id.SequenceHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+
+    // 인스턴스마다 서로 다른 값을 주어야 ID 가 충돌하지 않는다 (0 ~ 1023)
+    // 같은 기본값으로 여러 인스턴스가 뜨면 같은 ID 를 만들므로 기본값을 두지 않고, 없으면 시작하지 않는다
+    @Value("${jw.id.node-id:#{null}}")
+    private Long nodeId;
+
+    @PostConstruct
+    public void initialize() {
+        if (nodeId == null) {
+            throw new IllegalStateException("jw.id.node-id is not set. Give each instance a distinct node id (0 ~ 1023),"
+                    + " e.g. JW_ID_NODE_ID=1");
+        }
+        SequenceHolder.initialize(nodeId);
+        log.info("SequenceHolder initialized. nodeId={}", nodeId);
+    }
+
+}
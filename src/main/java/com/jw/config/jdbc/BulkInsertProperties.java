@@ -0,0 +1,156 @@
+package com.jw.config.jdbc;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jw.bulk")
+public class BulkInsertProperties {
+
+    // 병렬 적재 시 동시에 사용할 커넥션 수 (DataSource pool 크기보다 작아야 한다)
+    private int parallelism = 4;
+
+    // 병렬 적재 partition 하나의 row 수
+    private int partitionSize = 10_000;
+
+    // 병렬 적재 시 실패한 partition 재시도 횟수 (최초 시도 포함)
+    private int maxAttempts = 3;
+
+    // Oracle: 이 row 수 이하면 INSERT ALL 로 적재
+    private int oracleInsertAllMaxRows = 100;
+
+    // Oracle: 이 row 수 이상이면 APPEND_VALUES direct-path 로 적재 (FK 가 없는 테이블만)
+    private long oracleDirectPathMinRows = 100_000;
+
+    // 세션 JDBC batch size 자동 조정 (persistence unit 별로 따로 조정)
+    private final AdaptiveBatch adaptiveBatch = new AdaptiveBatch();
+
+    // 대출 실행 요청을 모아 한 트랜잭션으로 커밋 (LoanIngestService, MyLoanIngestService)
+    private final GroupCommit groupCommit = new GroupCommit();
+
+    // Oracle → MySQL 테이블 복사 (KeysetCopyJob)
+    private final Copy copy = new Copy();
+
+    // CSV 파일 대출 적재 (MappedCsvImporter)
+    private final FileImport fileImport = new FileImport();
+
+    // 대출 실행 요청을 로컬 저널에 먼저 기록하고 DB 에는 비동기로 반영 (LoanJournalService, MyLoanJournalService)
+    private final Journal journal = new Journal();
+
+    @Getter
+    @Setter
+    public static class AdaptiveBatch {
+
+        private boolean enabled = true;
+
+        private int minSize = 100;
+
+        private int maxSize = 5_000;
+
+        // 이 횟수의 batch insert 마다 처리량을 비교
+        private int windowSize = 20;
+
+        // 한 번에 늘리거나 줄이는 배수
+        private double stepFactor = 1.5;
+
+        // 처리량 변화가 이 비율 안이면 batch size 유지
+        private double hysteresis = 0.05;
+
+        // 평균 batch 실행 시간이 이 값을 넘으면 줄인다
+        private long maxLatencyMillis = 500;
+
+    }
+
+    @Getter
+    @Setter
+    public static class GroupCommit {
+
+        // 대기 요청 수. 가득 차면 enqueueTimeoutMillis 동안 기다린 뒤 거절
+        private int capacity = 10_000;
+
+        // 한 트랜잭션으로 묶을 최대 대출 수
+        private int maxBatchSize = 200;
+
+        // 첫 요청이 들어온 뒤 이 시간이 지나면 모인 만큼 커밋
+        private long maxLatencyMillis = 50;
+
+        private long enqueueTimeoutMillis = 1_000;
+
+    }
+
+    @Getter
+    @Setter
+    public static class Copy {
+
+        // 동시에 복사할 partition 수. partition 마다 원본/대상 커넥션을 하나씩 사용한다
+        private int parallelism = 4;
+
+        // 테이블 하나를 나눌 ID 구간 수. 이어서 복사할 때도 같은 값이어야 한다
+        private int partitionCount = 16;
+
+        // 원본 조회 fetch size (Oracle 기본값은 10)
+        private int fetchSize = 5_000;
+
+        // partition 별 reader 와 writer 사이에 쌓아 둘 chunk 수 (chunk 는 대상 batch size 건)
+        private int queueCapacity = 4;
+
+    }
+
+    @Getter
+    @Setter
+    public static class FileImport {
+
+        // 동시에 읽을 파일 구간 수
+        private int parallelism = 4;
+
+        // 파일을 나눌 구간 크기. 구간 하나를 통째로 메모리 매핑하므로 2GB 미만이어야 한다
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        // 이 건수마다 저장하고 원장에 파일 offset 을 기록
+        private int checkpointInterval = 1_000;
+
+        // 한 구간에서 이 건수를 넘게 변환에 실패하면 구간을 실패 처리 (그 이하는 건너뛰고 BULK_LOAD_REJECT 에 기록)
+        private int maxRejectsPerSegment = 1_000;
+
+    }
+
+    @Getter
+    @Setter
+    public static class Journal {
+
+        private boolean enabled = false;
+
+        // persistence unit 별로 하위 디렉터리(mysql, oracle)를 만든다
+        private String directory = "journal";
+
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        // fsync 대기 요청 수. 가득 차면 enqueueTimeoutMillis 동안 기다린 뒤 거절
+        private int capacity = 10_000;
+
+        // 한 번의 write + fsync 로 내려쓸 최대 요청 수
+        private int maxBatchSize = 500;
+
+        // 첫 요청이 들어온 뒤 이 시간이 지나면 모인 만큼 fsync
+        private long maxLatencyMillis = 2;
+
+        private long enqueueTimeoutMillis = 1_000;
+
+        // DB 에 한 트랜잭션으로 반영할 record 수
+        private int replayBatchSize = 200;
+
+        // 반영할 record 가 없을 때 다시 확인하기까지 기다리는 시간
+        private long replayIdleMillis = 20;
+
+        // DB 반영이 일시적으로 실패하면 이 시간부터 두 배씩 늘려 다시 시도
+        private long replayRetryDelayMillis = 1_000;
+
+        // 일시적 실패를 다시 시도하는 횟수. 넘으면 잠시 뒤 마지막 커밋 위치부터 반영을 다시 시작
+        private int replayMaxRetries = 5;
+
+    }
+
+}
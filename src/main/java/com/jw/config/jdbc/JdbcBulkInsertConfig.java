@@ -0,0 +1,135 @@
+package com.jw.config.jdbc;
+
+import com.jw.common.ingest.MappedCsvImporter;
+import com.jw.common.jdbc.AdaptiveBatchSizeController;
+import com.jw.common.jdbc.JdbcBulkInsertWriter;
+import com.jw.common.jdbc.KeysetCopyJob;
+import com.jw.common.jdbc.MysqlBulkInsertDialect;
+import com.jw.common.jdbc.MysqlLoadDataWriter;
+import com.jw.common.jdbc.OracleBulkInsertWriter;
+import com.jw.common.jdbc.ParallelBulkInsertCoordinator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(BulkInsertProperties.class)
+public class JdbcBulkInsertConfig {
+
+    private static final String BATCH_SIZE_PROPERTY = "hibernate.jdbc.batch_size";
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    // JPA 와 같은 proxy DataSource 를 써야 mysqlTransactionManager 트랜잭션에 참여한다
+    @Bean
+    public JdbcBulkInsertWriter mysqlBulkInsertWriter(
+            @Qualifier("mysqlProxyDataSource") DataSource mysqlProxyDataSource,
+            JpaProperties jpaProperties) {
+        return new JdbcBulkInsertWriter(mysqlProxyDataSource, new MysqlBulkInsertDialect(), batchSize(jpaProperties));
+    }
+
+    // row 수에 따라 INSERT ALL / array DML / direct-path 중 선택
+    @Bean
+    public OracleBulkInsertWriter oracleBulkInsertWriter(
+            @Qualifier("oracleProxyDataSource") DataSource oracleProxyDataSource,
+            JpaProperties jpaProperties,
+            BulkInsertProperties properties) {
+        return new OracleBulkInsertWriter(oracleProxyDataSource, batchSize(jpaProperties),
+                properties.getOracleInsertAllMaxRows(), properties.getOracleDirectPathMinRows());
+    }
+
+    // allowLoadLocalInfile 이 꺼져 있으면 mysqlBulkInsertWriter 로 대신 적재
+    @Bean
+    public MysqlLoadDataWriter mysqlLoadDataWriter(
+            @Qualifier("mysqlProxyDataSource") DataSource mysqlProxyDataSource,
+            @Qualifier("mysqlBulkInsertWriter") JdbcBulkInsertWriter mysqlBulkInsertWriter) {
+        return new MysqlLoadDataWriter(mysqlProxyDataSource, mysqlBulkInsertWriter);
+    }
+
+    @Bean
+    public ParallelBulkInsertCoordinator mysqlParallelBulkInsertCoordinator(
+            @Qualifier("mysqlProxyDataSource") DataSource mysqlProxyDataSource,
+            @Qualifier("mysqlBulkInsertWriter") JdbcBulkInsertWriter mysqlBulkInsertWriter,
+            BulkInsertProperties properties) {
+        return new ParallelBulkInsertCoordinator("mysql", mysqlProxyDataSource, mysqlBulkInsertWriter,
+                properties.getParallelism(), properties.getMaxAttempts());
+    }
+
+    @Bean
+    public ParallelBulkInsertCoordinator oracleParallelBulkInsertCoordinator(
+            @Qualifier("oracleProxyDataSource") DataSource oracleProxyDataSource,
+            @Qualifier("oracleBulkInsertWriter") JdbcBulkInsertWriter oracleBulkInsertWriter,
+            BulkInsertProperties properties) {
+        return new ParallelBulkInsertCoordinator("oracle", oracleProxyDataSource, oracleBulkInsertWriter,
+                properties.getParallelism(), properties.getMaxAttempts());
+    }
+
+    // Oracle 에서 읽고 MySQL 에 쓴다. 원장(BULK_LOAD_LEDGER)은 MySQL 에 기록
+    // chunk 트랜잭션을 mysqlTransactionManager 로 열어 감사 기록(mysqlAuditWriter)도 같은 트랜잭션에 참여한다
+    @Bean
+    public KeysetCopyJob oracleToMysqlCopyJob(
+            @Qualifier("oracleProxyDataSource") DataSource oracleProxyDataSource,
+            @Qualifier("mysqlProxyDataSource") DataSource mysqlProxyDataSource,
+            @Qualifier("mysqlTransactionManager") PlatformTransactionManager mysqlTransactionManager,
+            @Qualifier("mysqlBulkInsertWriter") JdbcBulkInsertWriter mysqlBulkInsertWriter,
+            BulkInsertProperties properties) {
+        BulkInsertProperties.Copy copy = properties.getCopy();
+        return new KeysetCopyJob("oracle-to-mysql", oracleProxyDataSource, mysqlProxyDataSource, mysqlTransactionManager,
+                mysqlBulkInsertWriter, copy.getParallelism(), copy.getFetchSize(), copy.getQueueCapacity());
+    }
+
+    // 원장은 JPA 와 같은 proxy DataSource 에 기록해 대출 저장과 같은 트랜잭션으로 커밋한다
+    @Bean
+    public MappedCsvImporter mysqlCsvImporter(
+            @Qualifier("mysqlProxyDataSource") DataSource mysqlProxyDataSource,
+            @Qualifier("mysqlTransactionManager") PlatformTransactionManager mysqlTransactionManager,
+            BulkInsertProperties properties) {
+        return csvImporter("mysql", mysqlProxyDataSource, mysqlTransactionManager, properties.getFileImport());
+    }
+
+    @Bean
+    public MappedCsvImporter oracleCsvImporter(
+            @Qualifier("oracleProxyDataSource") DataSource oracleProxyDataSource,
+            @Qualifier("oracleTransactionManager") PlatformTransactionManager oracleTransactionManager,
+            BulkInsertProperties properties) {
+        return csvImporter("oracle", oracleProxyDataSource, oracleTransactionManager, properties.getFileImport());
+    }
+
+    private static MappedCsvImporter csvImporter(String name, DataSource dataSource,
+                                                 PlatformTransactionManager transactionManager,
+                                                 BulkInsertProperties.FileImport fileImport) {
+        return new MappedCsvImporter(name, dataSource, transactionManager, fileImport.getParallelism(),
+                fileImport.getSegmentSize().toBytes(), fileImport.getCheckpointInterval(),
+                fileImport.getMaxRejectsPerSegment());
+    }
+
+    // persistence unit 별 세션 JDBC batch size. 시작 값은 hibernate.jdbc.batch_size
+    @Bean
+    @ConditionalOnProperty(prefix = "jw.bulk.adaptive-batch", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AdaptiveBatchSizeController mysqlBatchSizeController(JpaProperties jpaProperties, BulkInsertProperties properties) {
+        return batchSizeController("mysql", jpaProperties, properties.getAdaptiveBatch());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jw.bulk.adaptive-batch", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AdaptiveBatchSizeController oracleBatchSizeController(JpaProperties jpaProperties, BulkInsertProperties properties) {
+        return batchSizeController("oracle", jpaProperties, properties.getAdaptiveBatch());
+    }
+
+    private static AdaptiveBatchSizeController batchSizeController(String name, JpaProperties jpaProperties,
+                                                                   BulkInsertProperties.AdaptiveBatch adaptiveBatch) {
+        return new AdaptiveBatchSizeController(name, batchSize(jpaProperties),
+                adaptiveBatch.getMinSize(), adaptiveBatch.getMaxSize(), adaptiveBatch.getWindowSize(),
+                adaptiveBatch.getStepFactor(), adaptiveBatch.getHysteresis(), adaptiveBatch.getMaxLatencyMillis());
+    }
+
+    private static int batchSize(JpaProperties jpaProperties) {
+        String batchSize = jpaProperties.getProperties().get(BATCH_SIZE_PROPERTY);
+        return batchSize != null ? Integer.parseInt(batchSize.trim()) : DEFAULT_BATCH_SIZE;
+    }
+}
@@ -1,22 +1,32 @@
 package com.jw.config.jpa;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 
 @Configuration
 public class JpaCommonConfig {
 
+    // jw.jpa.background-bootstrap=true 이면 두 persistence unit 을 별도 스레드에서 동시에 초기화하고,
+    // 나머지 bean 생성은 기다리지 않고 진행한다 (repository 는 LAZY 로 첫 사용 시점에 만들어지며 그때 EntityManagerFactory 를 기다림)
     @Bean
-    public EntityManagerFactoryBuilder entityManagerFactoryBuilder(JpaProperties jpaProperties) {
-        return new EntityManagerFactoryBuilder(
+    public EntityManagerFactoryBuilder entityManagerFactoryBuilder(
+            JpaProperties jpaProperties,
+            @Value("${jw.jpa.background-bootstrap:false}") boolean backgroundBootstrap) {
+        EntityManagerFactoryBuilder builder = new EntityManagerFactoryBuilder(
                 new HibernateJpaVendorAdapter(),
                 jpaProperties.getProperties(),
                 null
         );
+        if (backgroundBootstrap) {
+            builder.setBootstrapExecutor(new SimpleAsyncTaskExecutor("jpa-bootstrap-"));
+        }
+        return builder;
     }
 
     @Bean
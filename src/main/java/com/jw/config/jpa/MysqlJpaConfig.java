@@ -1,6 +1,11 @@
 package com.jw.config.jpa;
 
+import com.jw.common.jdbc.AdaptiveBatchSizeController;
+import com.jw.common.metrics.JdbcMetricsListener;
+import com.jw.config.metrics.JdbcMetricsConfig;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
@@ -8,18 +13,22 @@ import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.config.BootstrapMode;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import java.nio.file.Path;
 import java.util.Map;
 
 @Configuration
 @EnableJpaRepositories(
-        basePackages = "com.jw.domain.mysql",
+        // com.jw.common.repository : BulkInsertRepository fragment 구현 (BulkInsertRepositoryImpl)
+        basePackages = {"com.jw.domain.mysql", "com.jw.common.repository"},
         entityManagerFactoryRef = "mysqlEntityManagerFactory",
-        transactionManagerRef = "mysqlTransactionManager"
+        transactionManagerRef = "mysqlTransactionManager",
+        bootstrapMode = BootstrapMode.LAZY
 )
 public class MysqlJpaConfig {
 
@@ -28,10 +37,20 @@ public class MysqlJpaConfig {
             EntityManagerFactoryBuilder builder,
             @Qualifier("mysqlProxyDataSource") DataSource mysqlProxyDataSource,
             JpaProperties jpaProperties,
-            HibernateProperties hibernateProperties) {
+            HibernateProperties hibernateProperties,
+            JdbcMetricsListener jdbcMetricsListener,
+            @Qualifier("mysqlBatchSizeController") ObjectProvider<AdaptiveBatchSizeController> batchSizeController,
+            @Value("${jw.jpa.schema-snapshot-directory:}") String schemaSnapshotDirectory,
+            @Value("${jw.jpa.mysql-dialect:org.hibernate.dialect.MySQL8Dialect}") String dialect) {
         Map<String, Object> mysqlHibernateProps = hibernateProperties.determineHibernateProperties(
                 jpaProperties.getProperties(), new HibernateSettings());
-        mysqlHibernateProps.put("hibernate.dialect", "org.hibernate.dialect.MySQL8Dialect");
+        // jw.jpa.mysql-dialect 는 H2 등 대체 DB 로 실행할 때만 바꾼다
+        mysqlHibernateProps.put("hibernate.dialect", dialect);
+        JdbcMetricsConfig.addFlushMetrics(mysqlHibernateProps, jdbcMetricsListener);
+        batchSizeController.ifAvailable(controller -> mysqlHibernateProps.put(AdaptiveBatchSizeController.PROPERTY, controller));
+        if (!schemaSnapshotDirectory.isEmpty()) {
+            SchemaSnapshot.register(Path.of(schemaSnapshotDirectory), "mysqlPU", mysqlHibernateProps, mysqlProxyDataSource);
+        }
         return builder
                 .dataSource(mysqlProxyDataSource)
                 .packages("com.jw.domain.mysql")
@@ -1,6 +1,11 @@
 package com.jw.config.jpa;
 
+import com.jw.common.jdbc.AdaptiveBatchSizeController;
+import com.jw.common.metrics.JdbcMetricsListener;
+import com.jw.config.metrics.JdbcMetricsConfig;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
@@ -8,18 +13,22 @@ import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.config.BootstrapMode;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import java.nio.file.Path;
 import java.util.Map;
 
 @Configuration
 @EnableJpaRepositories(
-        basePackages = "com.jw.domain.oracle",
+        // com.jw.common.repository : BulkInsertRepository fragment 구현 (BulkInsertRepositoryImpl)
+        basePackages = {"com.jw.domain.oracle", "com.jw.common.repository"},
         entityManagerFactoryRef = "oracleEntityManagerFactory",
-        transactionManagerRef = "oracleTransactionManager"
+        transactionManagerRef = "oracleTransactionManager",
+        bootstrapMode = BootstrapMode.LAZY
 )
 public class OracleJpaConfig {
 
@@ -28,10 +37,20 @@ public class OracleJpaConfig {
             EntityManagerFactoryBuilder builder,
             @Qualifier("oracleProxyDataSource") DataSource oracleProxyDataSource,
             JpaProperties jpaProperties,
-            HibernateProperties hibernateProperties) {
+            HibernateProperties hibernateProperties,
+            JdbcMetricsListener jdbcMetricsListener,
+            @Qualifier("oracleBatchSizeController") ObjectProvider<AdaptiveBatchSizeController> batchSizeController,
+            @Value("${jw.jpa.schema-snapshot-directory:}") String schemaSnapshotDirectory,
+            @Value("${jw.jpa.oracle-dialect:org.hibernate.dialect.Oracle12cDialect}") String dialect) {
         Map<String, Object> oracleHibernateProps = hibernateProperties.determineHibernateProperties(
                 jpaProperties.getProperties(), new HibernateSettings());
-        oracleHibernateProps.put("hibernate.dialect", "org.hibernate.dialect.Oracle12cDialect");
+        // jw.jpa.oracle-dialect 는 H2 등 대체 DB 로 실행할 때만 바꾼다
+        oracleHibernateProps.put("hibernate.dialect", dialect);
+        JdbcMetricsConfig.addFlushMetrics(oracleHibernateProps, jdbcMetricsListener);
+        batchSizeController.ifAvailable(controller -> oracleHibernateProps.put(AdaptiveBatchSizeController.PROPERTY, controller));
+        if (!schemaSnapshotDirectory.isEmpty()) {
+            SchemaSnapshot.register(Path.of(schemaSnapshotDirectory), "oraclePU", oracleHibernateProps, oracleProxyDataSource);
+        }
         return builder
                 .dataSource(oracleProxyDataSource)
                 .packages("com.jw.domain.oracle")
@@ -0,0 +1,229 @@
+package com.jw.config.jpa;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.boot.Metadata;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.internal.SchemaCreatorImpl;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER;
+
+/**
+ * 시작할 때마다 하는 스키마 검사(ddl-auto validate/update 의 테이블별 JDBC 메타데이터 조회)를
+ * 매핑이나 DB 스키마가 바뀌었을 때만 하도록 한다.
+ * <p>
+ * SessionFactory 를 만드는 중(background bootstrap 이면 bootstrap 스레드)에 integrator 로 실행되어,
+ * Hibernate 가 만든 metadata 의 DDL 과 매핑된 테이블의 현재 컬럼 정의(접속 URL, 사용자, 컬럼 이름/타입/크기/NULL 여부)의
+ * hash 를 persistence unit 별 파일과 비교한다. 같으면 그 SessionFactory 의 hibernate.hbm2ddl.auto 를 none 으로 바꾸고,
+ * 다르면 설정된 검사를 실행한 뒤 SessionFactory 생성에 성공했을 때 (update 가 바꾼 뒤의) hash 를 기록한다.
+ * DB 에서 매핑된 테이블의 컬럼이 바뀌면 hash 가 달라져 다시 검사한다. (sequence, index 변경은 보지 않는다)
+ * create, create-drop 등 매번 스키마를 만드는 설정에는 적용하지 않는다.
+ */
+@Slf4j
+public class SchemaSnapshot implements Integrator, SessionFactoryObserver {
+
+    static final String FILE_SUFFIX = ".schema-snapshot";
+
+    private final Path file;
+    private final DataSource dataSource;
+
+    // integrate() 에서 정해 sessionFactoryCreated() 에서 쓴다 (같은 bootstrap 스레드)
+    private List<String> mapping;
+    private Collection<String> tables;
+    private boolean matched;
+
+    SchemaSnapshot(Path file, DataSource dataSource) {
+        this.file = file;
+        this.dataSource = dataSource;
+    }
+
+    // validate/update 일 때만 기존 integrator 뒤에 integrator 와 observer 로 등록한다
+    public static void register(Path directory, String persistenceUnit, Map<String, Object> hibernateProperties,
+                                DataSource dataSource) {
+        Object action = hibernateProperties.get(AvailableSettings.HBM2DDL_AUTO);
+        if (!"validate".equals(action) && !"update".equals(action)) {
+            return;
+        }
+        SchemaSnapshot snapshot = new SchemaSnapshot(directory.resolve(persistenceUnit + FILE_SUFFIX), dataSource);
+        List<Integrator> integrators = new ArrayList<>();
+        Object provider = hibernateProperties.get(INTEGRATOR_PROVIDER);
+        if (provider instanceof IntegratorProvider) {
+            integrators.addAll(((IntegratorProvider) provider).getIntegrators());
+        } else if (provider != null) {
+            throw new IllegalStateException("Unsupported " + INTEGRATOR_PROVIDER + ": " + provider);
+        }
+        integrators.add(snapshot);
+        hibernateProperties.put(INTEGRATOR_PROVIDER, (IntegratorProvider) () -> integrators);
+        hibernateProperties.put(AvailableSettings.SESSION_FACTORY_OBSERVER, snapshot);
+    }
+
+    // 스키마 검사(SchemaManagementToolCoordinator) 전에 호출된다. 같은 properties 를 읽으므로 여기서 바꾸면 검사를 생략한다
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        mapping = new ArrayList<>();
+        mapping.add(sessionFactory.getJdbcServices().getDialect().getClass().getName());
+        mapping.addAll(generateDdl(metadata, serviceRegistry));
+        tables = mappedTables(metadata);
+        matched = matches();
+        Map<String, Object> properties = sessionFactory.getProperties();
+        Object action = properties.get(AvailableSettings.HBM2DDL_AUTO);
+        if (matched) {
+            log.info("schema snapshot matches, skip hbm2ddl {}. file={}", action, file);
+            properties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+        } else {
+            log.info("schema mapping changed or no snapshot, run hbm2ddl {}. file={}", action, file);
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    // 스키마 검사(또는 update)가 끝나고 SessionFactory 가 만들어진 뒤 호출된다. update 가 바꾼 DB 상태로 기록
+    @Override
+    public void sessionFactoryCreated(SessionFactory factory) {
+        if (matched || mapping == null) {
+            return;
+        }
+        try {
+            String fingerprint = fingerprint();
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, fingerprint, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write schema snapshot: " + file, e);
+        } catch (SQLException e) {
+            log.warn("cannot read database schema, snapshot not written. file={}", file, e);
+        }
+    }
+
+    private boolean matches() {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try {
+            return fingerprint().equals(Files.readString(file, StandardCharsets.UTF_8).trim());
+        } catch (IOException | SQLException e) {
+            log.warn("cannot compare schema snapshot. file={}", file, e);
+            return false;
+        }
+    }
+
+    private String fingerprint() throws SQLException {
+        return fingerprint(mapping, readDatabaseSchema(dataSource, tables));
+    }
+
+    // 접속 대상과 매핑된 테이블의 컬럼 정의 (순서와 무관하도록 정렬)
+    static List<String> readDatabaseSchema(DataSource dataSource, Collection<String> tables) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String catalog = connection.getCatalog();
+            String schema = schema(connection);
+            List<String> columns = new ArrayList<>();
+            for (String table : tables) {
+                try (ResultSet rs = metaData.getColumns(catalog, schema, tableNamePattern(metaData, table), "%")) {
+                    while (rs.next()) {
+                        columns.add(rs.getString("TABLE_NAME") + "." + rs.getString("COLUMN_NAME") + " " + rs.getString("TYPE_NAME")
+                                + "(" + rs.getString("COLUMN_SIZE") + "," + rs.getString("DECIMAL_DIGITS") + ") " + rs.getString("IS_NULLABLE"));
+                    }
+                }
+            }
+            Collections.sort(columns);
+            List<String> databaseSchema = new ArrayList<>();
+            databaseSchema.add(metaData.getURL());
+            databaseSchema.add(metaData.getUserName());
+            databaseSchema.addAll(columns);
+            return databaseSchema;
+        }
+    }
+
+    // DB 가 저장하는 대소문자로 바꾸고, 테이블 이름의 _ 가 LIKE 패턴으로 해석되지 않게 escape 한다
+    private static String tableNamePattern(DatabaseMetaData metaData, String table) throws SQLException {
+        String name = table;
+        if (metaData.storesUpperCaseIdentifiers()) {
+            name = name.toUpperCase(Locale.ROOT);
+        } else if (metaData.storesLowerCaseIdentifiers()) {
+            name = name.toLowerCase(Locale.ROOT);
+        }
+        String escape = metaData.getSearchStringEscape();
+        if (escape == null || escape.isEmpty()) {
+            return name;
+        }
+        return name.replace(escape, escape + escape).replace("_", escape + "_").replace("%", escape + "%");
+    }
+
+    // JDBC 4.1 이전 드라이버(ojdbc6)는 getSchema 가 없으므로 접속 사용자를 스키마로 쓴다
+    private static String schema(Connection connection) throws SQLException {
+        try {
+            return connection.getSchema();
+        } catch (AbstractMethodError | SQLFeatureNotSupportedException e) {
+            return connection.getMetaData().getUserName();
+        }
+    }
+
+    static String fingerprint(List<String> mapping, List<String> databaseSchema) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (List<String> values : List.of(mapping, databaseSchema)) {
+                for (String value : values) {
+                    digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) '\n');
+                }
+                digest.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // hbm2ddl create 가 실행할 DDL 과 같은 문장 (sequence, table, index, unique key, foreign key, 순서와 무관하도록 정렬)
+    static List<String> generateDdl(Metadata metadata, ServiceRegistry serviceRegistry) {
+        List<String> ddl = new ArrayList<>(new SchemaCreatorImpl(serviceRegistry).generateCreationCommands(metadata, false));
+        Collections.sort(ddl);
+        return ddl;
+    }
+
+    // 매핑된 물리 테이블 이름 (감사 테이블 포함)
+    static Collection<String> mappedTables(Metadata metadata) {
+        Collection<String> tables = new TreeSet<>();
+        for (Table table : metadata.collectTableMappings()) {
+            if (table.isPhysicalTable()) {
+                tables.add(table.getName());
+            }
+        }
+        return tables;
+    }
+}
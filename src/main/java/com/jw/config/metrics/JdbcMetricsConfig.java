@@ -0,0 +1,38 @@
+package com.jw.config.metrics;
+
+import com.jw.common.metrics.FlushMetricsIntegrator;
+import com.jw.common.metrics.JdbcMetricsListener;
+import com.jw.common.metrics.JdbcOperationAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class JdbcMetricsConfig {
+
+    // persistence unit 설정에 추가하는 Hibernate integrator 목록 키
+    public static final String INTEGRATOR_PROVIDER = "hibernate.integrator_provider";
+
+    // 두 proxy DataSource 가 공유한다. data source 구분은 proxy 이름(ORACLE-LOGGER, MYSQL-LOGGER) 태그로 한다
+    @Bean
+    public JdbcMetricsListener jdbcMetricsListener(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new JdbcMetricsListener(meterRegistry);
+    }
+
+    @Bean
+    public JdbcOperationAspect jdbcOperationAspect() {
+        return new JdbcOperationAspect();
+    }
+
+    // flush 당 statement 수 집계
+    public static void addFlushMetrics(Map<String, Object> hibernateProperties, JdbcMetricsListener jdbcMetricsListener) {
+        List<Integrator> integrators = List.of(new FlushMetricsIntegrator(jdbcMetricsListener));
+        hibernateProperties.put(INTEGRATOR_PROVIDER, (IntegratorProvider) () -> integrators);
+    }
+}
@@ -0,0 +1,34 @@
+package com.jw.domain.mysql.bulk.entity;
+
+import com.jw.common.ledger.BulkLoadLedger;
+import com.jw.common.ledger.BulkLoadLedgerKey;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// BULK_LOAD_LEDGER 테이블 매핑 (기록은 BulkLoadLedger 가 JDBC 로 한다)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = BulkLoadLedger.TABLE_NAME)
+@IdClass(BulkLoadLedgerKey.class)
+public class MyBulkLoadLedgerEntry {
+
+    @Id
+    @Column(name = "LOAD_ID", nullable = false, length = 200)
+    private String loadId;
+
+    @Id
+    @Column(name = "PARTITION_NO", nullable = false)
+    private int partitionNo;
+
+    @Column(name = "POSITION", nullable = false)
+    private long position;
+
+    @Column(name = "UPDATED_AT", nullable = false)
+    private LocalDateTime updatedAt;
+
+}
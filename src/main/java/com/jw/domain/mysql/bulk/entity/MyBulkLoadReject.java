@@ -0,0 +1,40 @@
+package com.jw.domain.mysql.bulk.entity;
+
+import com.jw.common.ledger.BulkLoadRejectKey;
+import com.jw.common.ledger.BulkLoadRejectLog;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// BULK_LOAD_REJECT 테이블 매핑 (기록은 BulkLoadRejectLog 가 JDBC 로 한다)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = BulkLoadRejectLog.TABLE_NAME)
+@IdClass(BulkLoadRejectKey.class)
+public class MyBulkLoadReject {
+
+    @Id
+    @Column(name = "LOAD_ID", nullable = false, length = 200)
+    private String loadId;
+
+    // 건너뛴 레코드의 위치 (CSV 파일 offset, 저널 LSN)
+    @Id
+    @Column(name = "POSITION", nullable = false)
+    private long position;
+
+    @Column(name = "MESSAGE", length = BulkLoadRejectLog.MAX_MESSAGE_LENGTH)
+    private String message;
+
+    // 원본이 남지 않는 작업(저널)의 레코드 내용
+    @Lob
+    @Column(name = "PAYLOAD")
+    private byte[] payload;
+
+    @Column(name = "CREATED_AT", nullable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -1,16 +1,20 @@
 package com.jw.domain.mysql.loan.entity;
 
 import com.jw.common.entity.BulkInsertEntity;
+import com.jw.common.id.IdBlock;
 import com.jw.common.id.SequenceHolder;
+import com.jw.common.jdbc.InstallmentRowBuffer;
 import com.jw.domain.mysql.loan.enums.LoanType;
 import com.jw.domain.mysql.loan.vo.LoanSaveVo;
 import lombok.*;
+import org.hibernate.envers.Audited;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static java.math.BigDecimal.valueOf;
 import static java.math.RoundingMode.HALF_UP;
@@ -19,6 +23,7 @@ import static java.math.RoundingMode.HALF_UP;
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @Builder(access = AccessLevel.PROTECTED)
 @Getter
+@Audited
 @Entity
 @Table(name = "LOAN")
 public class MyLoan extends BulkInsertEntity<Long> {
@@ -40,33 +45,71 @@ public class MyLoan extends BulkInsertEntity<Long> {
     @Column(name = "DURATION_MONTHS", nullable = false)
     private int durationMonths;
 
+    // 저장된 대출의 상환 일정 조회용. 상환 일정은 streamRepaymentSchedule() 로 생성해 바로 저장하므로 저장 직후에도 비어 있다
     @Builder.Default
     @OneToMany(mappedBy = "loan", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<MyLoanSchedule> loanSchedules = new ArrayList<>();
 
-    // Loan 생성 시, LoanSchedule 까지 생성
+    // 첫 상환 일정 ID. 상환 일정 ID 는 여기서 이어지는 연속 범위(IdBlock)이므로 다시 로딩한 대출도 같은 ID 로 일정을 생성한다
+    // 다른 DB 에서 복사한 대출은 null 이며 상환 일정을 다시 생성할 수 없다
+    @Column(name = "FIRST_SCHEDULE_ID")
+    private Long firstScheduleId;
+
+    // Loan 생성 시, LoanSchedule ID 까지 확보 (LoanSchedule 은 저장 시점에 생성)
     public static MyLoan createCreditLoan(LoanSaveVo vo) {
-        MyLoan myLoan = MyLoan.builder()
+        return MyLoan.builder()
                 .id(SequenceHolder.nextValue())
                 .type(LoanType.CREDIT_LOAN)
                 .amount(vo.getAmount())
                 .interestRate(vo.getInterestRate())
                 .durationMonths(vo.getDurationMonths())
+                .firstScheduleId(SequenceHolder.reserve(vo.getDurationMonths()).get(0))
                 .build();
-        myLoan.generateRepaymentSchedule();
-        return myLoan;
     }
 
-    // 대출 실행 시 월별 상환 일정 자동 생성
-    private void generateRepaymentSchedule() {
+    // 금리/기간 변경. 기존 상환 일정은 MyLoanScheduleRepository.deleteAllByLoanId 로 지우고 다시 생성해야 하므로 새 ID 범위를 확보한다
+    public void changeTerms(BigDecimal interestRate, int durationMonths) {
+        if (durationMonths < 1) {
+            throw new IllegalArgumentException("Invalid duration months: " + durationMonths);
+        }
+        this.interestRate = interestRate;
+        this.durationMonths = durationMonths;
+        this.firstScheduleId = SequenceHolder.reserve(durationMonths).get(0);
+    }
+
+    // 월별 상환 일정을 요청할 때마다 하나씩 생성 (전체 목록을 메모리에 만들지 않는다)
+    public Stream<MyLoanSchedule> streamRepaymentSchedule() {
+        return streamRepaymentSchedule(1, durationMonths);
+    }
+
+    public Stream<MyLoanSchedule> streamRepaymentSchedule(int fromInstallmentNo, int toInstallmentNo) {
+        IdBlock scheduleIds = scheduleIds();
+        if (fromInstallmentNo < 1 || toInstallmentNo > durationMonths || fromInstallmentNo > toInstallmentNo + 1) {
+            throw new IllegalArgumentException("Invalid installment range: " + fromInstallmentNo + " ~ " + toInstallmentNo);
+        }
         BigDecimal monthlyPayment = calculateMonthlyPayment();
-        IntStream.rangeClosed(1, durationMonths)
-                .mapToObj(month -> MyLoanSchedule.of(this, month, monthlyPayment))
-                .forEach(loanSchedules::add);
+        return IntStream.rangeClosed(fromInstallmentNo, toInstallmentNo)
+                .mapToObj(month -> MyLoanSchedule.of(scheduleIds.get(month - 1), this, month, monthlyPayment));
+    }
+
+    // 상환 일정을 엔티티 없이 열 단위 버퍼에 추가 (JdbcBulkInsertWriter.insert(InstallmentRowBuffer) 로 저장)
+    public void appendRepaymentSchedule(InstallmentRowBuffer buffer) {
+        IdBlock scheduleIds = scheduleIds();
+        BigDecimal monthlyPayment = calculateMonthlyPayment();
+        for (int month = 1; month <= durationMonths; month++) {
+            buffer.add(scheduleIds.get(month - 1), id, month, monthlyPayment);
+        }
+    }
+
+    private IdBlock scheduleIds() {
+        if (firstScheduleId == null) {
+            throw new IllegalStateException("Repayment schedule ids are unknown for loan: " + id);
+        }
+        return IdBlock.startingAt(firstScheduleId, durationMonths);
     }
 
     // 대출 월 상환금 계산 (원금/기간) + (월 이자)
-    private BigDecimal calculateMonthlyPayment() {
+    public BigDecimal calculateMonthlyPayment() {
         return amount.divide(valueOf(durationMonths), 5, HALF_UP)
                 .add(amount.multiply(interestRate
                         .divide(valueOf(100), 5, HALF_UP)
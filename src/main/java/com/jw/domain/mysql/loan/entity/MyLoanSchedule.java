@@ -3,6 +3,7 @@ package com.jw.domain.mysql.loan.entity;
 import com.jw.common.entity.BulkInsertEntity;
 import com.jw.common.id.SequenceHolder;
 import lombok.*;
+import org.hibernate.envers.Audited;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -11,8 +12,10 @@ import java.math.BigDecimal;
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @Builder(access = AccessLevel.PROTECTED)
 @Getter
+@Audited
 @Entity
-@Table(name = "LOAN_SCHEDULE")
+// 대출별 일정 조회/삭제와 (LOAN_ID, INSTALLMENT_NO) keyset 페이지 조회용 인덱스
+@Table(name = "LOAN_SCHEDULE", indexes = @Index(name = "IX_LOAN_SCHEDULE_LOAN_INSTALLMENT", columnList = "LOAN_ID, INSTALLMENT_NO"))
 public class MyLoanSchedule extends BulkInsertEntity<Long> {
 
     @Id
@@ -31,8 +34,13 @@ public class MyLoanSchedule extends BulkInsertEntity<Long> {
 
     // 대출 상환 일정 생성 팩토리 메서드
     public static MyLoanSchedule of(MyLoan loan, int installmentNo, BigDecimal paymentAmount) {
+        return of(SequenceHolder.nextValue(), loan, installmentNo, paymentAmount);
+    }
+
+    // 미리 확보한 ID 로 생성 (SequenceHolder.reserve 참고)
+    public static MyLoanSchedule of(Long id, MyLoan loan, int installmentNo, BigDecimal paymentAmount) {
         return MyLoanSchedule.builder()
-                .id(SequenceHolder.nextValue())
+                .id(id)
                 .loan(loan)
                 .installmentNo(installmentNo)
                 .paymentAmount(paymentAmount)
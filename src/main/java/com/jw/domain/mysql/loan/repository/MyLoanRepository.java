@@ -1,7 +1,44 @@
 package com.jw.domain.mysql.loan.repository;
 
+import com.jw.common.repository.BulkInsertRepository;
 import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.vo.LoanScheduleVo;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface MyLoanRepository extends JpaRepository<MyLoan, Long> {
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface MyLoanRepository extends JpaRepository<MyLoan, Long>, BulkInsertRepository<MyLoan> {
+
+    // 커서에서 한 번에 가져올 row 수 (MySQL 은 useCursorFetch=true 인 bulk pool 커넥션이어야 서버 커서로 나누어 받는다)
+    String SCHEDULE_FETCH_SIZE = "1000";
+    String SCHEDULE_VO = "new com.jw.domain.mysql.loan.vo.LoanScheduleVo(s.id, s.loan.id, s.installmentNo, s.paymentAmount)";
+
+    // 상환 일정을 엔티티 대신 VO 로 forward-only 커서에서 하나씩 읽는다. 일정 길이와 관계없이 메모리 사용이 일정하다
+    // @BulkWorkload 트랜잭션 안에서 호출하고 try-with-resources 로 닫아야 한다
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = SCHEDULE_FETCH_SIZE))
+    @Query("select " + SCHEDULE_VO + " from MyLoanSchedule s where s.loan.id = :loanId order by s.installmentNo")
+    Stream<LoanScheduleVo> streamSchedules(@Param("loanId") Long loanId);
+
+    // (LOAN_ID, INSTALLMENT_NO) 이후의 상환 일정 한 페이지. offset 없이 인덱스 범위 조회만 한다
+    @Query("select " + SCHEDULE_VO + " from MyLoanSchedule s"
+            + " where s.loan.id >= :loanId and (s.loan.id > :loanId or s.installmentNo > :installmentNo)"
+            + " order by s.loan.id, s.installmentNo")
+    List<LoanScheduleVo> findSchedulesAfter(@Param("loanId") Long loanId, @Param("installmentNo") int installmentNo,
+                                            Pageable pageable);
+
+    // last 가 null 이면 첫 페이지
+    default List<LoanScheduleVo> findSchedulesAfter(LoanScheduleVo last, int size) {
+        return last == null
+                ? findSchedulesAfter(Long.MIN_VALUE, 0, PageRequest.of(0, size))
+                : findSchedulesAfter(last.getLoanId(), last.getInstallmentNo(), PageRequest.of(0, size));
+    }
 }
@@ -0,0 +1,47 @@
+package com.jw.domain.mysql.loan.service;
+
+import com.jw.common.audit.BulkAuditWriter;
+import com.jw.common.datasource.BulkWorkload;
+import com.jw.common.jdbc.KeysetCopyJob;
+import com.jw.common.jdbc.TableCopyResult;
+import com.jw.common.metrics.JdbcOperation;
+import com.jw.config.jdbc.BulkInsertProperties;
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.entity.MyLoanSchedule;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.envers.RevisionType;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Oracle 의 LOAN / LOAN_SCHEDULE 을 MySQL 로 복사한다.
+ * <p>
+ * 같은 copyId 로 다시 호출하면 중단된 위치부터 이어서 복사한다. 테이블마다 copyId 뒤에 테이블 이름을 붙여 원장에 기록한다.
+ * 대상 테이블에 같은 ID 가 이미 있으면 실패하므로 새 copyId 는 비어 있는 범위에만 사용한다.
+ * 복사한 행은 chunk 를 커밋하는 트랜잭션에서 revision 하나로 감사 테이블에 ADD 로 기록한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MyLoanCopyService {
+
+    @Qualifier("oracleToMysqlCopyJob")
+    private final KeysetCopyJob copyJob;
+    private final BulkInsertProperties bulkInsertProperties;
+
+    @Qualifier("mysqlAuditWriter")
+    private final BulkAuditWriter auditWriter;
+
+    // 상환 일정이 대출을 참조하므로 LOAN 을 먼저 복사한다
+    @BulkWorkload
+    @JdbcOperation
+    public List<TableCopyResult> copyFromOracle(String copyId) {
+        int partitionCount = bulkInsertProperties.getCopy().getPartitionCount();
+        TableCopyResult loans = copyJob.copy(copyId + ":LOAN", MyLoan.class, partitionCount,
+                ids -> auditWriter.auditById(RevisionType.ADD, MyLoan.class, ids));
+        TableCopyResult schedules = copyJob.copy(copyId + ":LOAN_SCHEDULE", MyLoanSchedule.class, partitionCount,
+                ids -> auditWriter.auditById(RevisionType.ADD, MyLoanSchedule.class, ids));
+        return List.of(loans, schedules);
+    }
+}
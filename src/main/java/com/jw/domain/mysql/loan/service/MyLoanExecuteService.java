@@ -1,24 +1,202 @@
 package com.jw.domain.mysql.loan.service;
 
+import com.jw.common.audit.BulkAuditWriter;
+import com.jw.common.cache.CommitAwareCache;
+import com.jw.common.datasource.BulkWorkload;
+import com.jw.common.jdbc.InstallmentRowBuffer;
+import com.jw.common.jdbc.JdbcBulkInsertWriter;
+import com.jw.common.jdbc.MysqlLoadDataWriter;
+import com.jw.common.jdbc.ParallelBulkInsertCoordinator;
+import com.jw.common.metrics.JdbcOperation;
+import com.jw.config.jdbc.BulkInsertProperties;
 import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.entity.MyLoanSchedule;
 import com.jw.domain.mysql.loan.repository.MyLoanRepository;
+import com.jw.domain.mysql.loan.repository.MyLoanScheduleRepository;
+import com.jw.domain.mysql.loan.vo.LoanHeaderVo;
 import com.jw.domain.mysql.loan.vo.LoanSaveVo;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.envers.RevisionType;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class MyLoanExecuteService {
 
+    // 상환 일정 감사 행을 대출 단위로 복사할 때의 key 컬럼
+    private static final String SCHEDULE_LOAN_ID = "LOAN_ID";
+
     private final MyLoanRepository myLoanRepository;
+    private final MyLoanScheduleRepository myLoanScheduleRepository;
+
+    @Qualifier("mysqlBulkInsertWriter")
+    private final JdbcBulkInsertWriter bulkInsertWriter;
+    private final MysqlLoadDataWriter mysqlLoadDataWriter;
+
+    @Qualifier("mysqlParallelBulkInsertCoordinator")
+    private final ParallelBulkInsertCoordinator parallelBulkInsertCoordinator;
+    private final BulkInsertProperties bulkInsertProperties;
+
+    // 대출 정보는 커밋 후에 캐시에 넣는다
+    @Qualifier("mysqlLoanCache")
+    private final CommitAwareCache<Long, LoanHeaderVo> loanCache;
 
+    // 감사 행은 엔티티 이벤트 대신 호출마다 revision 하나로 기록한다
+    @Qualifier("mysqlAuditWriter")
+    private final BulkAuditWriter auditWriter;
+
+    // 상환 일정은 생성하면서 바로 저장하므로 반환하는 대출의 loanSchedules 는 비어 있다 (MyLoanQueryService 로 조회)
+    @JdbcOperation
     @Transactional(transactionManager = "mysqlTransactionManager")
     public MyLoan executeCreditLoan(LoanSaveVo vo) {
         MyLoan myLoan = MyLoan.createCreditLoan(vo);
         MyLoan save = myLoanRepository.save(myLoan);
+        myLoanScheduleRepository.persistAllInChunks(myLoan.streamRepaymentSchedule());
         myLoanRepository.flush();
+        auditCreated(List.of(save.getId()));
+        loanCache.putAfterCommit(save.getId(), LoanHeaderVo.of(save));
         return save;
     }
 
+    // 여러 대출을 한 트랜잭션으로 저장. 상환 일정은 대출 경계와 관계없이 batch size 단위로 insert 된다
+    // group commit, 저널 반영, CSV 적재가 수백 건씩 호출하므로 bulk pool 을 쓴다
+    @BulkWorkload
+    @JdbcOperation
+    @Transactional(transactionManager = "mysqlTransactionManager")
+    public List<MyLoan> executeCreditLoans(List<LoanSaveVo> vos) {
+        List<MyLoan> myLoans = vos.stream().map(MyLoan::createCreditLoan).collect(Collectors.toList());
+        myLoanRepository.saveAll(myLoans);
+        myLoanScheduleRepository.persistAllInChunks(myLoans.stream().flatMap(MyLoan::streamRepaymentSchedule));
+        myLoanRepository.flush();
+        auditCreated(myLoans.stream().map(MyLoan::getId).collect(Collectors.toList()));
+        loanCache.putAllAfterCommit(myLoans.stream()
+                .collect(Collectors.toMap(MyLoan::getId, LoanHeaderVo::of)));
+        return myLoans;
+    }
+
+    // 영속성 컨텍스트 없이 JDBC 로 직접 insert
+    @BulkWorkload
+    @JdbcOperation
+    @Transactional(transactionManager = "mysqlTransactionManager")
+    public MyLoan executeCreditLoanNative(LoanSaveVo vo) {
+        MyLoan myLoan = MyLoan.createCreditLoan(vo);
+        bulkInsertWriter.insert(MyLoan.class, List.of(myLoan));
+        bulkInsertWriter.insert(MyLoanSchedule.class, myLoan.streamRepaymentSchedule());
+        auditCreated(List.of(myLoan.getId()));
+        loanCache.putAfterCommit(myLoan.getId(), LoanHeaderVo.of(myLoan));
+        return myLoan;
+    }
+
+    // 상환 일정을 엔티티 대신 열 단위 버퍼로 만들어 insert (row 당 힙 사용 24 byte)
+    @BulkWorkload
+    @JdbcOperation
+    @Transactional(transactionManager = "mysqlTransactionManager")
+    public MyLoan executeCreditLoanColumnar(LoanSaveVo vo) {
+        MyLoan myLoan = MyLoan.createCreditLoan(vo);
+        bulkInsertWriter.insert(MyLoan.class, List.of(myLoan));
+        InstallmentRowBuffer schedules = new InstallmentRowBuffer(MyLoanSchedule.class, myLoan.getDurationMonths());
+        myLoan.appendRepaymentSchedule(schedules);
+        bulkInsertWriter.insert(schedules);
+        auditCreated(List.of(myLoan.getId()));
+        loanCache.putAfterCommit(myLoan.getId(), LoanHeaderVo.of(myLoan));
+        return myLoan;
+    }
+
+    // 상환 일정을 LOAD DATA LOCAL INFILE 로 적재 (allowLoadLocalInfile 이 꺼져 있으면 multi-row insert)
+    @BulkWorkload
+    @JdbcOperation
+    @Transactional(transactionManager = "mysqlTransactionManager")
+    public MyLoan executeCreditLoanLoadData(LoanSaveVo vo) {
+        MyLoan myLoan = MyLoan.createCreditLoan(vo);
+        bulkInsertWriter.insert(MyLoan.class, List.of(myLoan));
+        mysqlLoadDataWriter.load(MyLoanSchedule.class, myLoan.streamRepaymentSchedule());
+        auditCreated(List.of(myLoan.getId()));
+        loanCache.putAfterCommit(myLoan.getId(), LoanHeaderVo.of(myLoan));
+        return myLoan;
+    }
+
+    // 금리/기간 변경 후 상환 일정 교체. 기존 일정은 로딩하지 않고 한 번의 DELETE 로 지운 뒤 열 단위 버퍼로 insert
+    // 삭제 시 영속성 컨텍스트를 비우므로 반환하는 대출은 준영속 상태다 (일정이 길면 수십만 건이므로 bulk pool 사용)
+    @BulkWorkload
+    @JdbcOperation
+    @Transactional(transactionManager = "mysqlTransactionManager")
+    public MyLoan replaceRepaymentSchedule(Long loanId, BigDecimal interestRate, int durationMonths) {
+        MyLoan myLoan = myLoanRepository.findById(loanId)
+                .orElseThrow(() -> new IllegalArgumentException("Loan not found: " + loanId));
+        myLoan.changeTerms(interestRate, durationMonths);
+        // 삭제할 일정은 지우기 전에 DEL 로 기록
+        auditWriter.audit(RevisionType.DEL, MyLoanSchedule.class, SCHEDULE_LOAN_ID, List.of(loanId));
+        myLoanScheduleRepository.deleteAllByLoanId(loanId);
+        InstallmentRowBuffer schedules = new InstallmentRowBuffer(MyLoanSchedule.class, durationMonths);
+        myLoan.appendRepaymentSchedule(schedules);
+        bulkInsertWriter.insert(schedules);
+        auditWriter.auditById(RevisionType.MOD, MyLoan.class, List.of(loanId));
+        auditWriter.audit(RevisionType.ADD, MyLoanSchedule.class, SCHEDULE_LOAN_ID, List.of(loanId));
+        loanCache.putAfterCommit(myLoan.getId(), LoanHeaderVo.of(myLoan));
+        return myLoan;
+    }
+
+    // 상환 일정 재적재/정정. 저장된 엔티티는 save() 가 merge 로 row 마다 select 하므로 upsert 로 한 번에 반영
+    @BulkWorkload
+    @JdbcOperation
+    @Transactional(transactionManager = "mysqlTransactionManager")
+    public long upsertLoanSchedules(List<MyLoanSchedule> schedules) {
+        long result = bulkInsertWriter.upsert(MyLoanSchedule.class, schedules);
+        auditWriter.auditUpsertById(MyLoanSchedule.class,
+                schedules.stream().map(MyLoanSchedule::getId).collect(Collectors.toList()));
+        return result;
+    }
+
+    // 상환 일정을 partition 으로 나누어 여러 커넥션에서 동시에 insert (partition 별 트랜잭션)
+    // 다른 커넥션에서 대출을 참조해야 하므로 대출은 먼저 커밋한다. loadId 는 호출자가 정하는 적재 ID 로,
+    // 같은 loadId 로 다시 호출하면 새 대출을 만들지 않고 이전 호출의 대출에 남은 partition 만 적재한다
+    @BulkWorkload
+    @JdbcOperation
+    public MyLoan executeCreditLoanParallel(String loadId, LoanSaveVo vo) {
+        int partitionSize = bulkInsertProperties.getPartitionSize();
+        int partitionCount = (vo.getDurationMonths() + partitionSize - 1) / partitionSize;
+        long loanId = parallelBulkInsertCoordinator.begin(loadId, MyLoan.class, () -> MyLoan.createCreditLoan(vo), partitionCount);
+        return loadRepaymentSchedule(loadId, loanId);
+    }
+
+    // 중단된 병렬 적재를 loadId 만으로 이어서 실행
+    @BulkWorkload
+    @JdbcOperation
+    public MyLoan resumeCreditLoanParallel(String loadId) {
+        return loadRepaymentSchedule(loadId, parallelBulkInsertCoordinator.getParentId(loadId));
+    }
+
+    // partition 경계는 기록된 partition 수와 대출 기간으로만 정해지므로 재개해도 같은 구간, 같은 ID 로 생성된다
+    private MyLoan loadRepaymentSchedule(String loadId, long loanId) {
+        MyLoan myLoan = myLoanRepository.findById(loanId)
+                .orElseThrow(() -> new IllegalStateException("Loan not found. loadId=" + loadId + ", loanId=" + loanId));
+        int durationMonths = myLoan.getDurationMonths();
+        int partitionCount = parallelBulkInsertCoordinator.getPartitionCount(loadId);
+        int partitionSize = (durationMonths + partitionCount - 1) / partitionCount;
+        parallelBulkInsertCoordinator.load(loadId, MyLoanSchedule.class, partitionCount,
+                partitionNo -> myLoan.streamRepaymentSchedule(
+                        partitionNo * partitionSize + 1,
+                        Math.min(durationMonths, (partitionNo + 1) * partitionSize)));
+        // partition 이 모두 커밋된 뒤 대출과 전체 일정을 revision 하나로 기록. revision 은 원장에 함께 남겨 재개 시 중복 기록하지 않는다
+        auditWriter.withRevision(() -> parallelBulkInsertCoordinator.complete(loadId, () -> {
+            auditCreated(List.of(myLoan.getId()));
+            return auditWriter.currentRevision();
+        }));
+        loanCache.putAfterCommit(myLoan.getId(), LoanHeaderVo.of(myLoan));
+        return myLoan;
+    }
+
+    // 새 대출과 상환 일정을 revision 하나에 기록 (트랜잭션 밖이면 새 트랜잭션)
+    private void auditCreated(List<Long> loanIds) {
+        auditWriter.withRevision(() -> {
+            auditWriter.auditById(RevisionType.ADD, MyLoan.class, loanIds);
+            auditWriter.audit(RevisionType.ADD, MyLoanSchedule.class, SCHEDULE_LOAN_ID, loanIds);
+        });
+    }
 }
@@ -0,0 +1,42 @@
+package com.jw.domain.mysql.loan.service;
+
+import com.jw.common.datasource.BulkWorkload;
+import com.jw.common.ingest.CsvRecord;
+import com.jw.common.ingest.FileImportResult;
+import com.jw.common.ingest.MappedCsvImporter;
+import com.jw.common.metrics.JdbcOperation;
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+
+/**
+ * CSV 파일의 대출 신청을 한꺼번에 실행한다.
+ * <p>
+ * 파일 형식은 헤더 한 줄 뒤에 "금액,금리,기간(개월)" 이다. checkpoint 단위로 {@link MyLoanExecuteService#executeCreditLoans} 로 저장하므로
+ * 실패한 적재를 같은 importId 로 다시 호출하면 마지막으로 커밋된 위치부터 이어서 적재한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MyLoanImportService {
+
+    @Qualifier("mysqlCsvImporter")
+    private final MappedCsvImporter csvImporter;
+    private final MyLoanExecuteService myLoanExecuteService;
+
+    @BulkWorkload
+    @JdbcOperation
+    public FileImportResult importCreditLoans(String importId, Path file) {
+        return csvImporter.importFile(importId, file, true, MyLoanImportService::toLoanSaveVo, myLoanExecuteService::executeCreditLoans);
+    }
+
+    static LoanSaveVo toLoanSaveVo(CsvRecord record) {
+        return LoanSaveVo.builder()
+                .amount(record.getDecimal(0))
+                .interestRate(record.getDecimal(1))
+                .durationMonths(record.getInt(2))
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.jw.domain.mysql.loan.service;
+
+import com.jw.common.ingest.GroupCommitQueue;
+import com.jw.config.jdbc.BulkInsertProperties;
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 대출 실행 요청을 큐에 모아 여러 건을 한 트랜잭션으로 저장한다. ({@link MyLoanExecuteService#executeCreditLoans})
+ * <p>
+ * 요청마다 트랜잭션을 여는 {@link MyLoanExecuteService#executeCreditLoan} 보다 커밋과 작은 batch 가 줄어든다.
+ * 큐가 가득 차면 호출 스레드가 jw.bulk.group-commit.enqueue-timeout-millis 동안 막히고,
+ * 그래도 자리가 없으면 반환된 future 가 RejectedExecutionException 으로 완료된다.
+ */
+@Service
+public class MyLoanIngestService implements InitializingBean, DisposableBean {
+
+    private final GroupCommitQueue<LoanSaveVo, MyLoan> queue;
+
+    public MyLoanIngestService(MyLoanExecuteService myLoanExecuteService, BulkInsertProperties bulkInsertProperties) {
+        BulkInsertProperties.GroupCommit groupCommit = bulkInsertProperties.getGroupCommit();
+        this.queue = new GroupCommitQueue<>("mysql-loan", groupCommit.getCapacity(), groupCommit.getMaxBatchSize(),
+                groupCommit.getMaxLatencyMillis(), groupCommit.getEnqueueTimeoutMillis(),
+                myLoanExecuteService::executeCreditLoans, myLoanExecuteService::executeCreditLoan);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        queue.start();
+    }
+
+    // 커밋된 뒤 완료된다. 큐가 가득 차면 enqueue-timeout-millis 동안 막힐 수 있다
+    public CompletableFuture<MyLoan> executeCreditLoan(LoanSaveVo vo) {
+        return queue.submit(vo);
+    }
+
+    // 종료 시 큐에 남은 요청까지 커밋
+    @Override
+    public void destroy() {
+        queue.close();
+    }
+}
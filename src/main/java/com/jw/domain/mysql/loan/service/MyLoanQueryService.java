@@ -0,0 +1,55 @@
+package com.jw.domain.mysql.loan.service;
+
+import com.jw.common.cache.CommitAwareCache;
+import com.jw.common.datasource.BulkWorkload;
+import com.jw.domain.mysql.loan.repository.MyLoanRepository;
+import com.jw.domain.mysql.loan.vo.LoanHeaderVo;
+import com.jw.domain.mysql.loan.vo.LoanScheduleVo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 리포팅 등 대량 조회용. 상환 일정을 엔티티로 로딩하지 않고 VO 로 커서/keyset 페이지 단위로 읽는다.
+ * 대출 정보는 캐시에서 읽고, 상환 일정은 캐시하지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MyLoanQueryService {
+
+    private final MyLoanRepository myLoanRepository;
+
+    @Qualifier("mysqlLoanCache")
+    private final CommitAwareCache<Long, LoanHeaderVo> loanCache;
+
+    // 트랜잭션을 열지 않으므로 캐시에 있으면 커넥션을 쓰지 않는다. 없으면 repository 의 읽기 전용 트랜잭션으로 읽어 캐시에 넣는다
+    public Optional<LoanHeaderVo> findLoan(Long loanId) {
+        return loanCache.get(loanId, id -> myLoanRepository.findById(id).map(LoanHeaderVo::of).orElse(null));
+    }
+
+    // 커서가 열려 있는 동안 action 을 호출하고 읽은 건수를 반환. 커넥션을 오래 잡으므로 bulk pool 에서 가져온다
+    @BulkWorkload
+    @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
+    public long forEachSchedule(Long loanId, Consumer<LoanScheduleVo> action) {
+        long count = 0;
+        try (Stream<LoanScheduleVo> schedules = myLoanRepository.streamSchedules(loanId)) {
+            for (LoanScheduleVo schedule : (Iterable<LoanScheduleVo>) schedules::iterator) {
+                action.accept(schedule);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // last 다음부터 size 건. 마지막 원소를 다음 호출의 last 로 넘긴다 (첫 페이지는 null)
+    @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
+    public List<LoanScheduleVo> findSchedulesAfter(LoanScheduleVo last, int size) {
+        return myLoanRepository.findSchedulesAfter(last, size);
+    }
+}
@@ -0,0 +1,28 @@
+package com.jw.domain.mysql.loan.vo;
+
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.enums.LoanType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+// 캐시용 대출 정보. 상환 일정 컬렉션은 담지 않는다
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+@ToString
+public class LoanHeaderVo {
+    private Long id;
+    private LoanType type;
+    private BigDecimal amount;
+    private BigDecimal interestRate;
+    private int durationMonths;
+    private BigDecimal monthlyPayment;
+
+    public static LoanHeaderVo of(MyLoan loan) {
+        return new LoanHeaderVo(loan.getId(), loan.getType(), loan.getAmount(), loan.getInterestRate(),
+                loan.getDurationMonths(), loan.calculateMonthlyPayment());
+    }
+}
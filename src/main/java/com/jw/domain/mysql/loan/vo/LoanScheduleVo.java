@@ -0,0 +1,18 @@
+package com.jw.domain.mysql.loan.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+// 상환 일정 조회용 projection. 엔티티가 아니므로 영속성 컨텍스트에 쌓이지 않는다
+@AllArgsConstructor
+@Getter
+@ToString
+public class LoanScheduleVo {
+    private Long id;
+    private Long loanId;
+    private int installmentNo;
+    private BigDecimal paymentAmount;
+}
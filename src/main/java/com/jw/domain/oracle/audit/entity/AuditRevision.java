@@ -0,0 +1,17 @@
+package com.jw.domain.oracle.audit.entity;
+
+import com.jw.common.audit.AuditRevisionEntity;
+import com.jw.common.audit.AuditRevisionListener;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hibernate.envers.RevisionEntity;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@RevisionEntity(AuditRevisionListener.class)
+@Table(name = AuditRevisionEntity.TABLE_NAME)
+public class AuditRevision extends AuditRevisionEntity {
+}
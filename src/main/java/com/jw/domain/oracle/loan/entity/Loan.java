@@ -1,14 +1,21 @@
 package com.jw.domain.oracle.loan.entity;
 
+import com.jw.common.entity.BulkInsertEntity;
+import com.jw.common.id.PrefetchSequenceGenerator;
+import com.jw.common.jdbc.InstallmentRowBuffer;
 import com.jw.domain.oracle.loan.enums.LoanType;
 import com.jw.domain.oracle.loan.vo.LoanSaveVo;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.envers.Audited;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static java.math.BigDecimal.valueOf;
 import static java.math.RoundingMode.HALF_UP;
@@ -17,10 +24,14 @@ import static java.math.RoundingMode.HALF_UP;
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @Builder(access = AccessLevel.PROTECTED)
 @Getter
+@Audited
 @Entity
 @Table(name = "LOAN")
-@SequenceGenerator(name = "LOAN_SQ_GEN", sequenceName = "SQ_LOAN", allocationSize = 1)
-public class Loan {
+@GenericGenerator(name = "LOAN_SQ_GEN", strategy = "com.jw.common.id.PrefetchSequenceGenerator", parameters = {
+        @Parameter(name = PrefetchSequenceGenerator.SEQUENCE_NAME, value = "SQ_LOAN"),
+        @Parameter(name = PrefetchSequenceGenerator.BLOCK_SIZE, value = "100")
+})
+public class Loan extends BulkInsertEntity<Long> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "LOAN_SQ_GEN")
@@ -40,32 +51,71 @@ public class Loan {
     @Column(name = "DURATION_MONTHS", nullable = false)
     private int durationMonths;
 
+    // 저장된 대출의 상환 일정 조회용. 새 대출의 상환 일정은 streamRepaymentSchedule() 로 생성한다
     @Builder.Default
     @OneToMany(mappedBy = "loan", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<LoanSchedule> loanSchedules = new ArrayList<>();
 
-    // Loan 생성 시, LoanSchedule 까지 생성
+    // changeTerms() 로 조건이 바뀌어 저장된 대출이라도 상환 일정을 다시 생성할 수 있는 상태
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean termsChanged;
+
+    // Loan 생성 (LoanSchedule 은 저장 시점에 생성)
     public static Loan createCreditLoan(LoanSaveVo vo) {
-        Loan loan = Loan.builder()
+        return Loan.builder()
                 .type(LoanType.CREDIT_LOAN)
                 .amount(vo.getAmount())
                 .interestRate(vo.getInterestRate())
                 .durationMonths(vo.getDurationMonths())
                 .build();
-        loan.generateRepaymentSchedule();
-        return loan;
     }
 
-    // 대출 실행 시 월별 상환 일정 자동 생성
-    private void generateRepaymentSchedule() {
+    // 금리/기간 변경. 기존 상환 일정은 LoanScheduleRepository.deleteAllByLoanId 로 지우고 다시 생성해야 한다
+    public void changeTerms(BigDecimal interestRate, int durationMonths) {
+        if (durationMonths < 1) {
+            throw new IllegalArgumentException("Invalid duration months: " + durationMonths);
+        }
+        this.interestRate = interestRate;
+        this.durationMonths = durationMonths;
+        this.termsChanged = true;
+    }
+
+    // 월별 상환 일정을 요청할 때마다 하나씩 생성 (전체 목록을 메모리에 만들지 않는다)
+    public Stream<LoanSchedule> streamRepaymentSchedule() {
+        return streamRepaymentSchedule(1, durationMonths);
+    }
+
+    public Stream<LoanSchedule> streamRepaymentSchedule(int fromInstallmentNo, int toInstallmentNo) {
+        if (!isNew() && !termsChanged) {
+            throw new IllegalStateException("Repayment schedule can only be generated for a new loan: " + id);
+        }
+        return regenerateRepaymentSchedule(fromInstallmentNo, toInstallmentNo);
+    }
+
+    // 저장된 대출이라도 구간의 상환 일정을 생성. 병렬 적재를 이어서 할 때 아직 커밋되지 않은 partition 에만 사용한다
+    public Stream<LoanSchedule> regenerateRepaymentSchedule(int fromInstallmentNo, int toInstallmentNo) {
+        if (fromInstallmentNo < 1 || toInstallmentNo > durationMonths || fromInstallmentNo > toInstallmentNo + 1) {
+            throw new IllegalArgumentException("Invalid installment range: " + fromInstallmentNo + " ~ " + toInstallmentNo);
+        }
+        BigDecimal monthlyPayment = calculateMonthlyPayment();
+        return IntStream.rangeClosed(fromInstallmentNo, toInstallmentNo)
+                .mapToObj(month -> LoanSchedule.of(this, month, monthlyPayment));
+    }
+
+    // 상환 일정을 엔티티 없이 열 단위 버퍼에 추가 (JdbcBulkInsertWriter.insert(InstallmentRowBuffer) 로 저장)
+    public void appendRepaymentSchedule(InstallmentRowBuffer buffer) {
+        if (!isNew() && !termsChanged || id == null) {
+            throw new IllegalStateException("Repayment schedule can only be generated for a saved new loan: " + id);
+        }
         BigDecimal monthlyPayment = calculateMonthlyPayment();
-        IntStream.rangeClosed(1, durationMonths)
-                .mapToObj(month -> LoanSchedule.of(this, month, monthlyPayment))
-                .forEach(loanSchedules::add);
+        for (int month = 1; month <= durationMonths; month++) {
+            buffer.addWithoutId(id, month, monthlyPayment);
+        }
     }
 
     // 대출 월 상환금 계산 (원금/기간) + (월 이자)
-    private BigDecimal calculateMonthlyPayment() {
+    public BigDecimal calculateMonthlyPayment() {
         return amount.divide(valueOf(durationMonths), 5, HALF_UP)
                 .add(amount.multiply(interestRate
                         .divide(valueOf(100), 5, HALF_UP)
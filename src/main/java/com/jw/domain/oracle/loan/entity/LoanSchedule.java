@@ -1,6 +1,11 @@
 package com.jw.domain.oracle.loan.entity;
 
+import com.jw.common.entity.BulkInsertEntity;
+import com.jw.common.id.PrefetchSequenceGenerator;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.envers.Audited;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -9,10 +14,15 @@ import java.math.BigDecimal;
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @Builder(access = AccessLevel.PROTECTED)
 @Getter
+@Audited
 @Entity
-@Table(name = "LOAN_SCHEDULE")
-@SequenceGenerator(name = "LOAN_SCHEDULE_SQ_GEN", sequenceName = "SQ_LOAN_SCHEDULE", allocationSize = 1)
-public class LoanSchedule {
+// 대출별 일정 조회/삭제와 (LOAN_ID, INSTALLMENT_NO) keyset 페이지 조회용 인덱스
+@Table(name = "LOAN_SCHEDULE", indexes = @Index(name = "IX_LOAN_SCHEDULE_LOAN_INSTALLMENT", columnList = "LOAN_ID, INSTALLMENT_NO"))
+@GenericGenerator(name = "LOAN_SCHEDULE_SQ_GEN", strategy = "com.jw.common.id.PrefetchSequenceGenerator", parameters = {
+        @Parameter(name = PrefetchSequenceGenerator.SEQUENCE_NAME, value = "SQ_LOAN_SCHEDULE"),
+        @Parameter(name = PrefetchSequenceGenerator.BLOCK_SIZE, value = "5000")
+})
+public class LoanSchedule extends BulkInsertEntity<Long> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "LOAN_SCHEDULE_SQ_GEN")
@@ -0,0 +1,17 @@
+package com.jw.domain.oracle.loan.repository;
+
+import com.jw.common.repository.BulkInsertRepository;
+import com.jw.domain.oracle.loan.entity.LoanSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface LoanScheduleRepository extends JpaRepository<LoanSchedule, Long>, BulkInsertRepository<LoanSchedule> {
+
+    // 상환 일정을 로딩하지 않고 한 번의 DELETE 로 삭제 (orphanRemoval 은 row 마다 로딩 후 DELETE)
+    // 실행 전 flush, 실행 후 영속성 컨텍스트를 비워 삭제된 일정이 남지 않게 한다
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from LoanSchedule s where s.loan.id = :loanId")
+    int deleteAllByLoanId(@Param("loanId") Long loanId);
+}
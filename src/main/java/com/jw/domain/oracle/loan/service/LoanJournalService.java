@@ -0,0 +1,112 @@
+package com.jw.domain.oracle.loan.service;
+
+import com.jw.common.journal.JournalReplayer;
+import com.jw.common.journal.WriteAheadJournal;
+import com.jw.config.jdbc.BulkInsertProperties;
+import com.jw.domain.oracle.loan.vo.LoanSaveVo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 대출 실행 요청을 로컬 저널에 fsync 한 뒤 바로 응답하고, DB 에는 replayer 가 {@link LoanExecuteService#executeCreditLoans} 로 반영한다.
+ * <p>
+ * DB 가 잠시 멈춰도 요청 스레드는 디스크 fsync 만 기다린다. 저널에 기록된 요청은 재시작 후에도 반영된다.
+ * 반영이 실패해 다시 시작을 기다리는 동안 health 는 DOWN 이다. jw.bulk.journal.enabled=true 일 때만 등록된다.
+ */
+@Service
+@ConditionalOnProperty(prefix = "jw.bulk.journal", name = "enabled", havingValue = "true")
+public class LoanJournalService implements InitializingBean, DisposableBean, HealthIndicator {
+
+    private final WriteAheadJournal journal;
+    private final JournalReplayer<LoanSaveVo> replayer;
+
+    public LoanJournalService(LoanExecuteService loanExecuteService, BulkInsertProperties bulkInsertProperties,
+            @Qualifier("oracleProxyDataSource") DataSource oracleProxyDataSource,
+            @Qualifier("oracleTransactionManager") PlatformTransactionManager oracleTransactionManager,
+            ObjectProvider<MeterRegistry> meterRegistry) throws IOException {
+        BulkInsertProperties.Journal properties = bulkInsertProperties.getJournal();
+        this.journal = new WriteAheadJournal("oracle-loan", Path.of(properties.getDirectory(), "oracle"),
+                properties.getSegmentSize().toBytes(), properties.getCapacity(), properties.getMaxBatchSize(),
+                properties.getMaxLatencyMillis(), properties.getEnqueueTimeoutMillis());
+        this.replayer = new JournalReplayer<>("oracle-loan", journal, LoanJournalService::decode, loanExecuteService::executeCreditLoans,
+                oracleProxyDataSource, oracleTransactionManager, properties.getReplayBatchSize(),
+                properties.getReplayIdleMillis(), properties.getReplayRetryDelayMillis(), properties.getReplayMaxRetries(),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        journal.start();
+        replayer.start();
+    }
+
+    // 저널에 fsync 된 뒤 LSN 으로 완료된다. 기록 큐가 가득 차면 enqueue-timeout-millis 동안 막힐 수 있다
+    public CompletableFuture<Long> executeCreditLoan(LoanSaveVo vo) {
+        return journal.append(encode(vo));
+    }
+
+    // 저널에는 있지만 아직 DB 에 반영되지 않은 요청 수
+    public long getReplayLag() {
+        return replayer.getLag();
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = replayer.isHealthy() ? Health.up() : Health.down(replayer.getLastFailure());
+        return builder.withDetail("replayedLsn", replayer.getReplayedLsn())
+                .withDetail("lag", replayer.getLag())
+                .withDetail("deadLetters", replayer.getDeadLetterCount())
+                .build();
+    }
+
+    // 받은 요청을 모두 fsync 한 뒤 반영을 멈춘다. 남은 요청은 다음 시작 때 반영
+    @Override
+    public void destroy() throws IOException {
+        journal.close();
+        replayer.close();
+    }
+
+    static byte[] encode(LoanSaveVo vo) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(vo.getAmount().toPlainString());
+            out.writeUTF(vo.getInterestRate().toPlainString());
+            out.writeInt(vo.getDurationMonths());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static LoanSaveVo decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return LoanSaveVo.builder()
+                    .amount(new BigDecimal(in.readUTF()))
+                    .interestRate(new BigDecimal(in.readUTF()))
+                    .durationMonths(in.readInt())
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
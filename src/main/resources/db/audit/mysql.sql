@@ -0,0 +1,10 @@
+-- 감사 이력 테이블 (MySQL). ddl-auto 가 update 가 아닌 환경에서는 배포 전에 실행한다
+-- 컬럼은 @Audited 엔티티(MyLoan, MyLoanSchedule)와 MyAuditRevision 매핑에서 생성한 것과 같다
+-- BulkAuditWriter 의 MOD/ADD 판단(ID 별 마지막 REV 조회)은 기본 키 (ID, REV) 를 사용한다
+create table REVINFO (REV bigint not null, REVTSTMP bigint not null, primary key (REV)) engine=InnoDB;
+
+create table LOAN_AUD (ID bigint not null, REV bigint not null, REVTYPE tinyint, AMOUNT decimal(19,2), DURATION_MONTHS integer, FIRST_SCHEDULE_ID bigint, INTEREST_RATE decimal(3,2), TYPE varchar(255), primary key (ID, REV)) engine=InnoDB;
+alter table LOAN_AUD add constraint FK_LOAN_AUD_REV foreign key (REV) references REVINFO (REV);
+
+create table LOAN_SCHEDULE_AUD (ID bigint not null, REV bigint not null, REVTYPE tinyint, INSTALLMENT_NO integer, PAYMENT_AMOUNT decimal(19,2), LOAN_ID bigint, primary key (ID, REV)) engine=InnoDB;
+alter table LOAN_SCHEDULE_AUD add constraint FK_LOAN_SCHEDULE_AUD_REV foreign key (REV) references REVINFO (REV);
@@ -0,0 +1,10 @@
+-- 감사 이력 테이블 (Oracle). ddl-auto 가 update 가 아닌 환경에서는 배포 전에 실행한다
+-- 컬럼은 @Audited 엔티티(Loan, LoanSchedule)와 AuditRevision 매핑에서 생성한 것과 같다
+-- BulkAuditWriter 의 MOD/ADD 판단(ID 별 마지막 REV 조회)은 기본 키 (ID, REV) 를 사용한다
+create table REVINFO (REV number(19,0) not null, REVTSTMP number(19,0) not null, primary key (REV));
+
+create table LOAN_AUD (ID number(19,0) not null, REV number(19,0) not null, REVTYPE number(3,0), AMOUNT number(19,2), DURATION_MONTHS number(10,0), INTEREST_RATE number(3,2), TYPE varchar2(255 char), primary key (ID, REV));
+alter table LOAN_AUD add constraint FK_LOAN_AUD_REV foreign key (REV) references REVINFO;
+
+create table LOAN_SCHEDULE_AUD (ID number(19,0) not null, REV number(19,0) not null, REVTYPE number(3,0), INSTALLMENT_NO number(10,0), PAYMENT_AMOUNT number(19,2), LOAN_ID number(19,0), primary key (ID, REV));
+alter table LOAN_SCHEDULE_AUD add constraint FK_LOAN_SCHEDULE_AUD_REV foreign key (REV) references REVINFO;
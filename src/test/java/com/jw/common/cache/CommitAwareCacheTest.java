@@ -0,0 +1,96 @@
+package com.jw.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommitAwareCacheTest {
+
+    private final CommitAwareCache<Long, String> cache =
+            new CommitAwareCache<>(Caffeine.newBuilder().maximumSize(2).executor(Runnable::run).recordStats().build());
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void loadsOnceAndRecordsHitsAndMisses() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> "loan-" + loads.incrementAndGet());
+        cache.get(1L, id -> "loan-" + loads.incrementAndGet());
+
+        assertThat(cache.get(1L, id -> null)).contains("loan-1");
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheMissingValues() {
+        assertThat(cache.get(1L, id -> null)).isEmpty();
+        assertThat(cache.estimatedSize()).isZero();
+    }
+
+    @Test
+    void putsOnlyAfterCommit() {
+        cache.get(1L, id -> "old");
+        beginTransaction(false);
+
+        cache.putAfterCommit(1L, "new");
+
+        // 커밋 전에는 이전 값을 지우고 쓰기 트랜잭션 안에서는 캐시를 채우지 않는다
+        assertThat(cache.get(1L, id -> "uncommitted")).contains("uncommitted");
+        assertThat(cache.estimatedSize()).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        clearTransaction();
+        assertThat(cache.get(1L, id -> "reloaded")).contains("new");
+    }
+
+    @Test
+    void rollbackLeavesKeyInvalidated() {
+        cache.get(1L, id -> "old");
+        beginTransaction(false);
+
+        cache.putAfterCommit(1L, "new");
+        clearTransaction();
+
+        assertThat(cache.get(1L, id -> "reloaded")).contains("reloaded");
+    }
+
+    @Test
+    void readOnlyTransactionUsesCache() {
+        cache.get(1L, id -> "cached");
+        beginTransaction(true);
+
+        assertThat(cache.get(1L, id -> "loaded")).contains("cached");
+    }
+
+    @Test
+    void evictsBySize() {
+        for (long id = 1; id <= 10; id++) {
+            cache.putAfterCommit(id, "loan-" + id);
+        }
+
+        assertThat(cache.estimatedSize()).isLessThanOrEqualTo(2);
+        assertThat(cache.stats().evictionCount()).isGreaterThanOrEqualTo(8);
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
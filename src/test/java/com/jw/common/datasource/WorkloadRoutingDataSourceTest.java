@@ -0,0 +1,61 @@
+package com.jw.common.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkloadRoutingDataSourceTest {
+
+    private final WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:oltp", "sa", ""),
+            new DriverManagerDataSource("jdbc:h2:mem:bulk", "sa", ""));
+
+    @Test
+    void routesByWorkload() throws Exception {
+        assertThat(connectedUrl()).isEqualTo("jdbc:h2:mem:oltp");
+
+        Workload previous = WorkloadContext.enter(Workload.BULK);
+        try {
+            assertThat(connectedUrl()).isEqualTo("jdbc:h2:mem:bulk");
+            assertThat(WorkloadContext.propagate(this::connectedUrl).call()).isEqualTo("jdbc:h2:mem:bulk");
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+        assertThat(WorkloadContext.current()).isEqualTo(Workload.OLTP);
+    }
+
+    @Test
+    void bulkWorkloadAnnotationSelectsBulkPool() throws Exception {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new LoadJob());
+        factory.addAspect(new BulkWorkloadAspect());
+        LoadJob job = factory.getProxy();
+
+        assertThat(job.bulk(this::connectedUrl)).isEqualTo("jdbc:h2:mem:bulk");
+        assertThat(job.oltp(this::connectedUrl)).isEqualTo("jdbc:h2:mem:oltp");
+        assertThat(WorkloadContext.current()).isEqualTo(Workload.OLTP);
+    }
+
+    private String connectedUrl() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    static class LoadJob {
+
+        @BulkWorkload
+        public <V> V bulk(Callable<V> task) throws Exception {
+            return task.call();
+        }
+
+        public <V> V oltp(Callable<V> task) throws Exception {
+            return task.call();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.jw.common.enums;
+
+import com.jw.domain.oracle.loan.enums.LoanType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BaseEnumTest {
+
+    @Test
+    void findsConstantByCode() {
+        assertThat(BaseEnum.fromCode(LoanType.class, "CL")).isSameAs(LoanType.CREDIT_LOAN);
+        assertThat(LoanType.fromCode("AL")).isSameAs(LoanType.AUTO_LOAN);
+    }
+
+    @Test
+    void rejectsUnknownCode() {
+        assertThatThrownBy(() -> BaseEnum.fromCode(LoanType.class, "XX"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("XX");
+    }
+}
@@ -0,0 +1,142 @@
+package com.jw.common.id;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 블록 조회를 메모리 시퀀스로 바꿔 생성기 자체의 동시성, 미리 조회, 실패 처리를 확인한다
+class PrefetchSequenceGeneratorTest {
+
+    private static final int BLOCK_ROWS = 10;
+
+    @Test
+    void idsAreUniqueAcrossBlocksAndThreads() throws Exception {
+        FakeSequenceGenerator generator = new FakeSequenceGenerator();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<List<Long>>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(() -> {
+                    List<Long> ids = new ArrayList<>();
+                    for (int i = 0; i < 1_000; i++) {
+                        ids.add(generate(generator));
+                    }
+                    return ids;
+                });
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<List<Long>> future : executor.invokeAll(tasks)) {
+                ids.addAll(future.get());
+            }
+
+            assertThat(ids).hasSize(8_000);
+            assertThat(generator.fetchedBlocks()).isGreaterThanOrEqualTo(8_000 / BLOCK_ROWS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void prefetchesNextBlockBeforeCurrentRunsOut() throws Exception {
+        FakeSequenceGenerator generator = new FakeSequenceGenerator();
+
+        // prefetch_ratio 0.25 → 잔량 2 개부터 미리 조회
+        for (int i = 0; i < BLOCK_ROWS - 2; i++) {
+            generate(generator);
+        }
+        assertThat(generator.detachedStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(generator.detachedFetches).hasValue(1);
+
+        for (int i = 0; i < 2 * BLOCK_ROWS; i++) {
+            generate(generator);
+        }
+        assertThat(generator.sessionFetches).hasValue(1);
+    }
+
+    @Test
+    void fallsBackToSessionFetchWhenPrefetchFails() throws Exception {
+        FakeSequenceGenerator generator = new FakeSequenceGenerator();
+        generator.failDetached.set(true);
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 3 * BLOCK_ROWS; i++) {
+            ids.add(generate(generator));
+        }
+        assertThat(ids).hasSize(3 * BLOCK_ROWS);
+        assertThat(generator.sessionFetches).hasValue(3);
+
+        // 블록마다 한 번씩 실패한 prefetch 가 끝난 뒤에 조회를 되살린다 (마지막 블록의 prefetch 는 아직 실행 중일 수 있다)
+        assertThat(generator.detachedFinished.tryAcquire(3, 5, TimeUnit.SECONDS)).isTrue();
+        generator.failDetached.set(false);
+        // 조회가 다시 성공하면 미리 조회한 블록을 사용한다 (첫 블록은 실패한 prefetch 대신 세션으로 조회)
+        for (int i = 0; i < 3 * BLOCK_ROWS; i++) {
+            ids.add(generate(generator));
+        }
+        assertThat(ids).hasSize(6 * BLOCK_ROWS);
+        assertThat(generator.sessionFetches).hasValue(4);
+    }
+
+    private static long generate(PrefetchSequenceGenerator generator) {
+        Serializable id = generator.generate(null, null);
+        return (Long) id;
+    }
+
+    private static class FakeSequenceGenerator extends PrefetchSequenceGenerator {
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicInteger sessionFetches = new AtomicInteger();
+        private final AtomicInteger detachedFetches = new AtomicInteger();
+        private final AtomicBoolean failDetached = new AtomicBoolean();
+        private final CountDownLatch detachedStarted = new CountDownLatch(1);
+        private final Semaphore detachedFinished = new Semaphore(0);
+
+        private FakeSequenceGenerator() {
+            configure("SQ_TEST", BLOCK_ROWS, 0.25, false);
+        }
+
+        @Override
+        SequenceBlock fetchBlock(SharedSessionContractImplementor session) {
+            sessionFetches.incrementAndGet();
+            return nextBlock();
+        }
+
+        @Override
+        SequenceBlock fetchDetachedBlock() {
+            detachedStarted.countDown();
+            try {
+                if (failDetached.get()) {
+                    throw new HibernateException("prefetch failed");
+                }
+                detachedFetches.incrementAndGet();
+                return nextBlock();
+            } finally {
+                detachedFinished.release();
+            }
+        }
+
+        private SequenceBlock nextBlock() {
+            return SequenceBlock.startingAt(sequence.getAndAdd(BLOCK_ROWS) + 1, BLOCK_ROWS);
+        }
+
+        private int fetchedBlocks() {
+            return sessionFetches.get() + detachedFetches.get();
+        }
+    }
+}
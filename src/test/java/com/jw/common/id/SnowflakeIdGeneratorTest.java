@@ -0,0 +1,136 @@
+package com.jw.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void nextIdIsMonotonic() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        long previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long next = generator.nextId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void reserveReturnsIncreasingRange() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        IdBlock block = generator.reserve(10_000);
+        long afterBlock = generator.nextId();
+
+        assertThat(block.size()).isEqualTo(10_000);
+        for (int i = 1; i < block.size(); i++) {
+            assertThat(block.get(i)).isGreaterThan(block.get(i - 1));
+        }
+        assertThat(afterBlock).isGreaterThan(block.get(block.size() - 1));
+    }
+
+    @Test
+    void blockIsRestoredFromFirstId() {
+        IdBlock block = new SnowflakeIdGenerator(5).reserve(10_000);
+        IdBlock restored = IdBlock.startingAt(block.get(0), block.size());
+
+        for (int i = 0; i < block.size(); i++) {
+            assertThat(restored.get(i)).isEqualTo(block.get(i));
+        }
+    }
+
+    @Test
+    void idsDoNotCollideAcrossThreads() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<long[]>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(() -> {
+                    long[] ids = new long[20_000];
+                    IdBlock block = generator.reserve(10_000);
+                    for (int i = 0; i < 10_000; i++) {
+                        ids[i] = block.next();
+                        ids[10_000 + i] = generator.nextId();
+                    }
+                    return ids;
+                });
+            }
+            Set<Long> unique = new HashSet<>();
+            for (Future<long[]> future : executor.invokeAll(tasks)) {
+                for (long id : future.get()) {
+                    unique.add(id);
+                }
+            }
+            assertThat(unique).hasSize(8 * 20_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void keepsMonotonicWhenClockGoesBackwards() {
+        long[] now = {SnowflakeIdGenerator.DEFAULT_EPOCH_MILLIS + 10_000};
+        SnowflakeIdGenerator generator = fixedClock(1, now);
+        long before = generator.nextId();
+        now[0] -= 5_000;
+        assertThat(generator.nextId()).isGreaterThan(before);
+        // 카운터가 시계보다 앞선 만큼 기다린 뒤에 돌려준다
+        assertThat(now[0]).isGreaterThanOrEqualTo(SnowflakeIdGenerator.DEFAULT_EPOCH_MILLIS + 10_000);
+    }
+
+    @Test
+    void largeBlockDoesNotCollideAfterRestart() {
+        long[] now = {SnowflakeIdGenerator.DEFAULT_EPOCH_MILLIS + 10_000};
+        SnowflakeIdGenerator generator = fixedClock(1, now);
+        IdBlock block = generator.reserve(100_000);
+        long lastIssued = block.get(block.size() - 1);
+
+        // 블록을 받은 직후 재시작하면 현재 시각부터 다시 시작한다
+        now[0]++;
+        SnowflakeIdGenerator restarted = fixedClock(1, now);
+
+        assertThat(restarted.nextId()).isGreaterThan(lastIssued);
+        assertThat(restarted.reserve(100_000).get(0)).isGreaterThan(lastIssued);
+    }
+
+    @Test
+    void differentNodesProduceDifferentIds() {
+        long[] now = {SnowflakeIdGenerator.DEFAULT_EPOCH_MILLIS + 10_000};
+        SnowflakeIdGenerator node1 = fixedClock(1, now);
+        SnowflakeIdGenerator node2 = fixedClock(2, now);
+        assertThat(node1.nextId()).isNotEqualTo(node2.nextId());
+    }
+
+    @Test
+    void rejectsInvalidNodeId() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // 대기하는 동안에만 시계가 흐른다
+    private static SnowflakeIdGenerator fixedClock(long nodeId, long[] now) {
+        return new SnowflakeIdGenerator(nodeId) {
+            @Override
+            protected long currentTimeMillis() {
+                return now[0];
+            }
+
+            @Override
+            protected void sleep(long millis) {
+                now[0] += millis;
+            }
+        };
+    }
+}
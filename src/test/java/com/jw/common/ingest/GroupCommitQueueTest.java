@@ -0,0 +1,141 @@
+package com.jw.common.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GroupCommitQueueTest {
+
+    @Test
+    void groupsRequestsUpToMaxBatchSize() {
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        try (GroupCommitQueue<Integer, String> queue = new GroupCommitQueue<>("test", 100, 10, 1_000, 100,
+                requests -> {
+                    batchSizes.add(requests.size());
+                    return requests.stream().map(String::valueOf).collect(Collectors.toList());
+                },
+                String::valueOf)) {
+            queue.start();
+            for (int i = 0; i < 25; i++) {
+                futures.add(queue.submit(i));
+            }
+            assertThat(futures.get(24).orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo("24");
+        }
+
+        assertThat(futures).allMatch(CompletableFuture::isDone);
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(25);
+        assertThat(batchSizes).allMatch(size -> size <= 10);
+    }
+
+    @Test
+    void flushesPartialBatchAfterMaxLatency() {
+        try (GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test", 100, 1_000, 20, 100,
+                requests -> requests, request -> request)) {
+            queue.start();
+            assertThat(queue.submit(7).orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo(7);
+        }
+    }
+
+    @Test
+    void retriesOneByOneWhenBatchFails() {
+        try (GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test", 100, 10, 200, 100,
+                requests -> {
+                    throw new IllegalStateException("batch failed");
+                },
+                request -> {
+                    if (request < 0) {
+                        throw new IllegalArgumentException("invalid request");
+                    }
+                    return request;
+                })) {
+            queue.start();
+            CompletableFuture<Integer> valid = queue.submit(1);
+            CompletableFuture<Integer> invalid = queue.submit(-1);
+
+            assertThat(valid.orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo(1);
+            assertThatThrownBy(() -> invalid.orTimeout(5, TimeUnit.SECONDS).join())
+                    .hasCauseInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test", 1, 1, 0, 10,
+                requests -> {
+                    started.countDown();
+                    await(release);
+                    return requests;
+                },
+                request -> request)) {
+            queue.start();
+            CompletableFuture<Integer> processing = queue.submit(1);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Integer> queued = queue.submit(2);
+            CompletableFuture<Integer> rejected = queue.submit(3);
+
+            assertThatThrownBy(rejected::join).hasCauseInstanceOf(RejectedExecutionException.class);
+            release.countDown();
+            assertThat(processing.join()).isEqualTo(1);
+            assertThat(queued.orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void rejectsSubmitBeforeStart() {
+        try (GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test", 10, 10, 0, 10,
+                requests -> requests, request -> request)) {
+            assertThatThrownBy(() -> queue.submit(1).join()).hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    // close 와 겹친 submit 의 future 는 처리되거나 실패로 완료되어야 하고, 완료되지 않은 채 남으면 안 된다
+    @Test
+    void completesEverySubmitRacingWithClose() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            List<CompletableFuture<Integer>> futures = Collections.synchronizedList(new ArrayList<>());
+            GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test", 1_000, 10, 1, 100,
+                    requests -> requests, request -> request);
+            queue.start();
+            CountDownLatch submitting = new CountDownLatch(4);
+            List<Thread> submitters = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread submitter = new Thread(() -> {
+                    submitting.countDown();
+                    for (int i = 0; i < 200; i++) {
+                        futures.add(queue.submit(i));
+                    }
+                });
+                submitter.start();
+                submitters.add(submitter);
+            }
+            assertThat(submitting.await(5, TimeUnit.SECONDS)).isTrue();
+            queue.close();
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+
+            assertThat(futures).hasSize(800).allMatch(CompletableFuture::isDone);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
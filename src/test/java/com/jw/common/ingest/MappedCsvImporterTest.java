@@ -0,0 +1,128 @@
+package com.jw.common.ingest;
+
+import com.jw.common.ledger.BulkLoadLedger;
+import com.jw.common.ledger.BulkLoadRejectLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedCsvImporterTest {
+
+    private static final int RECORD_COUNT = 5_000;
+
+    @TempDir
+    Path directory;
+
+    private static final int MAX_REJECTS_PER_SEGMENT = 5;
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:csv-import;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private MappedCsvImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE " + BulkLoadLedger.TABLE_NAME
+                + " (LOAD_ID VARCHAR(200), PARTITION_NO INT, POSITION BIGINT, UPDATED_AT TIMESTAMP,"
+                + " PRIMARY KEY (LOAD_ID, PARTITION_NO))");
+        jdbcTemplate.execute("CREATE TABLE " + BulkLoadRejectLog.TABLE_NAME
+                + " (LOAD_ID VARCHAR(200), POSITION BIGINT, MESSAGE VARCHAR(1000), PAYLOAD BLOB, CREATED_AT TIMESTAMP,"
+                + " PRIMARY KEY (LOAD_ID, POSITION))");
+        importer = new MappedCsvImporter("test", dataSource, new DataSourceTransactionManager(dataSource), 4, 4_096, 100,
+                MAX_REJECTS_PER_SEGMENT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importer.shutdown();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void resumesFromLastCheckpointAfterFailure() throws IOException {
+        Path file = writeLoans();
+        List<Long> committed = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+
+        assertThatThrownBy(() -> importer.importFile("import-test", file, true, record -> record.getLong(0), batch -> {
+            if (batch.contains(2_550L) && failOnce.getAndSet(false)) {
+                throw new IllegalStateException("sink failed");
+            }
+            committed.addAll(batch);
+        })).isInstanceOf(IllegalStateException.class);
+        int firstRun = committed.size();
+        assertThat(firstRun).isLessThan(RECORD_COUNT);
+
+        FileImportResult result = importer.importFile("import-test", file, true, record -> record.getLong(0), committed::addAll);
+
+        assertThat(result.getFailedSegments()).isEmpty();
+        assertThat(result.getSkippedSegments()).isNotEmpty();
+        assertThat(result.getImportedRecords()).isEqualTo(RECORD_COUNT - firstRun);
+        assertThat(committed).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, RECORD_COUNT).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void skipsUnparsableRecordsAndRecordsTheirPositionOnce() throws IOException {
+        String csv = "id,amount,months\n1,1000.00,12\nx,1000.00,12\n3,1000.00,12\n4,oops,12\n";
+        Path file = Files.write(directory.resolve("rejects.csv"), csv.getBytes(StandardCharsets.UTF_8));
+        List<Long> committed = Collections.synchronizedList(new ArrayList<>());
+
+        FileImportResult result = importer.importFile("reject-test", file, true, record -> {
+            record.getDecimal(1);
+            return record.getLong(0);
+        }, committed::addAll);
+
+        assertThat(committed).containsExactly(1L, 3L);
+        assertThat(result.getFailedSegments()).isEmpty();
+        assertThat(result.getRejectedRecords()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT POSITION FROM " + BulkLoadRejectLog.TABLE_NAME
+                + " WHERE LOAD_ID = ? ORDER BY POSITION", Long.class, "reject-test"))
+                .containsExactly((long) csv.indexOf("x,"), (long) csv.indexOf("4,"));
+
+        FileImportResult resumed = importer.importFile("reject-test", file, true, record -> record.getLong(0), committed::addAll);
+
+        assertThat(resumed.getImportedRecords()).isZero();
+        assertThat(resumed.getRejectedRecords()).isEqualTo(2);
+    }
+
+    @Test
+    void failsSegmentWhenTooManyRecordsAreRejected() throws IOException {
+        StringBuilder csv = new StringBuilder("id,amount,months\n");
+        for (int i = 0; i <= MAX_REJECTS_PER_SEGMENT; i++) {
+            csv.append("x,1000.00,12\n");
+        }
+        Path file = Files.write(directory.resolve("garbage.csv"), csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> importer.importFile("garbage-test", file, true, record -> record.getLong(0), batch -> {
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + BulkLoadRejectLog.TABLE_NAME, Integer.class))
+                .isZero();
+    }
+
+    private Path writeLoans() throws IOException {
+        StringBuilder csv = new StringBuilder("id,amount,months\n");
+        for (int i = 1; i <= RECORD_COUNT; i++) {
+            csv.append(i).append(",1000000.00,12\n");
+        }
+        return Files.write(directory.resolve("loans.csv"), csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,84 @@
+package com.jw.common.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedCsvSegmentReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void splitsOnLineBoundariesAndReadsEveryLineOnce() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 1; i <= 1_000; i++) {
+            csv.append(i).append(',').append(i).append(".25").append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        Path file = write(csv.toString());
+
+        List<Long> ids = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file)) {
+            List<long[]> segments = MappedCsvSegmentReader.split(channel, 100);
+            assertThat(segments.size()).isGreaterThan(50);
+            for (long[] segment : segments) {
+                try (MappedCsvSegmentReader reader = new MappedCsvSegmentReader(channel, segment[0], segment[1])) {
+                    CsvRecord record = new CsvRecord();
+                    while (reader.next(record)) {
+                        assertThat(record.getFieldCount()).isEqualTo(2);
+                        assertThat(record.getDecimal(1)).isEqualTo(new BigDecimal(record.getLong(0) + ".25"));
+                        ids.add(record.getLong(0));
+                    }
+                    assertThat(reader.getFilePosition()).isEqualTo(segment[1]);
+                }
+            }
+        }
+
+        assertThat(ids).hasSize(1_000).isSorted().startsWith(1L).endsWith(1_000L);
+    }
+
+    @Test
+    void parsesFieldsWithoutCopying() throws IOException {
+        Path file = write("amount,rate,months\n\n-12000000.5,3.00,360,\n99999999999999999999.1,0,1");
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            MappedCsvSegmentReader reader = new MappedCsvSegmentReader(channel, 0, channel.size());
+            CsvRecord record = new CsvRecord();
+            reader.next(record);
+            assertThat(record.getString(0)).isEqualTo("amount");
+
+            assertThat(reader.next(record)).isTrue();
+            assertThat(record.getFieldCount()).isEqualTo(4);
+            assertThat(record.getDecimal(0)).isEqualTo(new BigDecimal("-12000000.5"));
+            assertThat(record.getDecimal(1)).isEqualTo(new BigDecimal("3.00"));
+            assertThat(record.getInt(2)).isEqualTo(360);
+            assertThat(record.isEmpty(3)).isTrue();
+            long position = reader.getFilePosition();
+
+            assertThat(reader.next(record)).isTrue();
+            assertThat(record.getDecimal(0)).isEqualTo(new BigDecimal("99999999999999999999.1"));
+            assertThatThrownBy(() -> record.getInt(0)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(reader.next(record)).isFalse();
+
+            // checkpoint 위치부터 다시 읽으면 같은 줄이 나온다
+            reader.seek(position);
+            assertThat(reader.next(record)).isTrue();
+            assertThat(record.getInt(2)).isEqualTo(1);
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.write(directory.resolve("loans.csv"), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
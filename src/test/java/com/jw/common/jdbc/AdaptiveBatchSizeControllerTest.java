@@ -0,0 +1,89 @@
+package com.jw.common.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBatchSizeControllerTest {
+
+    private AdaptiveBatchSizeController controller() {
+        return new AdaptiveBatchSizeController("test", 1000, 100, 2000, 1, 2.0, 0.05, 500);
+    }
+
+    @Test
+    void keepsDirectionWhileThroughputImproves() {
+        AdaptiveBatchSizeController controller = controller();
+
+        controller.record(1000, 100);
+        assertThat(controller.getBatchSize()).isEqualTo(2000);
+
+        // 상한에 닿으면 유지하고 다음에는 반대 방향으로 탐색
+        controller.record(2000, 100);
+        assertThat(controller.getBatchSize()).isEqualTo(2000);
+    }
+
+    @Test
+    void reversesWhenThroughputDegrades() {
+        AdaptiveBatchSizeController controller = controller();
+
+        controller.record(1000, 100);
+        controller.record(2000, 400);
+
+        assertThat(controller.getBatchSize()).isEqualTo(1000);
+    }
+
+    @Test
+    void holdsWithinHysteresis() {
+        AdaptiveBatchSizeController controller = controller();
+
+        controller.record(1000, 100);
+        controller.record(2000, 196);
+
+        assertThat(controller.getBatchSize()).isEqualTo(2000);
+    }
+
+    @Test
+    void observesOnlyBatchesIssuedWithControllerSize() {
+        AdaptiveBatchSizeController controller = controller();
+
+        controller.afterQuery(insertBatch(1000), List.of(new QueryInfo("insert into LOAN_SCHEDULE values (?)")));
+        assertThat(controller.getBatchSize()).isEqualTo(1000);
+
+        int issued = controller.enter();
+        try {
+            controller.afterQuery(insertBatch(issued - 1), List.of(new QueryInfo("insert into LOAN_SCHEDULE values (?)")));
+            assertThat(controller.getBatchSize()).isEqualTo(1000);
+
+            controller.afterQuery(insertBatch(issued), List.of(new QueryInfo("insert into LOAN_SCHEDULE values (?)")));
+            assertThat(controller.getBatchSize()).isEqualTo(2000);
+        } finally {
+            controller.exit();
+        }
+    }
+
+    @Test
+    void shrinksWhenLatencyExceedsLimit() {
+        AdaptiveBatchSizeController controller = controller();
+
+        controller.record(1000, 800);
+        controller.record(500, 600);
+        controller.record(250, 550);
+
+        assertThat(controller.getBatchSize()).isEqualTo(125);
+        controller.record(125, 510);
+        assertThat(controller.getBatchSize()).isEqualTo(100);
+    }
+
+    private static ExecutionInfo insertBatch(int batchSize) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setBatch(true);
+        execInfo.setBatchSize(batchSize);
+        execInfo.setSuccess(true);
+        execInfo.setElapsedTime(100);
+        return execInfo;
+    }
+}
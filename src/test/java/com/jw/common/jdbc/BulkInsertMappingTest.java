@@ -0,0 +1,97 @@
+package com.jw.common.jdbc;
+
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.entity.MyLoanSchedule;
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import com.jw.domain.oracle.loan.entity.Loan;
+import com.jw.domain.oracle.loan.entity.LoanSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static com.jw.common.jdbc.RecordingPreparedStatement.recording;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkInsertMappingTest {
+
+    @Test
+    void readsTableAndColumnsFromJpaMapping() {
+        BulkInsertMapping<MyLoanSchedule> mapping = BulkInsertMapping.of(MyLoanSchedule.class);
+
+        assertThat(mapping.getTableName()).isEqualTo("LOAN_SCHEDULE");
+        assertThat(mapping.getColumns().stream().map(BulkInsertColumn::getName).collect(Collectors.toList()))
+                .containsExactly("ID", "LOAN_ID", "INSTALLMENT_NO", "PAYMENT_AMOUNT");
+        assertThat(mapping.getIdSequence()).isNull();
+        assertThat(mapping.getInsertPrefix())
+                .isEqualTo("INSERT INTO LOAN_SCHEDULE (ID, LOAN_ID, INSTALLMENT_NO, PAYMENT_AMOUNT)");
+        assertThat(mapping.getRowPlaceholder()).isEqualTo("(?, ?, ?, ?)");
+    }
+
+    @Test
+    void extractsEnumNameAndForeignKey() {
+        MyLoan loan = MyLoan.createCreditLoan(LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(1_000_000))
+                .interestRate(BigDecimal.valueOf(3.0))
+                .durationMonths(2)
+                .build());
+        BulkInsertMapping<MyLoan> loanMapping = BulkInsertMapping.of(MyLoan.class);
+        BulkInsertMapping<MyLoanSchedule> scheduleMapping = BulkInsertMapping.of(MyLoanSchedule.class);
+        MyLoanSchedule schedule = loan.streamRepaymentSchedule().findFirst().orElseThrow();
+
+        assertThat(loanMapping.getColumns().get(1).getName()).isEqualTo("TYPE");
+        assertThat(loanMapping.getColumns().get(1).extract(loan)).isEqualTo("CREDIT_LOAN");
+        assertThat(scheduleMapping.getColumns().get(1).extract(schedule)).isEqualTo(loan.getId());
+    }
+
+    @Test
+    void resolvesSequenceOfGeneratedId() {
+        assertThat(BulkInsertMapping.of(Loan.class).getIdSequence()).isEqualTo("SQ_LOAN");
+        assertThat(BulkInsertMapping.of(LoanSchedule.class).getIdSequence()).isEqualTo("SQ_LOAN_SCHEDULE");
+    }
+
+    @Test
+    void buildsMultiRowInsertForMysql() {
+        assertThat(MysqlBulkInsertDialect.insertSql(BulkInsertMapping.of(MyLoanSchedule.class), 2))
+                .isEqualTo("INSERT INTO LOAN_SCHEDULE (ID, LOAN_ID, INSTALLMENT_NO, PAYMENT_AMOUNT)"
+                        + " VALUES (?, ?, ?, ?), (?, ?, ?, ?)");
+    }
+
+    @Test
+    void buildsUpsertForMysql() {
+        assertThat(MysqlBulkInsertDialect.upsertSql(BulkInsertMapping.of(MyLoanSchedule.class), 1))
+                .isEqualTo("INSERT INTO LOAN_SCHEDULE (ID, LOAN_ID, INSTALLMENT_NO, PAYMENT_AMOUNT) VALUES (?, ?, ?, ?)"
+                        + " ON DUPLICATE KEY UPDATE LOAN_ID = VALUES(LOAN_ID), INSTALLMENT_NO = VALUES(INSTALLMENT_NO),"
+                        + " PAYMENT_AMOUNT = VALUES(PAYMENT_AMOUNT)");
+    }
+
+    @Test
+    void bindsWithGeneratedRowBinder() throws Exception {
+        MyLoan loan = MyLoan.createCreditLoan(LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(1_000_000))
+                .interestRate(BigDecimal.valueOf(3.0))
+                .durationMonths(2)
+                .build());
+        MyLoanSchedule schedule = loan.streamRepaymentSchedule().findFirst().orElseThrow();
+        BulkInsertMapping<MyLoan> loanMapping = BulkInsertMapping.of(MyLoan.class);
+        BulkInsertMapping<MyLoanSchedule> scheduleMapping = BulkInsertMapping.of(MyLoanSchedule.class);
+        Map<Integer, Object> bound = new TreeMap<>();
+
+        assertThat(loanMapping.hasGeneratedBinder()).isTrue();
+        assertThat(scheduleMapping.hasGeneratedBinder()).isTrue();
+        assertThat(loanMapping.bind(recording(bound), 1, loan)).isEqualTo(1 + loanMapping.getColumnCount());
+        assertThat(new ArrayList<>(bound.values())).isEqualTo(extractAll(loanMapping, loan));
+
+        bound.clear();
+        scheduleMapping.bind(recording(bound), 1, schedule);
+        assertThat(new ArrayList<>(bound.values())).isEqualTo(extractAll(scheduleMapping, schedule));
+    }
+
+    private static <T> List<Object> extractAll(BulkInsertMapping<T> mapping, T row) {
+        return mapping.getColumns().stream().map(column -> column.extract(row)).collect(Collectors.toList());
+    }
+}
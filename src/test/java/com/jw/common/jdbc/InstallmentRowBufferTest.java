@@ -0,0 +1,72 @@
+package com.jw.common.jdbc;
+
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.entity.MyLoanSchedule;
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import com.jw.domain.oracle.loan.entity.LoanSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static com.jw.common.jdbc.RecordingPreparedStatement.recording;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InstallmentRowBufferTest {
+
+    @Test
+    void bindsSameValuesAsEntityRows() throws Exception {
+        MyLoan loan = MyLoan.createCreditLoan(LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(1_000_000))
+                .interestRate(BigDecimal.valueOf(3.0))
+                .durationMonths(3)
+                .build());
+        List<MyLoanSchedule> schedules = loan.streamRepaymentSchedule().collect(Collectors.toList());
+        InstallmentRowBuffer buffer = new InstallmentRowBuffer(MyLoanSchedule.class, 1);
+        loan.appendRepaymentSchedule(buffer);
+        BulkInsertMapping<MyLoanSchedule> mapping = BulkInsertMapping.of(MyLoanSchedule.class);
+
+        assertThat(buffer.size()).isEqualTo(3);
+        assertThat(buffer.getDistinctAmountCount()).isEqualTo(1);
+        for (int row = 0; row < buffer.size(); row++) {
+            Map<Integer, Object> bound = new TreeMap<>();
+            assertThat(buffer.bind(recording(bound), 1, row)).isEqualTo(5);
+            MyLoanSchedule schedule = schedules.get(row);
+            List<Object> expected = mapping.getColumns().stream()
+                    .map(column -> column.extract(schedule))
+                    .collect(Collectors.toList());
+            assertThat(new ArrayList<>(bound.values())).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void sharesAmountsAndSlices() {
+        InstallmentRowBuffer buffer = new InstallmentRowBuffer(LoanSchedule.class, 2);
+        buffer.addWithoutId(10, 1, new BigDecimal("100.00"));
+        buffer.addWithoutId(10, 2, new BigDecimal("100.00"));
+        buffer.addWithoutId(11, 1, new BigDecimal("250.50"));
+        buffer.assignId(2, 7);
+
+        assertThat(buffer.getDistinctAmountCount()).isEqualTo(2);
+        assertThat(buffer.getAmount(1)).isEqualByComparingTo("100.00");
+        assertThat(buffer.getIdAsLong(0)).isEqualTo(InstallmentRowBuffer.NO_ID);
+        assertThat(buffer.getId(0)).isNull();
+        assertThat(buffer.getId(2)).isEqualTo(7L);
+        assertThat(buffer.slice(1, 3).size()).isEqualTo(2);
+
+        buffer.clear();
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.getDistinctAmountCount()).isZero();
+    }
+
+    @Test
+    void rejectsEntityWithOtherColumns() {
+        assertThatThrownBy(() -> new InstallmentRowBuffer(MyLoan.class, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
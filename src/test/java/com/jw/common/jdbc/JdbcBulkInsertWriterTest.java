@@ -0,0 +1,69 @@
+package com.jw.common.jdbc;
+
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.entity.MyLoanSchedule;
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcBulkInsertWriterTest {
+
+    private static final int DURATION_MONTHS = 6;
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:bulk-upsert;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final JdbcBulkInsertWriter writer = new JdbcBulkInsertWriter(dataSource, new MysqlBulkInsertDialect(), 4);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE LOAN (ID BIGINT PRIMARY KEY, TYPE VARCHAR(20), AMOUNT DECIMAL(38, 2),"
+                + " INTEREST_RATE DECIMAL(3, 2), DURATION_MONTHS INT, FIRST_SCHEDULE_ID BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE LOAN_SCHEDULE (ID BIGINT PRIMARY KEY, LOAN_ID BIGINT REFERENCES LOAN (ID),"
+                + " INSTALLMENT_NO INT, PAYMENT_AMOUNT DECIMAL(38, 2))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void upsertUpdatesExistingRowsAndInsertsNewOnes() {
+        MyLoan loan = MyLoan.createCreditLoan(LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(1_000_000))
+                .interestRate(BigDecimal.valueOf(3.0))
+                .durationMonths(DURATION_MONTHS)
+                .build());
+        writer.insert(MyLoan.class, List.of(loan));
+        List<MyLoanSchedule> saved = loan.streamRepaymentSchedule().collect(Collectors.toList());
+        writer.insert(MyLoanSchedule.class, saved);
+
+        List<MyLoanSchedule> changes = new ArrayList<>();
+        for (MyLoanSchedule schedule : saved) {
+            changes.add(MyLoanSchedule.of(schedule.getId(), loan, schedule.getInstallmentNo(), BigDecimal.ONE));
+        }
+        changes.add(MyLoanSchedule.of(loan, DURATION_MONTHS + 1, BigDecimal.TEN));
+        changes.add(MyLoanSchedule.of(loan, DURATION_MONTHS + 2, BigDecimal.TEN));
+
+        long upserted = writer.upsert(MyLoanSchedule.class, changes);
+
+        assertThat(upserted).isEqualTo(DURATION_MONTHS + 2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM LOAN_SCHEDULE", Integer.class))
+                .isEqualTo(DURATION_MONTHS + 2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM LOAN_SCHEDULE WHERE PAYMENT_AMOUNT = 1",
+                Integer.class)).isEqualTo(DURATION_MONTHS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM LOAN_SCHEDULE WHERE PAYMENT_AMOUNT = 10",
+                Integer.class)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,88 @@
+package com.jw.common.jdbc;
+
+import com.jw.common.ledger.BulkLoadLedger;
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCopyJobTest {
+
+    private static final int ROW_COUNT = 20;
+    private static final int PARTITION_COUNT = 2;
+    private static final String LOAN_TABLE = "CREATE TABLE LOAN (ID BIGINT PRIMARY KEY, TYPE VARCHAR(20),"
+            + " AMOUNT DECIMAL(38, 2), INTEREST_RATE DECIMAL(3, 2), DURATION_MONTHS INT, FIRST_SCHEDULE_ID BIGINT)";
+
+    private final DriverManagerDataSource sourceDataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:copy-source;DB_CLOSE_DELAY=-1", "sa", "");
+    private final DriverManagerDataSource targetDataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:copy-target;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate source = new JdbcTemplate(sourceDataSource);
+    private final JdbcTemplate target = new JdbcTemplate(targetDataSource);
+    private KeysetCopyJob copyJob;
+
+    @BeforeEach
+    void setUp() {
+        source.execute(LOAN_TABLE);
+        for (long id = 1; id <= ROW_COUNT; id++) {
+            source.update("INSERT INTO LOAN VALUES (?, 'CREDIT', 1000000, 3.00, 12, NULL)", id);
+        }
+        target.execute(LOAN_TABLE);
+        target.execute("CREATE TABLE " + BulkLoadLedger.TABLE_NAME
+                + " (LOAD_ID VARCHAR(200), PARTITION_NO INT, POSITION BIGINT, UPDATED_AT TIMESTAMP,"
+                + " PRIMARY KEY (LOAD_ID, PARTITION_NO))");
+        JdbcBulkInsertWriter writer = new JdbcBulkInsertWriter(targetDataSource, new MysqlBulkInsertDialect(), 4);
+        copyJob = new KeysetCopyJob("test", sourceDataSource, targetDataSource,
+                new DataSourceTransactionManager(targetDataSource), writer, PARTITION_COUNT, 100, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        copyJob.shutdown();
+        source.execute("DROP ALL OBJECTS");
+        target.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void resumesFromLastCommittedChunkAfterMidPartitionFailure() {
+        // partition 1 (11~20) 의 두 번째 chunk (15~18) 가 중복 키로 실패하게 한다
+        target.update("INSERT INTO LOAN VALUES (15, 'CREDIT', 1, 3.00, 12, NULL)");
+
+        assertThatThrownBy(() -> copyJob.copy("resume", MyLoan.class, PARTITION_COUNT))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(position("resume", 0)).isEqualTo(10);
+        assertThat(position("resume", 1)).isEqualTo(14);
+        assertThat(target.queryForObject("SELECT COUNT(*) FROM LOAN WHERE ID BETWEEN 11 AND 14", Integer.class))
+                .isEqualTo(4);
+
+        target.update("DELETE FROM LOAN WHERE ID = 15");
+        TableCopyResult result = copyJob.copy("resume", MyLoan.class, PARTITION_COUNT);
+
+        assertThat(result.getSkippedPartitions()).containsExactly(0);
+        assertThat(result.getCopiedRows()).isEqualTo(6);
+        assertThat(target.queryForObject("SELECT COUNT(*) FROM LOAN WHERE AMOUNT = 1000000", Integer.class))
+                .isEqualTo(ROW_COUNT);
+    }
+
+    @Test
+    void rejectsResumeWithDifferentPartitionCount() {
+        target.update("INSERT INTO LOAN VALUES (15, 'CREDIT', 1, 3.00, 12, NULL)");
+        assertThatThrownBy(() -> copyJob.copy("count", MyLoan.class, PARTITION_COUNT))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThatThrownBy(() -> copyJob.copy("count", MyLoan.class, PARTITION_COUNT + 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Partition count mismatch");
+    }
+
+    private long position(String copyId, int partitionNo) {
+        return target.queryForObject("SELECT POSITION FROM " + BulkLoadLedger.TABLE_NAME
+                + " WHERE LOAD_ID = ? AND PARTITION_NO = ?", Long.class, copyId, partitionNo);
+    }
+}
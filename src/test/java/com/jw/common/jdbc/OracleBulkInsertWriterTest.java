@@ -0,0 +1,125 @@
+package com.jw.common.jdbc;
+
+import com.jw.domain.oracle.loan.entity.Loan;
+import com.jw.domain.oracle.loan.entity.LoanSchedule;
+import com.jw.domain.oracle.loan.vo.LoanSaveVo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OracleBulkInsertWriterTest {
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:oracle-writer;MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void selectsModeByRowCount() {
+        assertThat(OracleInsertMode.select(100, 100, 100_000)).isEqualTo(OracleInsertMode.INSERT_ALL);
+        assertThat(OracleInsertMode.select(101, 100, 100_000)).isEqualTo(OracleInsertMode.ARRAY_DML);
+        assertThat(OracleInsertMode.select(100_000, 100, 100_000)).isEqualTo(OracleInsertMode.DIRECT_PATH);
+    }
+
+    @Test
+    void doesNotUseDirectPathForForeignKeyTables() {
+        OracleBulkInsertWriter writer = new OracleBulkInsertWriter(dataSource, 100, 100, 100_000);
+
+        assertThat(writer.selectMode(LoanSchedule.class, 100_000)).isEqualTo(OracleInsertMode.ARRAY_DML);
+        assertThat(writer.selectMode(Loan.class, 100_000)).isEqualTo(OracleInsertMode.DIRECT_PATH);
+        assertThat(writer.appliedMode(LoanSchedule.class, OracleInsertMode.DIRECT_PATH)).isEqualTo(OracleInsertMode.ARRAY_DML);
+        assertThat(writer.appliedMode(Loan.class, OracleInsertMode.DIRECT_PATH)).isEqualTo(OracleInsertMode.DIRECT_PATH);
+    }
+
+    // H2 는 APPEND_VALUES 힌트를 주석으로 무시하므로 호출자 트랜잭션 참여만 확인한다
+    @Test
+    void directPathJoinsCallerTransaction() {
+        createLoanTable();
+        OracleBulkInsertWriter writer = new OracleBulkInsertWriter(dataSource, 4, 2, 20);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(writer.insert(Loan.class, loans(1, 10).stream(), OracleInsertMode.DIRECT_PATH)).isEqualTo(10);
+            status.setRollbackOnly();
+        });
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM LOAN", Integer.class)).isZero();
+
+        transactionTemplate.executeWithoutResult(status ->
+                writer.insert(Loan.class, loans(1, 10).stream(), OracleInsertMode.DIRECT_PATH));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM LOAN", Integer.class)).isEqualTo(10);
+    }
+
+    // 실패하면 호출자 트랜잭션과 함께 롤백되어 일부만 커밋되지 않는다
+    @Test
+    void directPathRollsBackWithCallerTransaction() {
+        createLoanTable();
+        OracleBulkInsertWriter writer = new OracleBulkInsertWriter(dataSource, 4, 2, 20);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        List<Loan> loans = loans(1, 10);
+        BulkInsertMapping.of(Loan.class).assignId(loans.get(9), 1L);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                writer.insert(Loan.class, loans.stream(), OracleInsertMode.DIRECT_PATH)))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM LOAN", Integer.class)).isZero();
+    }
+
+    @Test
+    void buildsInsertAllAndDirectPathStatements() {
+        BulkInsertMapping<LoanSchedule> mapping = BulkInsertMapping.of(LoanSchedule.class);
+        String into = " INTO LOAN_SCHEDULE (" + mapping.getColumnList() + ") VALUES " + mapping.getRowPlaceholder();
+
+        assertThat(OracleBulkInsertDialect.insertAllSql(mapping, 2))
+                .isEqualTo("INSERT ALL" + into + into + " SELECT 1 FROM DUAL");
+        assertThat(OracleBulkInsertDialect.directPathInsertSql(mapping))
+                .startsWith("INSERT /*+ APPEND_VALUES */ INTO LOAN_SCHEDULE (ID, ");
+    }
+
+    @Test
+    void buildsMergeStatement() {
+        BulkInsertMapping<LoanSchedule> mapping = BulkInsertMapping.of(LoanSchedule.class);
+
+        assertThat(OracleBulkInsertDialect.mergeSql(mapping)).isEqualTo("MERGE INTO LOAN_SCHEDULE t"
+                + " USING (SELECT ? ID, ? LOAN_ID, ? INSTALLMENT_NO, ? PAYMENT_AMOUNT FROM DUAL) s ON (t.ID = s.ID)"
+                + " WHEN MATCHED THEN UPDATE SET t.LOAN_ID = s.LOAN_ID, t.INSTALLMENT_NO = s.INSTALLMENT_NO,"
+                + " t.PAYMENT_AMOUNT = s.PAYMENT_AMOUNT"
+                + " WHEN NOT MATCHED THEN INSERT (ID, LOAN_ID, INSTALLMENT_NO, PAYMENT_AMOUNT)"
+                + " VALUES (s.ID, s.LOAN_ID, s.INSTALLMENT_NO, s.PAYMENT_AMOUNT)");
+    }
+
+    private void createLoanTable() {
+        jdbcTemplate.execute("CREATE TABLE LOAN (ID NUMBER(19) PRIMARY KEY, TYPE VARCHAR2(255), AMOUNT NUMBER(38, 2),"
+                + " INTEREST_RATE NUMBER(3, 2), DURATION_MONTHS NUMBER(10))");
+    }
+
+    // 시퀀스 없이 적재하도록 ID 를 미리 할당한 대출
+    private static List<Loan> loans(long firstId, int count) {
+        BulkInsertMapping<Loan> mapping = BulkInsertMapping.of(Loan.class);
+        List<Loan> loans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Loan loan = Loan.createCreditLoan(LoanSaveVo.builder()
+                    .amount(BigDecimal.valueOf(10_000_000))
+                    .interestRate(BigDecimal.valueOf(3.0))
+                    .durationMonths(12)
+                    .build());
+            mapping.assignId(loan, firstId + i);
+            loans.add(loan);
+        }
+        return loans;
+    }
+}
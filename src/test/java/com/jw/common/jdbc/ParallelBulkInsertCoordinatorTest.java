@@ -0,0 +1,160 @@
+package com.jw.common.jdbc;
+
+import com.jw.common.ledger.BulkLoadLedger;
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.entity.MyLoanSchedule;
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelBulkInsertCoordinatorTest {
+
+    private static final int DURATION_MONTHS = 30;
+    private static final int PARTITION_COUNT = 3;
+    private static final int PARTITION_SIZE = DURATION_MONTHS / PARTITION_COUNT;
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:parallel-load;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private ParallelBulkInsertCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE " + BulkLoadLedger.TABLE_NAME
+                + " (LOAD_ID VARCHAR(200), PARTITION_NO INT, POSITION BIGINT, UPDATED_AT TIMESTAMP,"
+                + " PRIMARY KEY (LOAD_ID, PARTITION_NO))");
+        jdbcTemplate.execute("CREATE TABLE LOAN (ID BIGINT PRIMARY KEY, TYPE VARCHAR(20), AMOUNT DECIMAL(38, 2),"
+                + " INTEREST_RATE DECIMAL(3, 2), DURATION_MONTHS INT, FIRST_SCHEDULE_ID BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE LOAN_SCHEDULE (ID BIGINT PRIMARY KEY, LOAN_ID BIGINT REFERENCES LOAN (ID),"
+                + " INSTALLMENT_NO INT, PAYMENT_AMOUNT DECIMAL(38, 2))");
+        JdbcBulkInsertWriter writer = new JdbcBulkInsertWriter(dataSource, new MysqlBulkInsertDialect(), 4);
+        coordinator = new ParallelBulkInsertCoordinator("test", dataSource, writer, PARTITION_COUNT, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coordinator.shutdown();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void resumesOnlyFailedPartitions() {
+        MyLoan loan = MyLoan.createCreditLoan(loan());
+        long loanId = coordinator.begin("resume-test", MyLoan.class, () -> loan, PARTITION_COUNT);
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+        AtomicInteger generated = new AtomicInteger();
+        IntFunction<Stream<MyLoanSchedule>> source = partitionNo -> {
+            generated.incrementAndGet();
+            if (partitionNo == 1 && failOnce.getAndSet(false)) {
+                throw new IllegalStateException("partition failed");
+            }
+            return loan.streamRepaymentSchedule(partitionNo * PARTITION_SIZE + 1, (partitionNo + 1) * PARTITION_SIZE);
+        };
+
+        assertThatThrownBy(() -> coordinator.load("resume-test", MyLoanSchedule.class, PARTITION_COUNT, source))
+                .isInstanceOfSatisfying(BulkLoadException.class, e -> {
+                    assertThat(e.getResult().getCommittedPartitions()).containsExactlyInAnyOrder(0, 2);
+                    assertThat(e.getResult().getFailedPartitions()).containsExactly(1);
+                });
+        assertThat(scheduleCount(loanId)).isEqualTo(2 * PARTITION_SIZE);
+
+        generated.set(0);
+        ParallelLoadResult result = coordinator.load("resume-test", MyLoanSchedule.class,
+                coordinator.getPartitionCount("resume-test"), source);
+
+        assertThat(result.getCommittedPartitions()).containsExactly(1);
+        assertThat(result.getSkippedPartitions()).containsExactly(0, 2);
+        assertThat(result.getInsertedRows()).isEqualTo(PARTITION_SIZE);
+        assertThat(generated).hasValue(1);
+        assertThat(scheduleCount(loanId)).isEqualTo(DURATION_MONTHS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT INSTALLMENT_NO) FROM LOAN_SCHEDULE",
+                Integer.class)).isEqualTo(DURATION_MONTHS);
+    }
+
+    @Test
+    void beginIsIdempotentForSameLoadId() {
+        long first = coordinator.begin("begin-test", MyLoan.class, () -> MyLoan.createCreditLoan(loan()), PARTITION_COUNT);
+        long second = coordinator.begin("begin-test", MyLoan.class, () -> MyLoan.createCreditLoan(loan()), PARTITION_COUNT);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(coordinator.getParentId("begin-test")).isEqualTo(first);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM LOAN", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsDifferentPartitionCount() {
+        coordinator.begin("count-test", MyLoan.class, () -> MyLoan.createCreditLoan(loan()), PARTITION_COUNT);
+
+        assertThatThrownBy(() -> coordinator.begin("count-test", MyLoan.class,
+                () -> MyLoan.createCreditLoan(loan()), PARTITION_COUNT + 1))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> coordinator.load("count-test", MyLoanSchedule.class, PARTITION_COUNT + 1,
+                partitionNo -> Stream.empty()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void completesOnceAfterAllPartitionsCommit() {
+        MyLoan loan = MyLoan.createCreditLoan(loan());
+        coordinator.begin("complete-test", MyLoan.class, () -> loan, PARTITION_COUNT);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        AtomicInteger completions = new AtomicInteger();
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(
+                status -> coordinator.complete("complete-test", completions::incrementAndGet)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> coordinator.complete("complete-test", completions::incrementAndGet))
+                .isInstanceOf(IllegalStateException.class);
+
+        coordinator.load("complete-test", MyLoanSchedule.class, PARTITION_COUNT,
+                partitionNo -> loan.streamRepaymentSchedule(partitionNo * PARTITION_SIZE + 1, (partitionNo + 1) * PARTITION_SIZE));
+        // 완료 작업의 트랜잭션이 롤백되면 기록도 남지 않아 다시 실행된다
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            coordinator.complete("complete-test", completions::incrementAndGet);
+            throw new IllegalStateException("audit failed");
+        })).hasMessage("audit failed");
+
+        assertThat(transactionTemplate.<Boolean>execute(status -> coordinator.complete("complete-test", () -> {
+            completions.incrementAndGet();
+            return 42;
+        }))).isTrue();
+        assertThat(transactionTemplate.<Boolean>execute(status -> coordinator.complete("complete-test", completions::incrementAndGet)))
+                .isFalse();
+        assertThat(completions).hasValue(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT POSITION FROM " + BulkLoadLedger.TABLE_NAME
+                + " WHERE LOAD_ID = ? AND PARTITION_NO = ?", Long.class, "complete-test",
+                ParallelBulkInsertCoordinator.COMPLETION_ENTRY)).isEqualTo(42);
+    }
+
+    @Test
+    void rejectsUnknownLoadId() {
+        assertThatThrownBy(() -> coordinator.getParentId("unknown"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private int scheduleCount(long loanId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM LOAN_SCHEDULE WHERE LOAN_ID = ?", Integer.class, loanId);
+    }
+
+    private static LoanSaveVo loan() {
+        return LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(10_000_000))
+                .interestRate(BigDecimal.valueOf(3.0))
+                .durationMonths(DURATION_MONTHS)
+                .build();
+    }
+}
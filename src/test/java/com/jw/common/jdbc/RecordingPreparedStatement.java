@@ -0,0 +1,25 @@
+package com.jw.common.jdbc;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.Map;
+
+/**
+ * 바인딩 테스트용 PreparedStatement. setXxx(index, value) 호출을 index 별로 기록하고 나머지 호출은 무시한다.
+ */
+final class RecordingPreparedStatement {
+
+    private RecordingPreparedStatement() {
+    }
+
+    // setNull 은 null 로 기록한다
+    static PreparedStatement recording(Map<Integer, Object> bound) {
+        return (PreparedStatement) Proxy.newProxyInstance(RecordingPreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2) {
+                        bound.put((Integer) args[0], method.getName().equals("setNull") ? null : args[1]);
+                    }
+                    return null;
+                });
+    }
+}
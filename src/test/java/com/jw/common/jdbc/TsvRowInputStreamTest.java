@@ -0,0 +1,56 @@
+package com.jw.common.jdbc;
+
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.entity.MyLoanSchedule;
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TsvRowInputStreamTest {
+
+    @Test
+    void serializesRowsAsTabSeparatedLines() throws IOException {
+        MyLoan loan = MyLoan.createCreditLoan(LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(1_200))
+                .interestRate(BigDecimal.valueOf(0))
+                .durationMonths(1_000)
+                .build());
+        TsvRowInputStream<MyLoanSchedule> input = new TsvRowInputStream<>(
+                BulkInsertMapping.of(MyLoanSchedule.class), loan.streamRepaymentSchedule().iterator());
+
+        String[] lines = readAll(input).split("\n");
+
+        assertThat(input.getRowCount()).isEqualTo(1_000);
+        assertThat(lines).hasSize(1_000);
+        MyLoanSchedule first = loan.streamRepaymentSchedule(1, 1).findFirst().orElseThrow();
+        assertThat(lines[0]).isEqualTo(first.getId() + "\t" + loan.getId() + "\t1\t" + first.getPaymentAmount().toPlainString());
+    }
+
+    @Test
+    void buildsLoadDataStatementForEmptyInput() throws IOException {
+        BulkInsertMapping<MyLoan> mapping = BulkInsertMapping.of(MyLoan.class);
+        TsvRowInputStream<MyLoan> input = new TsvRowInputStream<>(mapping, List.<MyLoan>of().iterator());
+
+        assertThat(readAll(input)).isEmpty();
+        assertThat(MysqlLoadDataWriter.loadDataSql(mapping))
+                .startsWith("LOAD DATA LOCAL INFILE 'stream' INTO TABLE LOAN")
+                .endsWith("(ID, TYPE, AMOUNT, INTEREST_RATE, DURATION_MONTHS, FIRST_SCHEDULE_ID)");
+    }
+
+    private static String readAll(TsvRowInputStream<?> input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1000];
+        int read;
+        while ((read = input.read(buffer, 0, buffer.length)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
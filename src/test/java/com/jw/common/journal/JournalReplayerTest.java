@@ -0,0 +1,173 @@
+package com.jw.common.journal;
+
+import com.jw.common.ledger.BulkLoadLedger;
+import com.jw.common.ledger.BulkLoadRejectLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:journal-replay;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE " + BulkLoadLedger.TABLE_NAME
+                + " (LOAD_ID VARCHAR(200), PARTITION_NO INT, POSITION BIGINT, UPDATED_AT TIMESTAMP,"
+                + " PRIMARY KEY (LOAD_ID, PARTITION_NO))");
+        jdbcTemplate.execute("CREATE TABLE " + BulkLoadRejectLog.TABLE_NAME
+                + " (LOAD_ID VARCHAR(200), POSITION BIGINT, MESSAGE VARCHAR(1000), PAYLOAD BLOB, CREATED_AT TIMESTAMP,"
+                + " PRIMARY KEY (LOAD_ID, POSITION))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void replaysEachRecordOnceAcrossFailuresAndRestarts() throws Exception {
+        List<String> replayed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger(2);
+        Consumer<List<String>> sink = commands -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new TransientDataAccessResourceException("database stalled");
+            }
+            replayed.addAll(commands);
+        };
+
+        try (WriteAheadJournal journal = open()) {
+            JournalReplayer<String> replayer = replayer(journal, sink);
+            append(journal, 1, 50);
+            awaitReplayed(replayer, 50);
+            replayer.close();
+            append(journal, 51, 80);
+        }
+
+        // 재시작하면 커밋된 LSN 다음부터 반영한다
+        try (WriteAheadJournal journal = open()) {
+            JournalReplayer<String> replayer = replayer(journal, sink);
+            awaitReplayed(replayer, 80);
+            replayer.close();
+            assertThat(replayer.getLag()).isZero();
+            assertThat(journal.getSegmentCount()).isEqualTo(1);
+        }
+
+        assertThat(replayed).containsExactlyElementsOf(
+                IntStream.rangeClosed(1, 80).mapToObj(i -> "loan-" + i).collect(Collectors.toList()));
+    }
+
+    @Test
+    void movesPermanentFailuresToDeadLetterAndContinues() throws Exception {
+        List<String> replayed = Collections.synchronizedList(new ArrayList<>());
+        Consumer<List<String>> sink = commands -> {
+            if (commands.contains("loan-3")) {
+                throw new DataIntegrityViolationException("bad loan");
+            }
+            replayed.addAll(commands);
+        };
+
+        try (WriteAheadJournal journal = open()) {
+            JournalReplayer<String> replayer = replayer(journal, sink);
+            append(journal, 1, 20);
+            awaitReplayed(replayer, 20);
+            replayer.close();
+
+            assertThat(replayer.getDeadLetterCount()).isEqualTo(1);
+            assertThat(replayer.isHealthy()).isTrue();
+        }
+
+        assertThat(replayed).containsExactlyElementsOf(IntStream.rangeClosed(1, 20).filter(i -> i != 3)
+                .mapToObj(i -> "loan-" + i).collect(Collectors.toList()));
+        Map<String, Object> deadLetter = jdbcTemplate.queryForMap("SELECT POSITION, PAYLOAD FROM " + BulkLoadRejectLog.TABLE_NAME);
+        assertThat(deadLetter.get("POSITION")).isEqualTo(3L);
+        assertThat((byte[]) deadLetter.get("PAYLOAD")).isEqualTo("loan-3".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void restartsAfterTransientRetriesAreExhausted() throws Exception {
+        List<String> replayed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger(5);
+        AtomicReference<JournalReplayer<String>> replayerRef = new AtomicReference<>();
+        AtomicBoolean healthyAfterRestart = new AtomicBoolean(true);
+        Consumer<List<String>> sink = commands -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new TransientDataAccessResourceException("database down");
+            }
+            if (replayed.isEmpty()) {
+                healthyAfterRestart.set(replayerRef.get().isHealthy());
+            }
+            replayed.addAll(commands);
+        };
+
+        try (WriteAheadJournal journal = open()) {
+            append(journal, 1, 10);
+            replayerRef.set(replayer(journal, sink));
+            awaitReplayed(replayerRef.get(), 10);
+            replayerRef.get().close();
+
+            assertThat(healthyAfterRestart).isFalse();
+            assertThat(replayerRef.get().isHealthy()).isTrue();
+            assertThat(replayerRef.get().getDeadLetterCount()).isZero();
+        }
+
+        assertThat(replayed).containsExactlyElementsOf(
+                IntStream.rangeClosed(1, 10).mapToObj(i -> "loan-" + i).collect(Collectors.toList()));
+    }
+
+    private WriteAheadJournal open() throws IOException {
+        WriteAheadJournal journal = new WriteAheadJournal("test", directory, 256, 1_000, 8, 1, 1_000);
+        journal.start();
+        return journal;
+    }
+
+    private JournalReplayer<String> replayer(WriteAheadJournal journal, Consumer<List<String>> sink) {
+        JournalReplayer<String> replayer = new JournalReplayer<>("test", journal,
+                payload -> new String(payload, StandardCharsets.UTF_8), sink, dataSource,
+                new DataSourceTransactionManager(dataSource), 16, 5, 10, 1, new SimpleMeterRegistry());
+        replayer.start();
+        return replayer;
+    }
+
+    private static void append(WriteAheadJournal journal, int from, int to) {
+        for (int i = from; i <= to; i++) {
+            journal.append(("loan-" + i).getBytes(StandardCharsets.UTF_8)).join();
+        }
+    }
+
+    private static void awaitReplayed(JournalReplayer<String> replayer, long lsn) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (replayer.getReplayedLsn() < lsn && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(replayer.getReplayedLsn()).isEqualTo(lsn);
+    }
+}
@@ -0,0 +1,141 @@
+package com.jw.common.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteAheadJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void acknowledgesDurableRecordsAndReadsAcrossSegments() throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        try (WriteAheadJournal journal = open()) {
+            List<CompletableFuture<Long>> acks = new ArrayList<>();
+            for (int i = 1; i <= 100; i++) {
+                acks.add(journal.append(payload(i)));
+            }
+            assertThat(acks.stream().map(CompletableFuture::join)).containsExactlyElementsOf(lsns(1, 100));
+            assertThat(journal.getDurableLsn()).isEqualTo(100);
+            assertThat(journal.getSegmentCount()).isGreaterThan(1);
+
+            try (WriteAheadJournal.Reader reader = journal.openReader(40)) {
+                List<JournalRecord> batch;
+                while (!(batch = reader.read(7)).isEmpty()) {
+                    records.addAll(batch);
+                }
+            }
+        }
+
+        assertThat(records).extracting(JournalRecord::getLsn).containsExactlyElementsOf(lsns(41, 100));
+        assertThat(records.get(0).getPayload()).isEqualTo(payload(41));
+    }
+
+    @Test
+    void truncatesTornTailOnRecovery() throws IOException {
+        try (WriteAheadJournal journal = open()) {
+            for (int i = 1; i <= 10; i++) {
+                journal.append(payload(i)).join();
+            }
+        }
+        // 마지막 segment 에 쓰다 만 record 를 붙인다
+        Path last;
+        try (Stream<Path> files = Files.list(directory)) {
+            last = files.sorted().reduce((first, second) -> second).orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(WriteAheadJournal.HEADER_SIZE - 3).putInt(100).flip());
+        }
+
+        try (WriteAheadJournal journal = open()) {
+            assertThat(journal.getDurableLsn()).isEqualTo(10);
+            assertThat(journal.append(payload(11)).join()).isEqualTo(11);
+            try (WriteAheadJournal.Reader reader = journal.openReader(9)) {
+                assertThat(reader.read(10)).extracting(JournalRecord::getLsn).containsExactly(10L, 11L);
+            }
+        }
+    }
+
+    @Test
+    void compactsReplayedSegmentsButKeepsActiveOne() throws IOException {
+        try (WriteAheadJournal journal = open()) {
+            for (int i = 1; i <= 100; i++) {
+                journal.append(payload(i)).join();
+            }
+            int segments = journal.getSegmentCount();
+
+            assertThat(journal.deleteSegmentsUpTo(50)).isPositive();
+            assertThat(journal.getSegmentCount()).isLessThan(segments);
+            try (WriteAheadJournal.Reader reader = journal.openReader(50)) {
+                assertThat(reader.read(1)).extracting(JournalRecord::getLsn).containsExactly(51L);
+            }
+
+            journal.deleteSegmentsUpTo(100);
+            assertThat(journal.getSegmentCount()).isEqualTo(1);
+        }
+
+        // 모든 segment 를 지운 뒤 다시 열어도 LSN 은 이어진다
+        try (WriteAheadJournal journal = open()) {
+            assertThat(journal.append(payload(101)).join()).isEqualTo(101);
+        }
+    }
+
+    // fsync 뒤 새 segment 를 만들지 못해도 기록은 완료되고, 다음 기록 뒤에 다시 넘어간다
+    @Test
+    void completesDurableRecordsWhenRollFails() throws IOException {
+        byte[] large = new byte[300];
+        try (WriteAheadJournal journal = open()) {
+            // 다음 segment 파일 자리(LSN 2, 3)에 디렉터리를 만들어 열지 못하게 한다
+            List<Path> blocked = List.of(blockSegment(2), blockSegment(3));
+            assertThat(journal.append(large).join()).isEqualTo(1);
+            assertThat(journal.append(payload(2)).join()).isEqualTo(2);
+            assertThat(journal.getSegmentCount()).isEqualTo(1);
+
+            for (Path path : blocked) {
+                Files.delete(path);
+            }
+            assertThat(journal.append(payload(3)).join()).isEqualTo(3);
+            assertThat(journal.getSegmentCount()).isEqualTo(2);
+            assertThat(journal.append(payload(4)).join()).isEqualTo(4);
+        }
+
+        try (WriteAheadJournal journal = open();
+             WriteAheadJournal.Reader reader = journal.openReader(0)) {
+            assertThat(journal.getDurableLsn()).isEqualTo(4);
+            assertThat(reader.read(10)).extracting(JournalRecord::getLsn).containsExactly(1L, 2L, 3L, 4L);
+        }
+    }
+
+    private Path blockSegment(long firstLsn) throws IOException {
+        return Files.createDirectory(directory.resolve(String.format("%020d", firstLsn) + WriteAheadJournal.SEGMENT_SUFFIX));
+    }
+
+    private WriteAheadJournal open() throws IOException {
+        WriteAheadJournal journal = new WriteAheadJournal("test", directory, 256, 1_000, 8, 1, 1_000);
+        journal.start();
+        return journal;
+    }
+
+    private static byte[] payload(int value) {
+        return ("loan-" + value).getBytes();
+    }
+
+    private static List<Long> lsns(long from, long to) {
+        return Stream.iterate(from, lsn -> lsn + 1).limit(to - from + 1).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,46 @@
+package com.jw.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcMetricsListenerTest {
+
+    @Test
+    void extractsTableNameFromStatement() {
+        assertThat(JdbcMetricsListener.tableName("insert into loan_schedule (id, loan_id) values (?, ?)"))
+                .isEqualTo("LOAN_SCHEDULE");
+        assertThat(JdbcMetricsListener.tableName("INSERT /*+ APPEND_VALUES */ INTO LOAN_SCHEDULE (ID) VALUES (?)"))
+                .isEqualTo("LOAN_SCHEDULE");
+        assertThat(JdbcMetricsListener.tableName("INSERT ALL INTO LOAN (ID) VALUES (?) SELECT 1 FROM DUAL"))
+                .isEqualTo("LOAN");
+        assertThat(JdbcMetricsListener.tableName("update BULK_LOAD_LEDGER set POSITION = ? where LOAD_ID = ?"))
+                .isEqualTo("BULK_LOAD_LEDGER");
+        assertThat(JdbcMetricsListener.tableName("select l.id from loan l where l.id = ?"))
+                .isEqualTo("LOAN");
+        assertThat(JdbcMetricsListener.tableName("call next value for SQ_LOAN")).isEqualTo("unknown");
+    }
+
+    @Test
+    void detectsRewrittenBatchFromUpdateCounts() {
+        assertThat(JdbcMetricsListener.isRewritten(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO})).isTrue();
+        assertThat(JdbcMetricsListener.isRewritten(new long[]{Statement.SUCCESS_NO_INFO})).isTrue();
+        assertThat(JdbcMetricsListener.isRewritten(new int[]{1, 1})).isFalse();
+        assertThat(JdbcMetricsListener.isRewritten(new int[0])).isFalse();
+        assertThat(JdbcMetricsListener.isRewritten(1)).isFalse();
+    }
+
+    @Test
+    void propagatesOperationToOtherThread() throws Exception {
+        String previous = JdbcOperationContext.enter("executeCreditLoan");
+        try {
+            assertThat(JdbcOperationContext.propagate(JdbcOperationContext::current).call())
+                    .isEqualTo("executeCreditLoan");
+        } finally {
+            JdbcOperationContext.restore(previous);
+        }
+        assertThat(JdbcOperationContext.current()).isEqualTo(JdbcOperationContext.NONE);
+    }
+}
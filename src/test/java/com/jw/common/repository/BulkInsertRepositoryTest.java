@@ -0,0 +1,90 @@
+package com.jw.common.repository;
+
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.entity.MyLoanSchedule;
+import com.jw.domain.mysql.loan.repository.MyLoanRepository;
+import com.jw.domain.mysql.loan.repository.MyLoanScheduleRepository;
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import com.jw.domain.oracle.loan.repository.LoanScheduleRepository;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 내장 H2 로 실행. chunk 크기를 고정하려고 adaptive batch 를 끈다 (hibernate.jdbc.batch_size 1000)
+@SpringBootTest(properties = "jw.bulk.adaptive-batch.enabled=false")
+@ActiveProfiles("h2")
+class BulkInsertRepositoryTest {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int DURATION_MONTHS = 5 * CHUNK_SIZE + 10;
+
+    @Autowired
+    private MyLoanRepository myLoanRepository;
+
+    @Autowired
+    private MyLoanScheduleRepository myLoanScheduleRepository;
+
+    @Autowired
+    private LoanScheduleRepository loanScheduleRepository;
+
+    @Autowired
+    @Qualifier("mysqlEntityManagerFactory")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("mysqlTransactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void keepsAtMostOneChunkInPersistenceContext() {
+        AtomicInteger maxManaged = new AtomicInteger();
+        long inserted = new TransactionTemplate(transactionManager).execute(status -> {
+            Session session = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                    .unwrap(Session.class);
+            MyLoan loan = myLoanRepository.save(MyLoan.createCreditLoan(loan()));
+            long rows = myLoanScheduleRepository.persistAllInChunks(loan.streamRepaymentSchedule()
+                    .peek(schedule -> maxManaged.accumulateAndGet(session.getStatistics().getEntityCount(), Math::max)));
+
+            // 남은 것은 대출뿐이다
+            assertThat(session.getStatistics().getEntityCount()).isEqualTo(1);
+            return rows;
+        });
+
+        assertThat(inserted).isEqualTo(DURATION_MONTHS);
+        // 대출 1 + 아직 flush 되지 않은 한 chunk
+        assertThat(maxManaged.get()).isBetween(CHUNK_SIZE, CHUNK_SIZE + 1);
+        assertThat(myLoanScheduleRepository.count()).isGreaterThanOrEqualTo(DURATION_MONTHS);
+    }
+
+    @Test
+    void requiresTransaction() {
+        MyLoan loan = MyLoan.createCreditLoan(loan());
+
+        assertThatThrownBy(() -> myLoanScheduleRepository.persistAllInChunks(List.of(MyLoanSchedule.of(loan, 1, BigDecimal.ONE))))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+        assertThat(loanScheduleRepository.persistAllInChunks(Stream.empty())).isZero();
+    }
+
+    private static LoanSaveVo loan() {
+        return LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(10_000_000))
+                .interestRate(BigDecimal.valueOf(3.0))
+                .durationMonths(DURATION_MONTHS)
+                .build();
+    }
+}
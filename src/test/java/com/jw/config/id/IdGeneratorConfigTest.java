@@ -0,0 +1,25 @@
+package com.jw.config.id;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdGeneratorConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(IdGeneratorConfig.class);
+
+    @Test
+    void failsWithoutNodeId() {
+        contextRunner.run(context -> assertThat(context).hasFailed()
+                .getFailure().hasRootCauseMessage("jw.id.node-id is not set. Give each instance a distinct node id"
+                        + " (0 ~ 1023), e.g. JW_ID_NODE_ID=1"));
+    }
+
+    @Test
+    void startsWithNodeId() {
+        contextRunner.withPropertyValues("jw.id.node-id=3")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+}
@@ -0,0 +1,148 @@
+package com.jw.config.jpa;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mysql persistence unit 을 내장 H2 로 띄워 SessionFactory 생성 중에 스키마 검사를 생략하는지 확인한다
+class SchemaSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:snapshot;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void skipsSchemaCheckOnceSnapshotIsRecorded() {
+        assertThat(ddlAutoAfterStart("update", dataSource)).isEqualTo("update");
+        assertThat(directory.resolve("mysqlPU" + SchemaSnapshot.FILE_SUFFIX)).isRegularFile();
+
+        assertThat(ddlAutoAfterStart("update", dataSource)).isEqualTo("none");
+        assertThat(ddlAutoAfterStart("validate", dataSource)).isEqualTo("none");
+    }
+
+    @Test
+    void checksAgainWhenMappedColumnDrifts() {
+        ddlAutoAfterStart("update", dataSource);
+        jdbcTemplate.execute("ALTER TABLE LOAN_SCHEDULE DROP COLUMN PAYMENT_AMOUNT");
+
+        assertThat(ddlAutoAfterStart("update", dataSource)).isEqualTo("update");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS"
+                + " WHERE TABLE_NAME = 'LOAN_SCHEDULE' AND COLUMN_NAME = 'PAYMENT_AMOUNT'", Integer.class)).isEqualTo(1);
+        assertThat(ddlAutoAfterStart("update", dataSource)).isEqualTo("none");
+    }
+
+    // 매핑되지 않은 테이블은 읽지 않는다
+    @Test
+    void ignoresUnmappedTables() {
+        ddlAutoAfterStart("update", dataSource);
+        jdbcTemplate.execute("CREATE TABLE REPORT_TMP (ID BIGINT PRIMARY KEY)");
+
+        assertThat(ddlAutoAfterStart("update", dataSource)).isEqualTo("none");
+    }
+
+    @Test
+    void checksAgainWhenTargetChanges() {
+        ddlAutoAfterStart("update", dataSource);
+
+        DriverManagerDataSource other = new DriverManagerDataSource("jdbc:h2:mem:snapshot-other;DB_CLOSE_DELAY=-1", "sa", "");
+        try {
+            assertThat(ddlAutoAfterStart("update", other)).isEqualTo("update");
+        } finally {
+            new JdbcTemplate(other).execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    void checksAgainWhenSnapshotIsCorrupt() throws Exception {
+        Files.writeString(directory.resolve("mysqlPU" + SchemaSnapshot.FILE_SUFFIX), "garbage");
+
+        assertThat(ddlAutoAfterStart("update", dataSource)).isEqualTo("update");
+    }
+
+    @Test
+    void ignoresSchemaCreation() {
+        Map<String, Object> properties = properties("create-drop");
+        SchemaSnapshot.register(directory, "mysqlPU", properties, dataSource);
+
+        assertThat(properties).doesNotContainKeys(AvailableSettings.SESSION_FACTORY_OBSERVER,
+                EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER);
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void keepsRegisteredIntegrators() {
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                                  SessionFactoryServiceRegistry serviceRegistry) {
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        Map<String, Object> properties = properties("update");
+        properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(integrator));
+
+        SchemaSnapshot.register(directory, "mysqlPU", properties, dataSource);
+
+        List<Integrator> integrators = ((IntegratorProvider) properties.get(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER))
+                .getIntegrators();
+        assertThat(integrators).hasSize(2).first().isSameAs(integrator);
+        assertThat(integrators.get(1)).isSameAs(properties.get(AvailableSettings.SESSION_FACTORY_OBSERVER));
+    }
+
+    // persistence unit 을 띄웠다 닫고, 스키마 검사 직전의 hibernate.hbm2ddl.auto 를 반환
+    private String ddlAutoAfterStart(String ddlAuto, DataSource target) {
+        Map<String, Object> properties = properties(ddlAuto);
+        SchemaSnapshot.register(directory, "mysqlPU", properties, target);
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(target);
+        factoryBean.setPackagesToScan("com.jw.domain.mysql");
+        factoryBean.setPersistenceUnitName("mysqlPU");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(properties);
+        factoryBean.afterPropertiesSet();
+        try {
+            return String.valueOf(factoryBean.getNativeEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getProperties().get(AvailableSettings.HBM2DDL_AUTO));
+        } finally {
+            factoryBean.destroy();
+        }
+    }
+
+    private static Map<String, Object> properties(String ddlAuto) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.DIALECT, "org.hibernate.dialect.H2Dialect");
+        properties.put(AvailableSettings.HBM2DDL_AUTO, ddlAuto);
+        return properties;
+    }
+}
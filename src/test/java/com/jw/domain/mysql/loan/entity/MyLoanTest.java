@@ -0,0 +1,71 @@
+package com.jw.domain.mysql.loan.entity;
+
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MyLoanTest {
+
+    private final MyLoan myLoan = MyLoan.createCreditLoan(LoanSaveVo.builder()
+            .amount(BigDecimal.valueOf(12_000_000))
+            .interestRate(BigDecimal.valueOf(3.0))
+            .durationMonths(12)
+            .build());
+
+    @Test
+    void generatesScheduleLazily() {
+        assertThat(myLoan.getLoanSchedules()).isEmpty();
+
+        List<MyLoanSchedule> schedules = myLoan.streamRepaymentSchedule().collect(Collectors.toList());
+
+        assertThat(schedules).hasSize(12);
+        assertThat(schedules).extracting(MyLoanSchedule::getInstallmentNo).startsWith(1, 2, 3).endsWith(12);
+        assertThat(schedules).allSatisfy(schedule -> assertThat(schedule.getLoan()).isSameAs(myLoan));
+        assertThat(myLoan.getLoanSchedules()).isEmpty();
+    }
+
+    @Test
+    void rangesProduceSameIdsAsWholeSchedule() {
+        List<Long> whole = myLoan.streamRepaymentSchedule().map(MyLoanSchedule::getId).collect(Collectors.toList());
+        List<Long> ranges = Stream.concat(
+                        myLoan.streamRepaymentSchedule(1, 5),
+                        myLoan.streamRepaymentSchedule(6, 12))
+                .map(MyLoanSchedule::getId)
+                .collect(Collectors.toList());
+
+        assertThat(ranges).isEqualTo(whole);
+    }
+
+    @Test
+    void scheduleIdsStartAtFirstScheduleId() {
+        List<Long> whole = myLoan.streamRepaymentSchedule().map(MyLoanSchedule::getId).collect(Collectors.toList());
+
+        assertThat(whole.get(0)).isEqualTo(myLoan.getFirstScheduleId());
+        assertThat(whole).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void rejectsRangeOutsideDuration() {
+        assertThatThrownBy(() -> myLoan.streamRepaymentSchedule(0, 12)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> myLoan.streamRepaymentSchedule(1, 13)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void changeTermsReservesNewScheduleIds() {
+        List<Long> before = myLoan.streamRepaymentSchedule().map(MyLoanSchedule::getId).collect(Collectors.toList());
+
+        myLoan.changeTerms(BigDecimal.valueOf(5.0), 24);
+        List<MyLoanSchedule> after = myLoan.streamRepaymentSchedule().collect(Collectors.toList());
+
+        assertThat(after).hasSize(24);
+        assertThat(after).extracting(MyLoanSchedule::getId).doesNotContainAnyElementsOf(before);
+        assertThatThrownBy(() -> myLoan.changeTerms(BigDecimal.ONE, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,134 @@
+package com.jw.domain.mysql.loan.service;
+
+import com.jw.common.ledger.BulkLoadLedger;
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.entity.MyLoanSchedule;
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import org.hibernate.envers.AuditReaderFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 내장 H2 로 실행. 저장 경로마다 감사 행이 호출 하나당 revision 하나로 기록되는지 확인한다
+@SpringBootTest
+@ActiveProfiles("h2")
+class MyLoanAuditTest {
+
+    @Autowired
+    private MyLoanExecuteService myLoanExecuteService;
+
+    @Autowired
+    @Qualifier("mysqlEntityManagerFactory")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("mysqlProxyDataSource")
+    private DataSource dataSource;
+
+    @Test
+    void auditsLoanAndSchedulesInOneRevision() {
+        MyLoan loan = myLoanExecuteService.executeCreditLoan(loan(24));
+
+        List<Number> revisions = revisionsOf(loan.getId());
+        assertThat(revisions).hasSize(1);
+        assertThat(scheduleAuditCount(loan.getId(), revisions.get(0).longValue(), 0)).isEqualTo(24);
+    }
+
+    @Test
+    void auditsJdbcPaths() {
+        MyLoan nativeLoan = myLoanExecuteService.executeCreditLoanNative(loan(12));
+        MyLoan columnarLoan = myLoanExecuteService.executeCreditLoanColumnar(loan(12));
+        MyLoan parallelLoan = myLoanExecuteService.executeCreditLoanParallel("audit-parallel", loan(30));
+
+        for (MyLoan loan : List.of(nativeLoan, columnarLoan, parallelLoan)) {
+            List<Number> revisions = revisionsOf(loan.getId());
+            assertThat(revisions).hasSize(1);
+            assertThat(scheduleAuditCount(loan.getId(), revisions.get(0).longValue(), 0))
+                    .isEqualTo(loan.getDurationMonths());
+        }
+    }
+
+    @Test
+    void auditsScheduleReplacement() {
+        MyLoan loan = myLoanExecuteService.executeCreditLoan(loan(6));
+
+        myLoanExecuteService.replaceRepaymentSchedule(loan.getId(), BigDecimal.valueOf(5.0), 10);
+
+        List<Number> revisions = revisionsOf(loan.getId());
+        assertThat(revisions).hasSize(2);
+        long revision = revisions.get(1).longValue();
+        assertThat(scheduleAuditCount(loan.getId(), revision, 2)).isEqualTo(6);
+        assertThat(scheduleAuditCount(loan.getId(), revision, 0)).isEqualTo(10);
+        assertThat(new JdbcTemplate(dataSource).queryForObject(
+                "SELECT REVTYPE FROM LOAN_AUD WHERE ID = ? AND REV = ?", Integer.class, loan.getId(), revision))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void auditsUpsertAsModifiedOrAdded() {
+        MyLoan loan = myLoanExecuteService.executeCreditLoan(loan(3));
+        List<MyLoanSchedule> schedules = loan.streamRepaymentSchedule().collect(Collectors.toList());
+        MyLoanSchedule added = MyLoanSchedule.of(loan, 4, BigDecimal.valueOf(1_000));
+        schedules.add(added);
+
+        myLoanExecuteService.upsertLoanSchedules(schedules);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long revision = jdbcTemplate.queryForObject(
+                "SELECT MAX(REV) FROM LOAN_SCHEDULE_AUD WHERE LOAN_ID = ?", Long.class, loan.getId());
+        assertThat(scheduleAuditCount(loan.getId(), revision, 1)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT REVTYPE FROM LOAN_SCHEDULE_AUD WHERE ID = ? AND REV = ?",
+                Integer.class, added.getId(), revision)).isEqualTo(0);
+    }
+
+    @Test
+    void auditsParallelLoadOnceAcrossResume() {
+        MyLoan loan = myLoanExecuteService.executeCreditLoanParallel("audit-resume", loan(30));
+
+        myLoanExecuteService.resumeCreditLoanParallel("audit-resume");
+
+        List<Number> revisions = revisionsOf(loan.getId());
+        assertThat(revisions).hasSize(1);
+        assertThat(new JdbcTemplate(dataSource).queryForObject(
+                "SELECT POSITION FROM " + BulkLoadLedger.TABLE_NAME + " WHERE LOAD_ID = ? AND PARTITION_NO = -3",
+                Long.class, "audit-resume")).isEqualTo(revisions.get(0).longValue());
+    }
+
+    private List<Number> revisionsOf(Long loanId) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return AuditReaderFactory.get(entityManager).getRevisions(MyLoan.class, loanId);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    // DEL 행은 LOAN_ID 를 남기지 않으므로 같은 revision 의 DEL 은 ID 로 센다
+    private long scheduleAuditCount(Long loanId, long revision, int revisionType) {
+        String sql = revisionType == 2
+                ? "SELECT COUNT(*) FROM LOAN_SCHEDULE_AUD WHERE REV = ? AND REVTYPE = 2"
+                + " AND ID IN (SELECT ID FROM LOAN_SCHEDULE_AUD WHERE LOAN_ID = ? AND REVTYPE = 0)"
+                : "SELECT COUNT(*) FROM LOAN_SCHEDULE_AUD WHERE REV = ? AND REVTYPE = " + revisionType + " AND LOAN_ID = ?";
+        return new JdbcTemplate(dataSource).queryForObject(sql, Long.class, revision, loanId);
+    }
+
+    private LoanSaveVo loan(int durationMonths) {
+        return LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(10_000_000))
+                .interestRate(BigDecimal.valueOf(3.0))
+                .durationMonths(durationMonths)
+                .build();
+    }
+}
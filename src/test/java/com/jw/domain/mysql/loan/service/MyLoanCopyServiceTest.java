@@ -0,0 +1,76 @@
+package com.jw.domain.mysql.loan.service;
+
+import com.jw.common.jdbc.TableCopyResult;
+import com.jw.domain.oracle.loan.entity.Loan;
+import com.jw.domain.oracle.loan.service.LoanExecuteService;
+import com.jw.domain.oracle.loan.vo.LoanSaveVo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 내장 H2 로 실행. 작은 partition 으로 나누어 이어서 복사하는 경로까지 확인한다
+@SpringBootTest(properties = {"jw.bulk.copy.partition-count=3", "jw.bulk.copy.queue-capacity=1"})
+@ActiveProfiles("h2")
+class MyLoanCopyServiceTest {
+
+    @Autowired
+    private LoanExecuteService loanExecuteService;
+
+    @Autowired
+    private MyLoanCopyService myLoanCopyService;
+
+    @Autowired
+    @Qualifier("oracleProxyDataSource")
+    private DataSource oracleDataSource;
+
+    @Autowired
+    @Qualifier("mysqlProxyDataSource")
+    private DataSource mysqlDataSource;
+
+    @Test
+    void copiesOracleLoansAndResumes() {
+        Loan loan = loanExecuteService.executeCreditLoan(loan(2_500));
+        loanExecuteService.executeCreditLoan(loan(7));
+        JdbcTemplate oracle = new JdbcTemplate(oracleDataSource);
+        JdbcTemplate mysql = new JdbcTemplate(mysqlDataSource);
+        long loanCount = oracle.queryForObject("SELECT COUNT(*) FROM LOAN", Long.class);
+        long scheduleCount = oracle.queryForObject("SELECT COUNT(*) FROM LOAN_SCHEDULE", Long.class);
+
+        List<TableCopyResult> results = myLoanCopyService.copyFromOracle("copy-test");
+
+        assertThat(results).extracting(TableCopyResult::getCopiedRows).containsExactly(loanCount, scheduleCount);
+        assertThat(mysql.queryForObject("SELECT COUNT(*) FROM LOAN_SCHEDULE WHERE LOAN_ID = ?", Long.class, loan.getId()))
+                .isEqualTo(2_500);
+        assertThat(mysql.queryForObject("SELECT PAYMENT_AMOUNT FROM LOAN_SCHEDULE WHERE LOAN_ID = ? AND INSTALLMENT_NO = 1",
+                BigDecimal.class, loan.getId()))
+                .isEqualByComparingTo(loan.calculateMonthlyPayment());
+        // 복사한 행은 ADD 로 감사 테이블에 남는다
+        assertThat(mysql.queryForObject("SELECT COUNT(*) FROM LOAN_AUD WHERE REVTYPE = 0", Long.class)).isEqualTo(loanCount);
+        assertThat(mysql.queryForObject("SELECT COUNT(*) FROM LOAN_SCHEDULE_AUD WHERE REVTYPE = 0 AND LOAN_ID = ?",
+                Long.class, loan.getId())).isEqualTo(2_500);
+
+        // 원장에 기록된 구간 이후에 추가된 row 는 복사하지 않고, 끝난 partition 은 건너뛴다
+        loanExecuteService.executeCreditLoan(loan(3));
+        List<TableCopyResult> resumed = myLoanCopyService.copyFromOracle("copy-test");
+
+        assertThat(resumed).extracting(TableCopyResult::getCopiedRows).containsExactly(0L, 0L);
+        assertThat(resumed).allSatisfy(result -> assertThat(result.getSkippedPartitions()).hasSize(3));
+    }
+
+    private static LoanSaveVo loan(int durationMonths) {
+        return LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(10_000_000))
+                .interestRate(BigDecimal.valueOf(3.0))
+                .durationMonths(durationMonths)
+                .build();
+    }
+}
@@ -1,14 +1,21 @@
 package com.jw.domain.mysql.loan.service;
 
+import com.jw.domain.mysql.loan.entity.MyLoan;
 import com.jw.domain.mysql.loan.vo.LoanSaveVo;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @Slf4j
 @SpringBootTest
@@ -20,6 +27,10 @@ class MyLoanExecuteServiceTest {
     @Autowired
     private MyLoanExecuteService myLoanExecuteService;
 
+    @Autowired
+    @Qualifier("mysqlProxyDataSource")
+    private DataSource dataSource;
+
     @Test
     @Transactional(transactionManager = "mysqlTransactionManager")
     void testPerformance() {
@@ -34,6 +45,36 @@ class MyLoanExecuteServiceTest {
         log.info("MyLoanExecuteService cost time: {} ms", end - start);
     }
 
+    // 방식마다 자기 트랜잭션으로 실행하고 커밋된 상환 일정 건수를 확인한다 (앞 방식의 미커밋 row 가 뒤 방식에 영향을 주지 않도록)
+    @Test
+    void compareThroughput() {
+        LoanSaveVo vo = LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(100_000_000))
+                .interestRate(BigDecimal.valueOf(4.0))
+                .durationMonths(DATA_SIZE)
+                .build();
+        long saveCost = measure(() -> myLoanExecuteService.executeCreditLoan(vo));
+        long nativeCost = measure(() -> myLoanExecuteService.executeCreditLoanNative(vo));
+        long loadDataCost = measure(() -> myLoanExecuteService.executeCreditLoanLoadData(vo));
+        long columnarCost = measure(() -> myLoanExecuteService.executeCreditLoanColumnar(vo));
+
+        log.info("MyLoanExecuteService save() : {} ms ({} rows/s), native : {} ms ({} rows/s), load data : {} ms ({} rows/s), columnar : {} ms ({} rows/s)",
+                saveCost, DATA_SIZE * 1000L / Math.max(1, saveCost),
+                nativeCost, DATA_SIZE * 1000L / Math.max(1, nativeCost),
+                loadDataCost, DATA_SIZE * 1000L / Math.max(1, loadDataCost),
+                columnarCost, DATA_SIZE * 1000L / Math.max(1, columnarCost));
+    }
+
+    private long measure(Supplier<MyLoan> execution) {
+        long start = System.currentTimeMillis();
+        MyLoan loan = execution.get();
+        long cost = System.currentTimeMillis() - start;
+        assertThat(new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM LOAN_SCHEDULE WHERE LOAN_ID = ?", Long.class, loan.getId()))
+                .isEqualTo(DATA_SIZE);
+        return cost;
+    }
+
     @Test
     @Transactional(transactionManager = "mysqlTransactionManager")
     void createCreditLoan() {
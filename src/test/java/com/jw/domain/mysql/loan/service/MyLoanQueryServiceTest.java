@@ -0,0 +1,115 @@
+package com.jw.domain.mysql.loan.service;
+
+import com.jw.common.cache.CommitAwareCache;
+import com.jw.domain.mysql.loan.entity.MyLoan;
+import com.jw.domain.mysql.loan.entity.MyLoanSchedule;
+import com.jw.domain.mysql.loan.repository.MyLoanRepository;
+import com.jw.domain.mysql.loan.vo.LoanHeaderVo;
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import com.jw.domain.mysql.loan.vo.LoanScheduleVo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 내장 H2 로 실행
+@SpringBootTest
+@ActiveProfiles("h2")
+class MyLoanQueryServiceTest {
+
+    @Autowired
+    private MyLoanExecuteService myLoanExecuteService;
+
+    @Autowired
+    private MyLoanQueryService myLoanQueryService;
+
+    @Autowired
+    private MyLoanRepository myLoanRepository;
+
+    @Autowired
+    @Qualifier("mysqlLoanCache")
+    private CommitAwareCache<Long, LoanHeaderVo> loanCache;
+
+    @Test
+    void streamsSchedulesInInstallmentOrder() {
+        MyLoan myLoan = myLoanExecuteService.executeCreditLoan(loan(30));
+        List<Integer> installmentNos = new ArrayList<>();
+
+        long count = myLoanQueryService.forEachSchedule(myLoan.getId(), schedule -> {
+            assertThat(schedule.getLoanId()).isEqualTo(myLoan.getId());
+            installmentNos.add(schedule.getInstallmentNo());
+        });
+
+        assertThat(count).isEqualTo(30);
+        assertThat(installmentNos).isSorted().startsWith(1).endsWith(30);
+    }
+
+    // 반환된 대출은 상환 일정을 담지 않고, 다시 로딩한 대출은 저장된 일정과 같은 ID 로 일정을 생성한다
+    @Test
+    void reloadedLoanRegeneratesStoredScheduleIds() {
+        MyLoan saved = myLoanExecuteService.executeCreditLoan(loan(9));
+        assertThat(saved.getLoanSchedules()).isEmpty();
+        List<Long> stored = new ArrayList<>();
+        myLoanQueryService.forEachSchedule(saved.getId(), schedule -> stored.add(schedule.getId()));
+
+        MyLoan reloaded = myLoanRepository.findById(saved.getId()).orElseThrow();
+
+        assertThat(reloaded.streamRepaymentSchedule().map(MyLoanSchedule::getId).collect(Collectors.toList()))
+                .isEqualTo(stored);
+    }
+
+    @Test
+    void findsCommittedLoanFromCache() {
+        MyLoan myLoan = myLoanExecuteService.executeCreditLoan(loan(12));
+        long hits = loanCache.stats().hitCount();
+
+        LoanHeaderVo header = myLoanQueryService.findLoan(myLoan.getId()).orElseThrow();
+
+        assertThat(header.getDurationMonths()).isEqualTo(12);
+        assertThat(header.getMonthlyPayment()).isEqualByComparingTo(myLoan.calculateMonthlyPayment());
+        assertThat(loanCache.stats().hitCount()).isEqualTo(hits + 1);
+
+        MyLoan changed = myLoanExecuteService.replaceRepaymentSchedule(myLoan.getId(), BigDecimal.valueOf(5.0), 24);
+
+        assertThat(myLoanQueryService.findLoan(changed.getId())).get()
+                .extracting(LoanHeaderVo::getDurationMonths).isEqualTo(24);
+    }
+
+    @Test
+    void pagesByLoanIdAndInstallmentNo() {
+        MyLoan first = myLoanExecuteService.executeCreditLoan(loan(7));
+        MyLoan second = myLoanExecuteService.executeCreditLoan(loan(5));
+        List<LoanScheduleVo> all = new ArrayList<>();
+
+        List<LoanScheduleVo> page = myLoanQueryService.findSchedulesAfter(null, 3);
+        while (!page.isEmpty()) {
+            assertThat(page).hasSizeLessThanOrEqualTo(3);
+            all.addAll(page);
+            page = myLoanQueryService.findSchedulesAfter(page.get(page.size() - 1), 3);
+        }
+
+        List<Long> ids = all.stream().map(LoanScheduleVo::getId).collect(Collectors.toList());
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(all).filteredOn(schedule -> schedule.getLoanId().equals(first.getId())).hasSize(7);
+        assertThat(all).filteredOn(schedule -> schedule.getLoanId().equals(second.getId())).hasSize(5);
+        assertThat(all).isSortedAccordingTo((a, b) -> a.getLoanId().equals(b.getLoanId())
+                ? Integer.compare(a.getInstallmentNo(), b.getInstallmentNo())
+                : Long.compare(a.getLoanId(), b.getLoanId()));
+    }
+
+    private static LoanSaveVo loan(int durationMonths) {
+        return LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(10_000_000))
+                .interestRate(BigDecimal.valueOf(3.0))
+                .durationMonths(durationMonths)
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.jw.domain.mysql.loan.service;
+
+import com.jw.domain.mysql.loan.vo.LoanSaveVo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 내장 H2 로 실행. @BulkWorkload 가 트랜잭션보다 먼저 적용되어 트랜잭션 커넥션을 bulk pool 에서 가져오는지 확인한다
+@SpringBootTest
+@ActiveProfiles("h2")
+class MyLoanWorkloadRoutingTest {
+
+    private static final Map<String, AtomicInteger> CONNECTIONS = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MyLoanExecuteService myLoanExecuteService;
+
+    @Autowired
+    private MyLoanQueryService myLoanQueryService;
+
+    @Test
+    void bulkWorkloadTransactionUsesBulkPool() {
+        int oltp = connections("mysqlOltpDataSource");
+        int bulk = connections("mysqlBulkDataSource");
+
+        myLoanExecuteService.executeCreditLoanNative(loan());
+
+        assertThat(connections("mysqlBulkDataSource")).isGreaterThan(bulk);
+        assertThat(connections("mysqlOltpDataSource")).isEqualTo(oltp);
+    }
+
+    // group commit, 저널 반영이 쓰는 여러 건 저장과 상환 일정 교체도 bulk pool 을 쓴다
+    @Test
+    void batchSaveAndScheduleReplacementUseBulkPool() {
+        Long loanId = myLoanExecuteService.executeCreditLoan(loan()).getId();
+        int oltp = connections("mysqlOltpDataSource");
+        int bulk = connections("mysqlBulkDataSource");
+
+        myLoanExecuteService.executeCreditLoans(List.of(loan(), loan()));
+        myLoanExecuteService.replaceRepaymentSchedule(loanId, BigDecimal.valueOf(4.0), 24);
+
+        assertThat(connections("mysqlBulkDataSource")).isGreaterThanOrEqualTo(bulk + 2);
+        assertThat(connections("mysqlOltpDataSource")).isEqualTo(oltp);
+    }
+
+    // 서버 커서(useCursorFetch)는 bulk pool 커넥션에만 설정되어 있다
+    @Test
+    void streamingReadUsesBulkPool() {
+        Long loanId = myLoanExecuteService.executeCreditLoan(loan()).getId();
+        int oltp = connections("mysqlOltpDataSource");
+        int bulk = connections("mysqlBulkDataSource");
+
+        assertThat(myLoanQueryService.forEachSchedule(loanId, schedule -> { })).isEqualTo(12);
+
+        assertThat(connections("mysqlBulkDataSource")).isGreaterThan(bulk);
+        assertThat(connections("mysqlOltpDataSource")).isEqualTo(oltp);
+    }
+
+    @Test
+    void otherTransactionsUseOltpPool() {
+        int oltp = connections("mysqlOltpDataSource");
+        int bulk = connections("mysqlBulkDataSource");
+
+        myLoanExecuteService.executeCreditLoan(loan());
+
+        assertThat(connections("mysqlOltpDataSource")).isGreaterThan(oltp);
+        assertThat(connections("mysqlBulkDataSource")).isEqualTo(bulk);
+    }
+
+    private static int connections(String pool) {
+        return CONNECTIONS.computeIfAbsent(pool, name -> new AtomicInteger()).get();
+    }
+
+    private static LoanSaveVo loan() {
+        return LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(10_000_000))
+                .interestRate(BigDecimal.valueOf(3.0))
+                .durationMonths(12)
+                .build();
+    }
+
+    @TestConfiguration
+    static class PoolCountingConfig {
+
+        // 라우팅 DataSource 가 받는 두 pool 을 커넥션 획득 수를 세는 DataSource 로 감싼다
+        @Bean
+        static BeanPostProcessor poolCounter() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!beanName.equals("mysqlOltpDataSource") && !beanName.equals("mysqlBulkDataSource")) {
+                        return bean;
+                    }
+                    AtomicInteger counter = CONNECTIONS.computeIfAbsent(beanName, name -> new AtomicInteger());
+                    return new DelegatingDataSource((DataSource) bean) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            counter.incrementAndGet();
+                            return super.getConnection();
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
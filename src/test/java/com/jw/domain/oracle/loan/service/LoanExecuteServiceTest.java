@@ -1,14 +1,24 @@
 package com.jw.domain.oracle.loan.service;
 
+import com.jw.common.jdbc.OracleBulkInsertWriter;
+import com.jw.common.jdbc.OracleInsertMode;
+import com.jw.domain.oracle.loan.entity.Loan;
+import com.jw.domain.oracle.loan.entity.LoanSchedule;
 import com.jw.domain.oracle.loan.vo.LoanSaveVo;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @Slf4j
 @SpringBootTest
@@ -20,6 +30,13 @@ class LoanExecuteServiceTest {
     @Autowired
     private LoanExecuteService loanExecuteService;
 
+    @Autowired
+    @Qualifier("oracleProxyDataSource")
+    private DataSource dataSource;
+
+    @Autowired
+    private OracleBulkInsertWriter bulkInsertWriter;
+
     @Test
     @Transactional(transactionManager = "oracleTransactionManager")
     void testPerformance() {
@@ -34,6 +51,49 @@ class LoanExecuteServiceTest {
         log.info("loanExecuteService cost time: {} ms", end - start);
     }
 
+    // 방식마다 자기 트랜잭션으로 실행하고 커밋된 상환 일정 건수를 확인한다
+    @Test
+    void compareThroughput() {
+        LoanSaveVo vo = LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(100_000_000))
+                .interestRate(BigDecimal.valueOf(4.0))
+                .durationMonths(DATA_SIZE)
+                .build();
+        long saveCost = measure(() -> loanExecuteService.executeCreditLoan(vo));
+        long columnarCost = measure(() -> loanExecuteService.executeCreditLoanColumnar(vo));
+        long nativeCost = measure(() -> loanExecuteService.executeCreditLoanNative(vo));
+
+        log.info("loanExecuteService save() : {} ms ({} rows/s), columnar : {} ms ({} rows/s), native : {} ms ({} rows/s)",
+                saveCost, DATA_SIZE * 1000L / Math.max(1, saveCost),
+                columnarCost, DATA_SIZE * 1000L / Math.max(1, columnarCost),
+                nativeCost, DATA_SIZE * 1000L / Math.max(1, nativeCost));
+    }
+
+    // 모드마다 별도 트랜잭션으로 실행. LOAN_SCHEDULE 은 FK 가 있어 DIRECT_PATH 도 ARRAY_DML 로 실행되므로 적용된 모드를 함께 남긴다
+    @Test
+    void compareInsertModes() {
+        LoanSaveVo vo = LoanSaveVo.builder()
+                .amount(BigDecimal.valueOf(100_000_000))
+                .interestRate(BigDecimal.valueOf(4.0))
+                .durationMonths(DATA_SIZE)
+                .build();
+        for (OracleInsertMode mode : OracleInsertMode.values()) {
+            long cost = measure(() -> loanExecuteService.executeCreditLoanNative(vo, mode));
+            log.info("oracle insert mode {} (applied {}) : {} ms ({} rows/s)", mode,
+                    bulkInsertWriter.appliedMode(LoanSchedule.class, mode), cost, DATA_SIZE * 1000L / Math.max(1, cost));
+        }
+    }
+
+    private long measure(Supplier<Loan> execution) {
+        long start = System.currentTimeMillis();
+        Loan loan = execution.get();
+        long cost = System.currentTimeMillis() - start;
+        assertThat(new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM LOAN_SCHEDULE WHERE LOAN_ID = ?", Long.class, loan.getId()))
+                .isEqualTo(DATA_SIZE);
+        return cost;
+    }
+
     @Test
     @Transactional(transactionManager = "oracleTransactionManager")
     void createCreditLoan() {
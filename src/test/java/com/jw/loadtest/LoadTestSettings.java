@@ -0,0 +1,63 @@
+package com.jw.loadtest;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * 부하 테스트 설정. {@code gradle loadTest -Dload.concurrency=64 ...} 처럼 시스템 속성으로 받는다.
+ */
+@Getter
+class LoadTestSettings {
+
+    enum Operation {
+        // executeCreditLoan (JPA, 요청마다 트랜잭션)
+        SAVE,
+        // executeCreditLoanNative (JDBC 직접 insert)
+        NATIVE,
+        // executeCreditLoanColumnar (열 단위 버퍼로 JDBC insert)
+        COLUMNAR,
+        // IngestService (group commit)
+        INGEST
+    }
+
+    private final int concurrency;
+    private final boolean virtualThreads;
+    private final Duration warmup;
+    private final Duration duration;
+    private final LoanSizeDistribution loanSizes;
+    private final String loanSizeSpec;
+    private final List<String> databases;
+    private final Operation operation;
+    private final long seed;
+
+    private LoadTestSettings() {
+        this.concurrency = Integer.getInteger("load.concurrency", 64);
+        this.virtualThreads = "virtual".equalsIgnoreCase(System.getProperty("load.threads", "platform"));
+        this.warmup = DurationStyle.detectAndParse(System.getProperty("load.warmup", "5s"));
+        this.duration = DurationStyle.detectAndParse(System.getProperty("load.duration", "30s"));
+        this.loanSizeSpec = System.getProperty("load.months", "12:70,60:25,360:5");
+        this.loanSizes = LoanSizeDistribution.parse(loanSizeSpec);
+        this.databases = Arrays.stream(System.getProperty("load.databases", "mysql,oracle").split(","))
+                .map(database -> database.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+        this.operation = Operation.valueOf(System.getProperty("load.operation", "save").trim().toUpperCase(Locale.ROOT));
+        this.seed = Long.getLong("load.seed", 42L);
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings();
+    }
+
+    @Override
+    public String toString() {
+        return "concurrency=" + concurrency + ", threads=" + (virtualThreads ? "virtual" : "platform")
+                + ", warmup=" + warmup + ", duration=" + duration + ", months=" + loanSizeSpec
+                + ", databases=" + databases + ", operation=" + operation + ", seed=" + seed;
+    }
+}
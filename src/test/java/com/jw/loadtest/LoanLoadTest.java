@@ -0,0 +1,208 @@
+package com.jw.loadtest;
+
+import com.jw.domain.mysql.loan.service.MyLoanExecuteService;
+import com.jw.domain.mysql.loan.service.MyLoanIngestService;
+import com.jw.domain.oracle.loan.service.LoanExecuteService;
+import com.jw.domain.oracle.loan.service.LoanIngestService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 서비스 계층을 동시에 호출하는 부하 테스트. 기본 test 태스크에서는 제외되고 {@code gradle loadTest} 로만 실행한다.
+ * <pre>
+ * gradle loadTest -Dload.concurrency=64 -Dload.threads=virtual -Dload.duration=60s -Dload.months=12:70,60:25,360:5
+ * gradle loadTest -Dspring.profiles.active=h2 -Dload.databases=mysql   // DB 컨테이너 없이 내장 H2 로 실행
+ * </pre>
+ * DB 별로 차례로 돌리며 latency 백분위수(p50/p99/p999), 처리량, OLTP / bulk pool 별 Hikari 커넥션 대기 통계를 출력한다.
+ * H2 에서는 Oracle native(connect by 로 시퀀스 조회)가 동작하지 않으므로 오류 건수로만 집계된다.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest
+class LoanLoadTest {
+
+    @Autowired
+    private MyLoanExecuteService myLoanExecuteService;
+
+    @Autowired
+    private MyLoanIngestService myLoanIngestService;
+
+    @Autowired
+    private LoanExecuteService loanExecuteService;
+
+    @Autowired
+    private LoanIngestService loanIngestService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void run() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        log.info("load test settings: {}", settings);
+        List<String> reports = new ArrayList<>();
+        for (String database : settings.getDatabases()) {
+            reports.add(run(settings, database));
+        }
+        log.info("load test result ({})\n{}", settings, String.join("\n", reports));
+    }
+
+    private String run(LoadTestSettings settings, String database) throws Exception {
+        IntConsumer operation = operation(database, settings.getOperation());
+        // {db}DataSource 는 workload 로 두 pool 을 고르는 라우팅 DataSource 이므로 pool 을 따로 샘플링한다
+        HikariDataSource oltpPool = applicationContext.getBean(database + "OltpDataSource", HikariDataSource.class);
+        HikariDataSource bulkPool = applicationContext.getBean(database + "BulkDataSource", HikariDataSource.class);
+        SimpleMeterRegistry latencyRegistry = new SimpleMeterRegistry();
+        // 측정 구간 전체의 백분위수를 보기 위해 윈도우가 만료되지 않도록 한다
+        Timer latency = Timer.builder("load.latency")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .percentilePrecision(2)
+                .distributionStatisticExpiry(Duration.ofDays(1))
+                .distributionStatisticBufferLength(1)
+                .register(latencyRegistry);
+        AtomicLong errors = new AtomicLong();
+        AtomicLong rows = new AtomicLong();
+
+        long warmupEnd = System.nanoTime() + settings.getWarmup().toNanos();
+        long end = warmupEnd + settings.getDuration().toNanos();
+        ExecutorService executor = newExecutor(settings);
+        try (PoolContentionSampler oltpSampler = new PoolContentionSampler(oltpPool, meterRegistry);
+             PoolContentionSampler bulkSampler = new PoolContentionSampler(bulkPool, meterRegistry)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < settings.getConcurrency(); i++) {
+                Random random = new Random(settings.getSeed() + i);
+                workers.add(executor.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        int months = settings.getLoanSizes().sample(random);
+                        long start = System.nanoTime();
+                        boolean measuring = start >= warmupEnd;
+                        try {
+                            operation.accept(months);
+                            if (measuring) {
+                                latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                                rows.addAndGet(months + 1);
+                            }
+                        } catch (RuntimeException e) {
+                            if (measuring && errors.getAndIncrement() == 0) {
+                                log.warn("load test operation failed. database={}", database, e);
+                            }
+                        }
+                    }
+                }));
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+            oltpSampler.start();
+            bulkSampler.start();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            String poolStats = oltpSampler.stop() + "\n  " + bulkSampler.stop();
+            assertThat(latency.count() + errors.get()).as("no request completed: %s", database).isPositive();
+            return report(database, settings, latency, errors.get(), rows.get(), poolStats);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private IntConsumer operation(String database, LoadTestSettings.Operation operation) {
+        BigDecimal amount = BigDecimal.valueOf(100_000_000);
+        BigDecimal interestRate = BigDecimal.valueOf(4.0);
+        if ("mysql".equals(database)) {
+            return months -> {
+                com.jw.domain.mysql.loan.vo.LoanSaveVo vo = com.jw.domain.mysql.loan.vo.LoanSaveVo.builder()
+                        .amount(amount).interestRate(interestRate).durationMonths(months).build();
+                switch (operation) {
+                    case NATIVE:
+                        myLoanExecuteService.executeCreditLoanNative(vo);
+                        break;
+                    case COLUMNAR:
+                        myLoanExecuteService.executeCreditLoanColumnar(vo);
+                        break;
+                    case INGEST:
+                        myLoanIngestService.executeCreditLoan(vo).join();
+                        break;
+                    default:
+                        myLoanExecuteService.executeCreditLoan(vo);
+                }
+            };
+        }
+        if ("oracle".equals(database)) {
+            return months -> {
+                com.jw.domain.oracle.loan.vo.LoanSaveVo vo = com.jw.domain.oracle.loan.vo.LoanSaveVo.builder()
+                        .amount(amount).interestRate(interestRate).durationMonths(months).build();
+                switch (operation) {
+                    case NATIVE:
+                        loanExecuteService.executeCreditLoanNative(vo);
+                        break;
+                    case COLUMNAR:
+                        loanExecuteService.executeCreditLoanColumnar(vo);
+                        break;
+                    case INGEST:
+                        loanIngestService.executeCreditLoan(vo).join();
+                        break;
+                    default:
+                        loanExecuteService.executeCreditLoan(vo);
+                }
+            };
+        }
+        throw new IllegalArgumentException("Unknown database: " + database);
+    }
+
+    // 가상 스레드는 Java 21 이상에서만 사용할 수 있어 리플렉션으로 생성한다
+    private static ExecutorService newExecutor(LoadTestSettings settings) {
+        if (!settings.isVirtualThreads()) {
+            return Executors.newFixedThreadPool(settings.getConcurrency());
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21+: " + System.getProperty("java.version"), e);
+        }
+    }
+
+    private static String report(String database, LoadTestSettings settings, Timer latency, long errors,
+                                 long rows, String poolStats) {
+        double seconds = settings.getDuration().toNanos() / 1_000_000_000.0;
+        StringBuilder percentiles = new StringBuilder();
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            percentiles.append(String.format("p%s=%.1f ms, ", percentileLabel(value.percentile()),
+                    value.value(TimeUnit.MILLISECONDS)));
+        }
+        return String.format("[%s] requests=%d, errors=%d, throughput=%.1f req/s (%.0f rows/s), "
+                        + "latency(%smean=%.1f ms, max=%.1f ms)%n  %s",
+                database, latency.count(), errors, latency.count() / seconds, rows / seconds,
+                percentiles, latency.mean(TimeUnit.MILLISECONDS), latency.max(TimeUnit.MILLISECONDS), poolStats);
+    }
+
+    // 0.5 -> 50, 0.99 -> 99, 0.999 -> 999
+    private static String percentileLabel(double percentile) {
+        String digits = String.valueOf(percentile).substring(2);
+        return digits.length() == 1 ? digits + "0" : digits;
+    }
+}
@@ -0,0 +1,44 @@
+package com.jw.loadtest;
+
+import java.util.Random;
+
+/**
+ * 대출 기간(개월 수) 분포. {@code "12:70,60:25,360:5"} 는 12개월 70%, 60개월 25%, 360개월 5%.
+ */
+class LoanSizeDistribution {
+
+    private final int[] months;
+    private final int[] cumulativeWeights;
+
+    private LoanSizeDistribution(int[] months, int[] cumulativeWeights) {
+        this.months = months;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    static LoanSizeDistribution parse(String spec) {
+        String[] entries = spec.split(",");
+        int[] months = new int[entries.length];
+        int[] cumulativeWeights = new int[entries.length];
+        int total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            String[] pair = entries[i].trim().split(":");
+            months[i] = Integer.parseInt(pair[0].trim());
+            total += pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+            cumulativeWeights[i] = total;
+            if (months[i] < 1) {
+                throw new IllegalArgumentException("Invalid loan size: " + entries[i]);
+            }
+        }
+        return new LoanSizeDistribution(months, cumulativeWeights);
+    }
+
+    int sample(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return months[i];
+            }
+        }
+        return months[months.length - 1];
+    }
+}
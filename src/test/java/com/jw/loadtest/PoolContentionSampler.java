@@ -0,0 +1,96 @@
+package com.jw.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hikari pool 의 대기 스레드 수를 주기적으로 샘플링하고, 측정 구간의 커넥션 획득 시간(hikaricp.connections.acquire)을 계산한다.
+ */
+class PoolContentionSampler implements AutoCloseable {
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 10;
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pool-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ScheduledFuture<?> sampling;
+    private long samples;
+    private long pendingSum;
+    private int maxPending;
+    private int maxActive;
+    private long acquireCountAtStart;
+    private double acquireNanosAtStart;
+    private double timeoutsAtStart;
+
+    PoolContentionSampler(HikariDataSource dataSource, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+    }
+
+    synchronized void start() {
+        samples = 0;
+        pendingSum = 0;
+        maxPending = 0;
+        maxActive = 0;
+        Timer acquire = acquireTimer();
+        acquireCountAtStart = acquire != null ? acquire.count() : 0;
+        acquireNanosAtStart = acquire != null ? acquire.totalTime(TimeUnit.NANOSECONDS) : 0;
+        timeoutsAtStart = timeouts();
+        sampling = scheduler.scheduleAtFixedRate(this::sample, 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized String stop() {
+        sampling.cancel(false);
+        Timer acquire = acquireTimer();
+        long acquireCount = acquire != null ? acquire.count() - acquireCountAtStart : 0;
+        double acquireMillis = acquire != null
+                ? (acquire.totalTime(TimeUnit.NANOSECONDS) - acquireNanosAtStart) / 1_000_000.0
+                : 0;
+        return String.format("pool=%s, maxPoolSize=%d, pending(avg=%.2f, max=%d), maxActive=%d, "
+                        + "acquire(count=%d, avg=%.3f ms, total=%.1f ms), timeouts=%d",
+                dataSource.getPoolName(), dataSource.getMaximumPoolSize(),
+                samples == 0 ? 0 : (double) pendingSum / samples, maxPending, maxActive,
+                acquireCount, acquireCount == 0 ? 0 : acquireMillis / acquireCount, acquireMillis,
+                (long) (timeouts() - timeoutsAtStart));
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized void sample() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return;
+        }
+        int pending = pool.getThreadsAwaitingConnection();
+        samples++;
+        pendingSum += pending;
+        maxPending = Math.max(maxPending, pending);
+        maxActive = Math.max(maxActive, pool.getActiveConnections());
+    }
+
+    private Timer acquireTimer() {
+        return meterRegistry.find("hikaricp.connections.acquire").tag("pool", dataSource.getPoolName()).timer();
+    }
+
+    private double timeouts() {
+        Counter counter = meterRegistry.find("hikaricp.connections.timeout")
+                .tag("pool", dataSource.getPoolName()).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}